@@ -26,12 +26,20 @@ import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import javax.swing.JFrame;
 
 import org.openwaterfoundation.tstool.plugin.aquarius.datastore.AquariusDataStore;
+import org.openwaterfoundation.tstool.plugin.aquarius.dao.ChangedSeries;
 import org.openwaterfoundation.tstool.plugin.aquarius.dao.TimeSeriesCatalog;
+import org.openwaterfoundation.tstool.plugin.aquarius.dto.TimeSeriesPointArrays;
 import org.openwaterfoundation.tstool.plugin.aquarius.ui.Aquarius_TimeSeries_InputFilter_JPanel;
+import org.openwaterfoundation.tstool.plugin.aquarius.util.ConcurrencyUtil;
+import org.openwaterfoundation.tstool.plugin.aquarius.util.TimeUtil;
 
 import riverside.datastore.DataStore;
 import rti.tscommandprocessor.core.TSCommandProcessor;
@@ -83,6 +91,28 @@ Data API for time series data requests.
 protected String _Corrected = "Corrected";
 protected String _Raw = "Raw";
 
+/**
+DataParts values for time series data requests.
+*/
+protected String _All = "All";
+protected String _PointsOnly = "PointsOnly";
+
+/**
+ReadMode values for reading multiple time series.
+*/
+protected String _Series = "Series";
+protected String _TimeAligned = "TimeAligned";
+
+/**
+Data values for OnlyIfChangedSince parameter.
+*/
+protected String _LastRead = "LastRead";
+
+/**
+ReadPeriodPad value to pad the read period by one data interval.
+*/
+protected String _Interval = "Interval";
+
 /**
 List of time series read during discovery.
 These are TS objects but with mainly the metadata (TSIdent) filled in.
@@ -118,9 +148,15 @@ throws InvalidCommandParameterException {
     String Interval = parameters.getValue ( "Interval" );
     String LocationId = parameters.getValue ( "LocationId" );
     String DataApi = parameters.getValue ( "DataApi" );
+    String DataParts = parameters.getValue ( "DataParts" );
     String InputStart = parameters.getValue ( "InputStart" );
     String InputEnd = parameters.getValue ( "InputEnd" );
     String IrregularInterval = parameters.getValue ( "IrregularInterval" );
+    String ReadPeriodPad = parameters.getValue ( "ReadPeriodPad" );
+    String ReadWindow = parameters.getValue ( "ReadWindow" );
+    String ReadMode = parameters.getValue ( "ReadMode" );
+    String ReadConcurrency = parameters.getValue ( "ReadConcurrency" );
+    String OnlyIfChangedSince = parameters.getValue ( "OnlyIfChangedSince" );
     //String Read24HourAsDay = parameters.getValue ( "Read24HourAsDay" );
     //String ReadDayAs24Hour = parameters.getValue ( "ReadDayAs24Hour" );
     String Debug = parameters.getValue ( "Debug" );
@@ -150,6 +186,15 @@ throws InvalidCommandParameterException {
                    message, "Specify " + _Corrected + " (default) or " + _Raw ) );
 	}
 
+	if ( (DataParts != null) && !DataParts.equals("") &&
+		!DataParts.equalsIgnoreCase(_All) && !DataParts.equalsIgnoreCase(_PointsOnly) ) {
+        message = "The DataParts parameter value is invalid.";
+		warning += "\n" + message;
+           status.addToLog ( CommandPhaseType.INITIALIZATION,
+               new CommandLogRecord(CommandStatusType.FAILURE,
+                   message, "Specify " + _PointsOnly + " (default) or " + _All ) );
+	}
+
 	if ( (InputStart != null) && !InputStart.equals("") &&
 		!InputStart.equalsIgnoreCase("InputStart") &&
 		!InputStart.equalsIgnoreCase("InputEnd") && (InputStart.indexOf("${") < 0)) { // }
@@ -198,6 +243,78 @@ throws InvalidCommandParameterException {
 		}
 	}
 
+	if ( (ReadPeriodPad != null) && !ReadPeriodPad.equals("") && !ReadPeriodPad.equalsIgnoreCase(_Interval)
+		&& (ReadPeriodPad.indexOf("${") < 0) ) { // }
+		try {
+			TimeInterval.parseInterval(ReadPeriodPad);
+		}
+		catch ( Exception e ) {
+			message = "Invalid read period pad (" + ReadPeriodPad + ").";
+			warning += "\n" + message;
+			status.addToLog ( CommandPhaseType.INITIALIZATION,
+				new CommandLogRecord(CommandStatusType.FAILURE,
+					message, "Specify " + _Interval + " or an interval such as 15Minute.") );
+		}
+	}
+
+	if ( (ReadWindow != null) && !ReadWindow.equals("") && (ReadWindow.indexOf("${") < 0) ) { // }
+		boolean readWindowValid = false;
+		try {
+			TimeInterval readWindow = TimeInterval.parseInterval(ReadWindow);
+			readWindowValid = TimeInterval.isRegularInterval(readWindow.getBase()) && (readWindow.getMultiplier() > 0);
+		}
+		catch ( Exception e ) {
+			readWindowValid = false;
+		}
+		if ( !readWindowValid ) {
+			message = "Invalid read window (" + ReadWindow + ").";
+			warning += "\n" + message;
+			status.addToLog ( CommandPhaseType.INITIALIZATION,
+				new CommandLogRecord(CommandStatusType.FAILURE,
+					message, "Specify a regular interval such as 1Year.") );
+		}
+	}
+
+	if ( (ReadMode != null) && !ReadMode.equals("") &&
+		!ReadMode.equalsIgnoreCase(_Series) && !ReadMode.equalsIgnoreCase(_TimeAligned) ) {
+		message = "The ReadMode parameter value is invalid.";
+		warning += "\n" + message;
+		status.addToLog ( CommandPhaseType.INITIALIZATION,
+			new CommandLogRecord(CommandStatusType.FAILURE,
+				message, "Specify " + _Series + " (default) or " + _TimeAligned ) );
+	}
+	else if ( (ReadMode != null) && ReadMode.equalsIgnoreCase(_TimeAligned) && (DataApi != null) && DataApi.equalsIgnoreCase(_Raw) ) {
+		message = "ReadMode=" + _TimeAligned + " cannot be used with DataApi=" + _Raw + ".";
+		warning += "\n" + message;
+		status.addToLog ( CommandPhaseType.INITIALIZATION,
+			new CommandLogRecord(CommandStatusType.FAILURE,
+				message, "Specify ReadMode=" + _Series + " to read raw data." ) );
+	}
+
+	if ( (OnlyIfChangedSince != null) && !OnlyIfChangedSince.equals("") &&
+		!OnlyIfChangedSince.equalsIgnoreCase(_LastRead) && (OnlyIfChangedSince.indexOf("${") < 0) ) { // }
+		try {
+			DateTime.parse(OnlyIfChangedSince);
+		}
+		catch ( Exception e ) {
+			message = "The OnlyIfChangedSince parameter value \"" + OnlyIfChangedSince + "\" is invalid.";
+			warning += "\n" + message;
+			status.addToLog ( CommandPhaseType.INITIALIZATION,
+				new CommandLogRecord(CommandStatusType.FAILURE,
+					message, "Specify " + _LastRead + " or a date/time." ) );
+		}
+	}
+
+	if ( (ReadConcurrency != null) && !ReadConcurrency.equals("") && (ReadConcurrency.indexOf("${") < 0) ) { // }
+		if ( !StringUtil.isInteger(ReadConcurrency) || (Integer.parseInt(ReadConcurrency.trim()) < 1) ) {
+			message = "Invalid read concurrency (" + ReadConcurrency + ").";
+			warning += "\n" + message;
+			status.addToLog ( CommandPhaseType.INITIALIZATION,
+				new CommandLogRecord(CommandStatusType.FAILURE,
+					message, "Specify an integer 1 or larger.") );
+		}
+	}
+
 	/*
 	if ( (Read24HourAsDay != null) && !Read24HourAsDay.equals("") ) {
 		++paramCount;
@@ -336,10 +453,16 @@ throws InvalidCommandParameterException {
     }
     // More general parameters.
     validList.add ( "DataApi" );
+    validList.add ( "DataParts" );
     validList.add ( "Alias" );
     validList.add ( "InputStart" );
     validList.add ( "InputEnd" );
     validList.add ( "IrregularInterval" );
+    validList.add ( "ReadPeriodPad" );
+    validList.add ( "ReadWindow" );
+    validList.add ( "ReadMode" );
+    validList.add ( "ReadConcurrency" );
+    validList.add ( "OnlyIfChangedSince" );
     //validList.add ( "Read24HourAsDay" );
     //validList.add ( "ReadDayAs24Hour" );
     validList.add ( "Timezone" );
@@ -360,7 +483,10 @@ throws InvalidCommandParameterException {
  * Create properties for reading time series.
  * @param debug whether to run web service queries in debug
  * @param ataApi the API to use for data reads ('Raw', or 'Corrected')
+ * @param dataParts the parts of the data response to request ('PointsOnly' or 'All')
  * @param irregularInterval irregular interval to use for output time series
+ * @param readPeriodPad "Interval" or an interval string used to pad the read period
+ * @param readWindow interval string used to split the read period into windows that are read concurrently
  * @param read24HourAsDay whether to read 24Hour time series as day interval
  * @param readDayAs24Hour whether to read daily time series as 24Hour interval
  * @param timezone time zone to be used for response, important for interval calculations
@@ -368,7 +494,10 @@ throws InvalidCommandParameterException {
 private HashMap<String,Object> createReadProperties (
 	boolean debug,
 	String dataApi,
+	String dataParts,
 	String irregularInterval,
+	String readPeriodPad,
+	String readWindow,
 	//boolean read24HourAsDay,
 	//boolean readDayAs24Hour,
 	String timezone ) {
@@ -376,6 +505,9 @@ private HashMap<String,Object> createReadProperties (
 	if ( (dataApi != null) && !dataApi.isEmpty() ) {
 		readProperties.put("DataApi", dataApi );
 	}
+	if ( (dataParts != null) && !dataParts.isEmpty() ) {
+		readProperties.put("DataParts", dataParts );
+	}
 	if ( (timezone != null) && !timezone.isEmpty() ) {
 		readProperties.put("TimeZone", timezone );
 	}
@@ -385,6 +517,12 @@ private HashMap<String,Object> createReadProperties (
 	if ( (irregularInterval != null) && !irregularInterval.isEmpty() ) {
 		readProperties.put("IrregularInterval", irregularInterval );
 	}
+	if ( (readPeriodPad != null) && !readPeriodPad.isEmpty() ) {
+		readProperties.put("ReadPeriodPad", readPeriodPad );
+	}
+	if ( (readWindow != null) && !readWindow.isEmpty() ) {
+		readProperties.put("ReadWindow", readWindow );
+	}
 	/*
 	if ( read24HourAsDay ) {
 		readProperties.put("Read24HourAsDay", "True" );
@@ -399,6 +537,47 @@ private HashMap<String,Object> createReadProperties (
 	return readProperties;
 }
 
+/**
+ * Get the time series that have changed, for the OnlyIfChangedSince parameter.
+ * If the changes cannot be determined, a warning is logged and all time series are read.
+ * @param dataStore the datastore to read from
+ * @param onlyIfChangedSince "LastRead" or a date/time
+ * @param timezone time zone for the date/time if not specified in the date/time
+ * @param status command status for logging
+ * @param commandPhase command phase for logging
+ * @return the time series that have changed, or null if all time series should be read
+ */
+private ChangedSeries getChangedSeries ( AquariusDataStore dataStore, String onlyIfChangedSince, String timezone,
+	CommandStatus status, CommandPhaseType commandPhase ) {
+	String routine = getClass().getSimpleName() + ".getChangedSeries";
+	if ( (onlyIfChangedSince == null) || onlyIfChangedSince.isEmpty() ) {
+		return null;
+	}
+	try {
+		if ( onlyIfChangedSince.equalsIgnoreCase(_LastRead) ) {
+			return dataStore.getChangedSeriesSinceLastRead();
+		}
+		else {
+			DateTime since = DateTime.parse(onlyIfChangedSince);
+			String tz = since.getTimeZoneAbbreviation();
+			if ( ((tz == null) || tz.isEmpty()) && (timezone != null) && !timezone.isEmpty() ) {
+				since.setTimeZone(timezone);
+			}
+			return dataStore.getChangedSeriesSince(TimeUtil.toInstant(since));
+		}
+	}
+	catch ( Exception e ) {
+		String message = "Error getting the time series that have changed since \"" + onlyIfChangedSince
+			+ "\" (" + e + ") - reading all time series.";
+		Message.printWarning ( 3, routine, message );
+		Message.printWarning ( 3, routine, e );
+		status.addToLog ( commandPhase,
+			new CommandLogRecord(CommandStatusType.WARNING,
+				message, "Check the log file for details." ) );
+		return null;
+	}
+}
+
 /**
 Edit the command.
 @param parent The parent JFrame to which the command dialog will belong.
@@ -517,6 +696,10 @@ throws InvalidCommandParameterException, CommandWarningException, CommandExcepti
 	if ( commandPhase == CommandPhaseType.RUN ) {
 	    DataApi = TSCommandProcessorUtil.expandParameterValue(getCommandProcessor(), this, DataApi);
 	}
+	String DataParts = parameters.getValue ("DataParts" );
+	if ( commandPhase == CommandPhaseType.RUN ) {
+	    DataParts = TSCommandProcessorUtil.expandParameterValue(getCommandProcessor(), this, DataParts);
+	}
 
 	String InputStart = parameters.getValue("InputStart");
 	if ( (InputStart == null) || InputStart.isEmpty() ) {
@@ -528,6 +711,19 @@ throws InvalidCommandParameterException, CommandWarningException, CommandExcepti
 	}
     String IrregularInterval = parameters.getValue("IrregularInterval");
 	IrregularInterval = TSCommandProcessorUtil.expandParameterValue(getCommandProcessor(), this, IrregularInterval);
+    String ReadPeriodPad = parameters.getValue("ReadPeriodPad");
+	ReadPeriodPad = TSCommandProcessorUtil.expandParameterValue(getCommandProcessor(), this, ReadPeriodPad);
+    String ReadWindow = parameters.getValue("ReadWindow");
+	ReadWindow = TSCommandProcessorUtil.expandParameterValue(getCommandProcessor(), this, ReadWindow);
+    String ReadMode = parameters.getValue("ReadMode");
+    boolean readTimeAligned = false;
+    if ( (ReadMode != null) && ReadMode.equalsIgnoreCase(_TimeAligned) ) {
+    	readTimeAligned = true;
+    }
+    String ReadConcurrency = parameters.getValue("ReadConcurrency");
+	ReadConcurrency = TSCommandProcessorUtil.expandParameterValue(getCommandProcessor(), this, ReadConcurrency);
+    String OnlyIfChangedSince = parameters.getValue("OnlyIfChangedSince");
+	OnlyIfChangedSince = TSCommandProcessorUtil.expandParameterValue(getCommandProcessor(), this, OnlyIfChangedSince);
 
 	/*
     String Read24HourAsDay = parameters.getValue("Read24HourAsDay");
@@ -640,6 +836,18 @@ throws InvalidCommandParameterException, CommandWarningException, CommandExcepti
             throw new RuntimeException ( message );
         }
         else {
+        	// The datastore is initialized in the background so make sure that it is ready.
+        	try {
+        		dataStore.waitForInitialization();
+        	}
+        	catch ( RuntimeException e ) {
+        		message = e.getMessage();
+        		Message.printWarning ( 2, routine, message );
+        		status.addToLog ( commandPhase,
+        			new CommandLogRecord(CommandStatusType.FAILURE,
+        				message, "Wait for the datastore to initialize or increase the datastore InitializationWaitMs property." ) );
+        		throw e;
+        	}
 			// Have a datastore so try to read.
         	// See if a Where has been specified by checking for the first Where clause.
 			String WhereN = parameters.getValue ( "Where" + 1 );
@@ -683,10 +891,19 @@ throws InvalidCommandParameterException, CommandWarningException, CommandExcepti
 					HashMap<String,Object> readProperties = createReadProperties (
 						debug,
 						DataApi,
+						DataParts,
 						IrregularInterval,
+						ReadPeriodPad,
+						ReadWindow,
 						//read24HourAsDay,
 						//readDayAs24Hour,
 						Timezone );
+					if ( readData ) {
+						ChangedSeries changedSeries = getChangedSeries ( dataStore, OnlyIfChangedSince, Timezone, status, commandPhase );
+						if ( changedSeries != null ) {
+							readProperties.put("ChangedSeries", changedSeries );
+						}
+					}
 	                ts = dataStore.readTimeSeries ( TSID, InputStart_DateTime, InputEnd_DateTime, readData, readProperties );
 				}
 				catch ( Exception e ) {
@@ -815,76 +1032,145 @@ throws InvalidCommandParameterException, CommandWarningException, CommandExcepti
 
 				Message.printStatus ( 2, "", "Reading " + size + " time series..." );
 
+				// Read the time series concurrently:
+				// - the ReadConcurrency parameter overrides the datastore configuration property
+				// - results are processed in catalog order so that the output order is the same as a sequential read
+				int readConcurrency = dataStore.getReadConcurrency();
+				if ( (ReadConcurrency != null) && !ReadConcurrency.isEmpty() ) {
+					readConcurrency = ConcurrencyUtil.parseConcurrency(ReadConcurrency, readConcurrency);
+				}
+				if ( readConcurrency > size ) {
+					readConcurrency = size;
+				}
+				Message.printStatus ( 2, routine, "Reading " + size + " time series using " + readConcurrency + " concurrent reads." );
+
 				String tsidentString = null; // TSIdent string.
 				TS ts; // Time series to read.
 				TimeSeriesCatalog tsCatalog;
 				HashMap<String,Object> readProperties = createReadProperties (
 					debug,
 					DataApi,
+					DataParts,
 					IrregularInterval,
+					ReadPeriodPad,
+					ReadWindow,
 					//read24HourAsDay,
 					//readDayAs24Hour,
 					Timezone );
-				for ( int i = 0; i < size; i++ ) {
-					// Check to see if reading time series should be canceled because the command has been canceled.
-					if ( tsprocessor.getCancelProcessingRequested() ) {
-						// The user has requested that command processing should be canceled.
-						// Check here in this command because a very large query could take a long time before a single command finishes.
-						Message.printStatus(2, routine, "Cancel processing based on user request.");
-						break;
+				// If requested, only read the data for time series that have changed:
+				// - the changes are requested once for all the time series
+				if ( readData ) {
+					ChangedSeries changedSeries = getChangedSeries ( dataStore, OnlyIfChangedSince, Timezone, status, commandPhase );
+					if ( changedSeries != null ) {
+						readProperties.put("ChangedSeries", changedSeries );
 					}
-					// List in order of likelihood to improve performance.
-					tsidentString = null; // Do this in case there is no active match.
-					tsCatalog = (TimeSeriesCatalog)tsCatalogList.get(i);
-					String locId = tsCatalog.getLocId();
-					String dataSource = tsCatalog.getDataSource();
-					String dataType = "";
-					// Data type is from the catalog (not the original data type).
-					String dataTypeFromCatalog = tsCatalog.getDataType();
-					if ( (dataTypeFromCatalog != null) && !dataTypeFromCatalog.isEmpty() && !dataTypeFromCatalog.equals("*") ) {
-						if ( dataTypeFromCatalog.indexOf(".") > 0 ) {
-							dataType += "'" + dataTypeFromCatalog + "'";
+				}
+				// If requested, read the data for many time series in each time-aligned request:
+				// - time series that are not read are read individually below
+				Map<String,TimeSeriesPointArrays> timeAlignedPointsMap = new HashMap<>();
+				if ( readData && readTimeAligned ) {
+					timeAlignedPointsMap = dataStore.readTimeAlignedData (
+						tsCatalogList, InputStart_DateTime, InputEnd_DateTime, readProperties, readConcurrency );
+					Message.printStatus ( 2, routine, "Read data for " + timeAlignedPointsMap.size() + " of " + size
+						+ " time series using time-aligned requests." );
+				}
+				// Final copies for use in the read tasks.
+				final AquariusDataStore readDataStore = dataStore;
+				final DateTime readStart = InputStart_DateTime;
+				final DateTime readEnd = InputEnd_DateTime;
+				final boolean readDataFinal = readData;
+				List<String> tsidentStringList = new ArrayList<>(size);
+				List<Future<TS>> futureList = new ArrayList<>(size);
+				ExecutorService executor = ConcurrencyUtil.newDaemonThreadPool("aquarius-read", readConcurrency);
+				try {
+					for ( int i = 0; i < size; i++ ) {
+						// List in order of likelihood to improve performance.
+						tsCatalog = (TimeSeriesCatalog)tsCatalogList.get(i);
+						String locId = tsCatalog.getLocId();
+						String dataSource = tsCatalog.getDataSource();
+						String dataType = "";
+						// Data type is from the catalog (not the original data type).
+						String dataTypeFromCatalog = tsCatalog.getDataType();
+						if ( (dataTypeFromCatalog != null) && !dataTypeFromCatalog.isEmpty() && !dataTypeFromCatalog.equals("*") ) {
+							if ( dataTypeFromCatalog.indexOf(".") > 0 ) {
+								dataType += "'" + dataTypeFromCatalog + "'";
+							}
+							else {
+								dataType += dataTypeFromCatalog;
+							}
 						}
-						else {
-							dataType += dataTypeFromCatalog;
+						String interval = tsCatalog.getDataInterval();
+						if ( (interval == null) || interval.equals("*") ) {
+							// Don't set the interval so called code can determine.
+							interval = "";
 						}
+						final String tsidentStringRead =
+							locId
+							+ "." + dataSource 
+							+ "." + dataType
+							+ "." + interval;
+						tsidentStringList.add(tsidentStringRead);
+						// Pass the time-aligned points if read above.
+						HashMap<String,Object> seriesReadProperties = readProperties;
+						TimeSeriesPointArrays points = timeAlignedPointsMap.get(tsCatalog.getTimeSeriesDescriptionUniqueId());
+						if ( points != null ) {
+							seriesReadProperties = new HashMap<>(readProperties);
+							seriesReadProperties.put("TimeSeriesPoints", points);
+						}
+						final HashMap<String,Object> readPropertiesFinal = seriesReadProperties;
+						// Submit the read, which will run when a thread is available.
+						futureList.add ( executor.submit ( () -> readDataStore.readTimeSeries (
+							tsidentStringRead,
+							readStart,
+							readEnd, readDataFinal, readPropertiesFinal ) ) );
 					}
-					String interval = tsCatalog.getDataInterval();
-					if ( (interval == null) || interval.equals("*") ) {
-						// Don't set the interval so called code can determine.
-						interval = "";
-					}
-					tsidentString =
-						locId
-						+ "." + dataSource 
-						+ "." + dataType
-						+ "." + interval;
-		            // Update the progress.
-					message = "Reading Aquarius web service time series " + (i + 1) + " of " + size + " \"" + tsidentString + "\"";
-	                notifyCommandProgressListeners ( i, size, (float)-1.0, message );
-					try {
-					    ts = dataStore.readTimeSeries (
-							tsidentString,
-							InputStart_DateTime,
-							InputEnd_DateTime, readData, readProperties );
-						// Add the time series to the temporary list.  It will be further processed below.
-		                if ( (ts != null) && (Alias != null) && !Alias.equals("") ) {
-		                    ts.setAlias ( TSCommandProcessorUtil.expandTimeSeriesMetadataString(
-		                        processor, ts, Alias, status, commandPhase) );
-		                }
-		                // Allow null to be added here.
-						tslist.add ( ts );
-					}
-					catch ( Exception e ) {
-						message = "Unexpected error reading Aquarius web service time series \"" + tsidentString + "\" (" + e + ").";
-						Message.printWarning ( 2, routine, message );
-						Message.printWarning ( 2, routine, e );
-						++warning_count;
-	                    status.addToLog ( commandPhase,
-	                        new CommandLogRecord(CommandStatusType.FAILURE,
-	                           message, "Report the problem to software support - also see the log file." ) );
+					for ( int i = 0; i < size; i++ ) {
+						// Check to see if reading time series should be canceled because the command has been canceled.
+						if ( tsprocessor.getCancelProcessingRequested() ) {
+							// The user has requested that command processing should be canceled.
+							// Check here in this command because a very large query could take a long time before a single command finishes.
+							Message.printStatus(2, routine, "Cancel processing based on user request.");
+							for ( int j = i; j < size; j++ ) {
+								futureList.get(j).cancel(true);
+							}
+							break;
+						}
+						tsidentString = tsidentStringList.get(i);
+			            // Update the progress.
+						message = "Reading Aquarius web service time series " + (i + 1) + " of " + size + " \"" + tsidentString + "\"";
+		                notifyCommandProgressListeners ( i, size, (float)-1.0, message );
+						try {
+							// Wait for the read to complete.
+						    ts = futureList.get(i).get();
+							// Add the time series to the temporary list.  It will be further processed below.
+			                if ( (ts != null) && (Alias != null) && !Alias.equals("") ) {
+			                    ts.setAlias ( TSCommandProcessorUtil.expandTimeSeriesMetadataString(
+			                        processor, ts, Alias, status, commandPhase) );
+			                }
+			                // Allow null to be added here.
+							tslist.add ( ts );
+						}
+						catch ( Exception e ) {
+							// Failures are isolated to the single time series:
+							// - the actual read exception is wrapped in an ExecutionException
+							Throwable cause = e;
+							if ( (e instanceof ExecutionException) && (e.getCause() != null) ) {
+								cause = e.getCause();
+							}
+							message = "Unexpected error reading Aquarius web service time series \"" + tsidentString + "\" (" + cause + ").";
+							Message.printWarning ( 2, routine, message );
+							Message.printWarning ( 2, routine, cause );
+							++warning_count;
+		                    status.addToLog ( commandPhase,
+		                        new CommandLogRecord(CommandStatusType.FAILURE,
+		                           message, "Report the problem to software support - also see the log file." ) );
+						}
 					}
 				}
+				finally {
+					// Stop any reads that are still running, for example if canceled.
+					executor.shutdownNow();
+				}
 			}
 		}
 
@@ -998,10 +1284,16 @@ public String toString ( PropList parameters ) {
     }
 	String [] parameterOrder2 = {
 		"DataApi",
+		"DataParts",
 		"Alias",
 		"InputStart",
 		"InputEnd",
 		"IrregularInterval",
+		"ReadPeriodPad",
+		"ReadWindow",
+		"ReadMode",
+		"ReadConcurrency",
+		"OnlyIfChangedSince",
 		//"Read24HourAsDay",
 		//"ReadDayAs24Hour",
     	"Timezone",
@@ -40,6 +40,7 @@ import java.net.URI;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -54,6 +55,7 @@ import javax.swing.JTabbedPane;
 import javax.swing.JTextArea;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 import javax.swing.text.JTextComponent;
@@ -94,6 +96,7 @@ private SimpleJComboBox __DataStore_JComboBox = null;
 private SimpleJComboBox __DataType_JComboBox;
 private SimpleJComboBox __Interval_JComboBox;
 private SimpleJComboBox __DataApi_JComboBox;
+private SimpleJComboBox __DataParts_JComboBox;
 private TSFormatSpecifiersJPanel __Alias_JTextField = null;
 private JTabbedPane __tsInfo_JTabbedPane = null;
 private JPanel __multipleTS_JPanel = null;
@@ -101,6 +104,11 @@ private SimpleJComboBox __LocationId_JComboBox = null;
 private JTextField __LocationIdNote_JTextField;
 private JTextField __DataSource_JTextField;
 private SimpleJComboBox __IrregularInterval_JComboBox = null;
+private JTextField __ReadPeriodPad_JTextField;
+private JTextField __ReadWindow_JTextField;
+private SimpleJComboBox __ReadMode_JComboBox;
+private JTextField __ReadConcurrency_JTextField;
+private JTextField __OnlyIfChangedSince_JTextField;
 //private SimpleJComboBox __Read24HourAsDay_JComboBox = null;
 //private SimpleJComboBox __ReadDayAs24Hour_JComboBox = null;
 private JTextField __TSID_JTextField;
@@ -343,6 +351,10 @@ private void checkInput () {
     String DataApi = __DataApi_JComboBox.getSelected();
     if ( DataApi.length() > 0 ) {
         props.set ( "DataApi", DataApi );
+    }
+    String DataParts = __DataParts_JComboBox.getSelected();
+    if ( DataParts.length() > 0 ) {
+        props.set ( "DataParts", DataParts );
     }
 	String Alias = __Alias_JTextField.getText().trim();
 	if ( Alias.length() > 0 ) {
@@ -360,6 +372,26 @@ private void checkInput () {
     if ( IrregularInterval.length() > 0 ) {
         props.set ( "IrregularInterval", IrregularInterval );
     }
+    String ReadPeriodPad = __ReadPeriodPad_JTextField.getText().trim();
+    if ( ReadPeriodPad.length() > 0 ) {
+        props.set ( "ReadPeriodPad", ReadPeriodPad );
+    }
+    String ReadWindow = __ReadWindow_JTextField.getText().trim();
+    if ( ReadWindow.length() > 0 ) {
+        props.set ( "ReadWindow", ReadWindow );
+    }
+    String ReadMode = __ReadMode_JComboBox.getSelected();
+    if ( ReadMode.length() > 0 ) {
+        props.set ( "ReadMode", ReadMode );
+    }
+    String ReadConcurrency = __ReadConcurrency_JTextField.getText().trim();
+    if ( ReadConcurrency.length() > 0 ) {
+        props.set ( "ReadConcurrency", ReadConcurrency );
+    }
+    String OnlyIfChangedSince = __OnlyIfChangedSince_JTextField.getText().trim();
+    if ( OnlyIfChangedSince.length() > 0 ) {
+        props.set ( "OnlyIfChangedSince", OnlyIfChangedSince );
+    }
     /*
     String Read24HourAsDay = __Read24HourAsDay_JComboBox.getSelected();
     if ( Read24HourAsDay.length() > 0 ) {
@@ -430,6 +462,8 @@ private void commitEdits () {
 	// Both versions of the commands use these.
     String DataApi = __DataApi_JComboBox.getSelected();
 	__command.setCommandParameter ( "DataApi", DataApi );
+    String DataParts = __DataParts_JComboBox.getSelected();
+	__command.setCommandParameter ( "DataParts", DataParts );
 	String Alias = __Alias_JTextField.getText().trim();
 	__command.setCommandParameter ( "Alias", Alias );
 	String InputStart = __InputStart_JTextField.getText().trim();
@@ -438,6 +472,16 @@ private void commitEdits () {
 	__command.setCommandParameter ( "InputEnd", InputEnd );
 	String IrregularInterval = __IrregularInterval_JComboBox.getSelected();
 	__command.setCommandParameter (	"IrregularInterval", IrregularInterval );
+	String ReadPeriodPad = __ReadPeriodPad_JTextField.getText().trim();
+	__command.setCommandParameter (	"ReadPeriodPad", ReadPeriodPad );
+	String ReadWindow = __ReadWindow_JTextField.getText().trim();
+	__command.setCommandParameter (	"ReadWindow", ReadWindow );
+	String ReadMode = __ReadMode_JComboBox.getSelected();
+	__command.setCommandParameter (	"ReadMode", ReadMode );
+	String ReadConcurrency = __ReadConcurrency_JTextField.getText().trim();
+	__command.setCommandParameter (	"ReadConcurrency", ReadConcurrency );
+	String OnlyIfChangedSince = __OnlyIfChangedSince_JTextField.getText().trim();
+	__command.setCommandParameter (	"OnlyIfChangedSince", OnlyIfChangedSince );
 	/*
 	String Read24HourAsDay = __Read24HourAsDay_JComboBox.getSelected();
 	__command.setCommandParameter (	"Read24HourAsDay", Read24HourAsDay );
@@ -807,6 +851,24 @@ private void initialize ( JFrame parent, ReadAquarius_Command command ) {
 		"Optional - controls time series API request (default=" + __command._Corrected + ")."),
 		3, y, 2, 1, 0, 0, insetsTLBR, GridBagConstraints.NONE, GridBagConstraints.WEST);
 
+    JGUIUtil.addComponent(main_JPanel, new JLabel ( "Data parts:"),
+		0, ++y, 1, 1, 0, 0, insetsTLBR, GridBagConstraints.NONE, GridBagConstraints.EAST);
+    List<String> DataParts_List = new ArrayList<>( 3 );
+	DataParts_List.add ( "" );
+	DataParts_List.add ( __command._PointsOnly );
+	DataParts_List.add ( __command._All );
+	__DataParts_JComboBox = new SimpleJComboBox ( false );
+	__DataParts_JComboBox.setToolTipText("Parts of the time series data response to request, "
+		+ __command._All + " also includes grades, approvals, qualifiers, etc.");
+	__DataParts_JComboBox.setData ( DataParts_List);
+	__DataParts_JComboBox.select ( 0 );
+	__DataParts_JComboBox.addActionListener ( this );
+    JGUIUtil.addComponent(main_JPanel, __DataParts_JComboBox,
+		1, y, 2, 1, 1, 0, insetsTLBR, GridBagConstraints.NONE, GridBagConstraints.WEST);
+    JGUIUtil.addComponent(main_JPanel, new JLabel (
+		"Optional - parts of the time series data response (default=" + __command._PointsOnly + ")."),
+		3, y, 2, 1, 0, 0, insetsTLBR, GridBagConstraints.NONE, GridBagConstraints.WEST);
+
     JGUIUtil.addComponent(main_JPanel, new JLabel("Alias to assign:"),
         0, ++y, 1, 1, 0, 0, insetsTLBR, GridBagConstraints.NONE, GridBagConstraints.EAST);
     __Alias_JTextField = new TSFormatSpecifiersJPanel(10);
@@ -855,6 +917,67 @@ private void initialize ( JFrame parent, ReadAquarius_Command command ) {
 		"Optional - interval for irregular interval time series (default=IrregSecond)."),
 		3, y, 2, 1, 0, 0, insetsTLBR, GridBagConstraints.NONE, GridBagConstraints.WEST);
 
+    JGUIUtil.addComponent(main_JPanel, new JLabel ( "Read period pad:"),
+        0, ++y, 1, 1, 0, 0, insetsTLBR, GridBagConstraints.NONE, GridBagConstraints.EAST);
+    __ReadPeriodPad_JTextField = new JTextField (10);
+    __ReadPeriodPad_JTextField.setToolTipText("Pad the read period by one data interval (" + __command._Interval
+    	+ ") or an interval such as 15Minute, for example to interpolate at the ends of the period.");
+    __ReadPeriodPad_JTextField.addKeyListener (this);
+    JGUIUtil.addComponent(main_JPanel, __ReadPeriodPad_JTextField,
+        1, y, 2, 1, 0, 0, insetsTLBR, GridBagConstraints.NONE, GridBagConstraints.WEST);
+    JGUIUtil.addComponent(main_JPanel, new JLabel ( "Optional - " + __command._Interval + " or interval to pad the read period (default=no pad)."),
+        3, y, 3, 1, 0, 0, insetsTLBR, GridBagConstraints.NONE, GridBagConstraints.WEST );
+
+    JGUIUtil.addComponent(main_JPanel, new JLabel ( "Read window:"),
+        0, ++y, 1, 1, 0, 0, insetsTLBR, GridBagConstraints.NONE, GridBagConstraints.EAST);
+    __ReadWindow_JTextField = new JTextField (10);
+    __ReadWindow_JTextField.setToolTipText("Split the read period into windows such as 1Year that are read concurrently, "
+    	+ "for example to read a long period of 5Minute data.");
+    __ReadWindow_JTextField.addKeyListener (this);
+    JGUIUtil.addComponent(main_JPanel, __ReadWindow_JTextField,
+        1, y, 2, 1, 0, 0, insetsTLBR, GridBagConstraints.NONE, GridBagConstraints.WEST);
+    JGUIUtil.addComponent(main_JPanel, new JLabel ( "Optional - interval to split the read period (default=one request)."),
+        3, y, 3, 1, 0, 0, insetsTLBR, GridBagConstraints.NONE, GridBagConstraints.WEST );
+
+    JGUIUtil.addComponent(main_JPanel, new JLabel ( "Read mode:"),
+		0, ++y, 1, 1, 0, 0, insetsTLBR, GridBagConstraints.NONE, GridBagConstraints.EAST);
+    List<String> ReadMode_List = new ArrayList<>( 3 );
+	ReadMode_List.add ( "" );
+	ReadMode_List.add ( __command._Series );
+	ReadMode_List.add ( __command._TimeAligned );
+	__ReadMode_JComboBox = new SimpleJComboBox ( false );
+	__ReadMode_JComboBox.setToolTipText("How to read multiple time series, "
+		+ __command._TimeAligned + " reads many regular interval time series in each request.");
+	__ReadMode_JComboBox.setData ( ReadMode_List);
+	__ReadMode_JComboBox.select ( 0 );
+	__ReadMode_JComboBox.addActionListener ( this );
+    JGUIUtil.addComponent(main_JPanel, __ReadMode_JComboBox,
+		1, y, 2, 1, 1, 0, insetsTLBR, GridBagConstraints.NONE, GridBagConstraints.WEST);
+    JGUIUtil.addComponent(main_JPanel, new JLabel (
+		"Optional - how to read multiple time series (default=" + __command._Series + ")."),
+		3, y, 2, 1, 0, 0, insetsTLBR, GridBagConstraints.NONE, GridBagConstraints.WEST);
+
+    JGUIUtil.addComponent(main_JPanel, new JLabel ( "Read concurrency:"),
+        0, ++y, 1, 1, 0, 0, insetsTLBR, GridBagConstraints.NONE, GridBagConstraints.EAST);
+    __ReadConcurrency_JTextField = new JTextField (10);
+    __ReadConcurrency_JTextField.setToolTipText("Number of time series to read at the same time when matching multiple time series.");
+    __ReadConcurrency_JTextField.addKeyListener (this);
+    JGUIUtil.addComponent(main_JPanel, __ReadConcurrency_JTextField,
+        1, y, 2, 1, 0, 0, insetsTLBR, GridBagConstraints.NONE, GridBagConstraints.WEST);
+    JGUIUtil.addComponent(main_JPanel, new JLabel ( "Optional - number of time series to read concurrently (default=datastore ReadConcurrency or 4)."),
+        3, y, 3, 1, 0, 0, insetsTLBR, GridBagConstraints.NONE, GridBagConstraints.WEST );
+
+    JGUIUtil.addComponent(main_JPanel, new JLabel ( "Only if changed since:"),
+        0, ++y, 1, 1, 0, 0, insetsTLBR, GridBagConstraints.NONE, GridBagConstraints.EAST);
+    __OnlyIfChangedSince_JTextField = new JTextField (20);
+    __OnlyIfChangedSince_JTextField.setToolTipText("Reuse the data from the previous read in the session for time series that have not changed, "
+    	+ "specify " + __command._LastRead + " or a date/time, can use ${Property}.");
+    __OnlyIfChangedSince_JTextField.addKeyListener (this);
+    JGUIUtil.addComponent(main_JPanel, __OnlyIfChangedSince_JTextField,
+        1, y, 2, 1, 0, 0, insetsTLBR, GridBagConstraints.NONE, GridBagConstraints.WEST);
+    JGUIUtil.addComponent(main_JPanel, new JLabel ( "Optional - " + __command._LastRead + " or date/time (default=read all time series)."),
+        3, y, 3, 1, 0, 0, insetsTLBR, GridBagConstraints.NONE, GridBagConstraints.WEST );
+
     /*
     JGUIUtil.addComponent(main_JPanel, new JLabel ( "Read 24Hour as 1Day:"),
 		0, ++y, 1, 1, 0, 0, insetsTLBR, GridBagConstraints.NONE, GridBagConstraints.EAST);
@@ -1162,6 +1285,25 @@ private void populateLocationIdChoices ( AquariusDataStore datastore, String loc
 	if ( datastore == null ) {
 		return;
 	}
+	if ( !datastore.isInitialized() ) {
+		// The datastore is reading global data in the background:
+		// - don't wait because the UI would be blocked
+		// - allow the location to be typed and set the choices when initialization is complete
+		Message.printStatus(2, routine, "Datastore \"" + datastore.getName()
+			+ "\" is initializing.  Location choices will be set when initialization is complete.");
+		__LocationIdNote_JTextField.setText("Datastore is initializing - location choices will be set when initialization is complete.");
+		// Include the initial location so that it is not treated as an invalid choice.
+		List<String> locationIds = new ArrayList<>();
+		locationIds.add("");
+		if ( (locationId != null) && !locationId.isEmpty() ) {
+			locationIds.add(locationId);
+		}
+		__LocationId_JComboBox.setData ( locationIds );
+		__LocationId_JComboBox.select ( locationIds.size() - 1 );
+		datastore.getInitializationFuture().thenRun ( () ->
+			SwingUtilities.invokeLater ( () -> populateLocationIdChoices ( datastore, locationId ) ) );
+		return;
+	}
 	// Get the cached stations:
 	// - should be sorted by name
     String dataType = getSelectedDataType();
@@ -1180,24 +1322,24 @@ private void populateLocationIdChoices ( AquariusDataStore datastore, String loc
     // - later need to add the input filter
     List<String> locationIds = new ArrayList<>();
     boolean doInclude = true;
-    List<LocationDescription> locationDescriptionList = datastore.getLocationDescriptionList();
+    List<LocationDescription> locationDescriptionList = null;
     // Get the list 
    	if ( doDataType || doInterval) {
+   		// Create a new list for the locations that have matching time series:
+   		// - don't modify the datastore's cached list
+   		// - use a set to check whether a location was already added and the datastore index to find the location
     	List<TimeSeriesCatalog> tscatalogList = datastore.readTimeSeriesCatalog(dataType, interval, getVisibleInputFilterPanel());
+    	locationDescriptionList = new ArrayList<>();
+    	Set<String> locationIdSet = new HashSet<>();
     	for ( TimeSeriesCatalog tscatalog : tscatalogList ) {
     		String tscatalogLocationId = tscatalog.getLocId();
     		// Only add to the location list if not already added.
-    		boolean found = false;
-    		for ( LocationDescription location : locationDescriptionList ) {
-    			if ( location.getIdentifier().equals(tscatalogLocationId) ) {
-    				found = true;
-    				break;
+    		if ( locationIdSet.add(tscatalogLocationId) ) {
+    			LocationDescription location = datastore.findLocationDescriptionForLocationIdentifier(tscatalogLocationId);
+    			if ( location != null ) {
+    				locationDescriptionList.add(location);
     			}
     		}
-    		if ( !found ) {
-    			LocationDescription location = datastore.findLocationDescriptionForLocationIdentifier(datastore.getLocationDescriptionList(), tscatalogLocationId);
-    			locationDescriptionList.add(location);
-    		}
     	}
     	// Sort by location name.
     	Collections.sort(locationDescriptionList, new LocationDescriptionComparator() );
@@ -1248,10 +1390,16 @@ private void refresh () {
 	String LocationId = "";
 	String filterDelim = ";";
 	String DataApi = "";
+	String DataParts = "";
 	String Alias = "";
 	String InputStart = "";
 	String InputEnd = "";
 	String IrregularInterval = "";
+	String ReadPeriodPad = "";
+	String ReadWindow = "";
+	String ReadMode = "";
+	String ReadConcurrency = "";
+	String OnlyIfChangedSince = "";
 	//String Read24HourAsDay = "";
 	//String ReadDayAs24Hour = "";
 	String Timezone = "";
@@ -1266,10 +1414,16 @@ private void refresh () {
 	    Interval = props.getValue ( "Interval" );
 	    LocationId = props.getValue ( "LocationId" );
 		DataApi = props.getValue ( "DataApi" );
+		DataParts = props.getValue ( "DataParts" );
 		Alias = props.getValue ( "Alias" );
 		InputStart = props.getValue ( "InputStart" );
 		InputEnd = props.getValue ( "InputEnd" );
 		IrregularInterval = props.getValue ( "IrregularInterval" );
+		ReadPeriodPad = props.getValue ( "ReadPeriodPad" );
+		ReadWindow = props.getValue ( "ReadWindow" );
+		ReadMode = props.getValue ( "ReadMode" );
+		ReadConcurrency = props.getValue ( "ReadConcurrency" );
+		OnlyIfChangedSince = props.getValue ( "OnlyIfChangedSince" );
 		//Read24HourAsDay = props.getValue ( "Read24HourAsDay" );
 		//ReadDayAs24Hour = props.getValue ( "ReadDayAs24Hour" );
 		Timezone = props.getValue ( "Timezone" );
@@ -1446,6 +1600,22 @@ private void refresh () {
                   "DataApi parameter \"" + Interval + "\".  Select a\ndifferent value or Cancel." );
             	__DataApi_JComboBox.select (0);
             }
+        }
+	    if ( JGUIUtil.isSimpleJComboBoxItem( __DataParts_JComboBox, DataParts, JGUIUtil.NONE, null, null ) ) {
+            __DataParts_JComboBox.select (DataParts);
+        }
+        else {
+            Message.printStatus(2,routine,"DataParts=\"" + DataParts + "\" is invalid.");
+            if ( (DataParts == null) || DataParts.equals("") ) {
+                // New command...select the default.
+            	__DataParts_JComboBox.select (0);
+            }
+            else {
+                // Bad user command.
+                Message.printWarning ( 1, routine, "Existing command references an invalid\n"+
+                  "DataParts parameter \"" + DataParts + "\".  Select a\ndifferent value or Cancel." );
+            	__DataParts_JComboBox.select (0);
+            }
         }
 	    if ( Alias != null ) {
 		    __Alias_JTextField.setText ( Alias );
@@ -1474,6 +1644,34 @@ private void refresh () {
             	__IrregularInterval_JComboBox.select (0);
             }
         }
+		if ( ReadPeriodPad != null ) {
+			__ReadPeriodPad_JTextField.setText ( ReadPeriodPad );
+		}
+		if ( ReadWindow != null ) {
+			__ReadWindow_JTextField.setText ( ReadWindow );
+		}
+	    if ( JGUIUtil.isSimpleJComboBoxItem( __ReadMode_JComboBox, ReadMode, JGUIUtil.NONE, null, null ) ) {
+            __ReadMode_JComboBox.select (ReadMode);
+        }
+        else {
+            Message.printStatus(2,routine,"ReadMode=\"" + ReadMode + "\" is invalid.");
+            if ( (ReadMode == null) || ReadMode.equals("") ) {
+                // New command...select the default.
+            	__ReadMode_JComboBox.select (0);
+            }
+            else {
+                // Bad user command.
+                Message.printWarning ( 1, routine, "Existing command references an invalid\n"+
+                  "ReadMode parameter \"" + ReadMode + "\".  Select a\ndifferent value or Cancel." );
+            	__ReadMode_JComboBox.select (0);
+            }
+        }
+		if ( ReadConcurrency != null ) {
+			__ReadConcurrency_JTextField.setText ( ReadConcurrency );
+		}
+		if ( OnlyIfChangedSince != null ) {
+			__OnlyIfChangedSince_JTextField.setText ( OnlyIfChangedSince );
+		}
 	    /*
 	    if ( JGUIUtil.isSimpleJComboBoxItem( __Read24HourAsDay_JComboBox, Read24HourAsDay, JGUIUtil.NONE, null, null ) ) {
             //__Read24HourAsDay_JComboBox.select (index[0] );
@@ -1602,6 +1800,8 @@ private void refresh () {
 	}
 	DataApi = __DataApi_JComboBox.getSelected();
 	props.add ( "DataApi=" + DataApi );
+	DataParts = __DataParts_JComboBox.getSelected();
+	props.add ( "DataParts=" + DataParts );
 	props.add ( "Alias=" + Alias );
 	InputStart = __InputStart_JTextField.getText().trim();
 	props.add ( "InputStart=" + InputStart );
@@ -1609,6 +1809,16 @@ private void refresh () {
 	props.add ( "InputEnd=" + InputEnd );
 	IrregularInterval = __IrregularInterval_JComboBox.getSelected();
 	props.add ( "IrregularInterval=" + IrregularInterval );
+	ReadPeriodPad = __ReadPeriodPad_JTextField.getText().trim();
+	props.add ( "ReadPeriodPad=" + ReadPeriodPad );
+	ReadWindow = __ReadWindow_JTextField.getText().trim();
+	props.add ( "ReadWindow=" + ReadWindow );
+	ReadMode = __ReadMode_JComboBox.getSelected();
+	props.add ( "ReadMode=" + ReadMode );
+	ReadConcurrency = __ReadConcurrency_JTextField.getText().trim();
+	props.add ( "ReadConcurrency=" + ReadConcurrency );
+	OnlyIfChangedSince = __OnlyIfChangedSince_JTextField.getText().trim();
+	props.add ( "OnlyIfChangedSince=" + OnlyIfChangedSince );
 	/*
 	Read24HourAsDay = __Read24HourAsDay_JComboBox.getSelected();
 	props.add ( "Read24HourAsDay=" + Read24HourAsDay );
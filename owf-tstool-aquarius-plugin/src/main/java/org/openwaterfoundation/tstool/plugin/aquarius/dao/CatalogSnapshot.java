@@ -0,0 +1,473 @@
+// CatalogSnapshot - snapshot of global data saved to disk to allow a fast datastore start
+
+/* NoticeStart
+
+OWF TSTool Aquarius Plugin
+Copyright (C) 2025 Open Water Foundation
+
+OWF TSTool Aquarius Plugin is free software:  you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+OWF TSTool Aquarius Plugin is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+    along with OWF TSTool Aquarius Plugin.  If not, see <https://www.gnu.org/licenses/>.
+
+NoticeEnd */
+
+package org.openwaterfoundation.tstool.plugin.aquarius.dao;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.aquaticinformatics.aquarius.sdk.timeseries.servicemodels.Publish;
+import com.aquaticinformatics.aquarius.sdk.timeseries.servicemodels.Publish.LocationDescription;
+import com.aquaticinformatics.aquarius.sdk.timeseries.servicemodels.Publish.ParameterMetadata;
+import com.aquaticinformatics.aquarius.sdk.timeseries.servicemodels.Publish.TimeSeriesDescription;
+import com.aquaticinformatics.aquarius.sdk.timeseries.servicemodels.Publish.TimeSeriesUniqueIds;
+
+/**
+ * Snapshot of the global data that is used to create the time series catalog,
+ * saved to a file in the user's TSTool files so that the datastore can start without reading all of the data
+ * from web services.
+ * The file is a gzipped binary file containing only the data that are used by the plugin,
+ * which is much smaller and faster to read than the original JSON.
+ */
+public class CatalogSnapshot {
+
+	/**
+	 * Identifier at the start of the file, used to check the file type.
+	 */
+	private static final int MAGIC = 0x41515443; // "AQTC"
+
+	/**
+	 * File format version, increment when the format changes so that old files are ignored.
+	 */
+	private static final int FORMAT_VERSION = 3;
+
+	/**
+	 * Server URL for the data.
+	 */
+	private String serverUrl = "";
+
+	/**
+	 * Time that the data were read from the web services.
+	 */
+	private Instant created = null;
+
+	/**
+	 * Token returned by the time series unique ID list request (NextToken),
+	 * used to request only the time series that have changed since the data were read, can be null.
+	 */
+	private Instant changesSinceToken = null;
+
+	/**
+	 * Location description list.
+	 */
+	private List<LocationDescription> locationDescriptionList = new ArrayList<>();
+
+	/**
+	 * Whether the location data were read for all locations (LocationDataLoad=Eager),
+	 * false if location data were read when first used (LocationDataLoad=Lazy) and the location data list is empty.
+	 */
+	private boolean locationDataLoaded = false;
+
+	/**
+	 * Location data list.
+	 */
+	private List<Publish.LocationDataServiceResponse> locationDataList = new ArrayList<>();
+
+	/**
+	 * Parameter metadata list.
+	 */
+	private List<ParameterMetadata> parameterMetadataList = new ArrayList<>();
+
+	/**
+	 * Time series unique ID list.
+	 */
+	private List<TimeSeriesUniqueIds> timeSeriesUniqueIdList = new ArrayList<>();
+
+	/**
+	 * Time series description list.
+	 */
+	private List<TimeSeriesDescription> timeSeriesDescriptionList = new ArrayList<>();
+
+	/**
+	 * Constructor.
+	 */
+	public CatalogSnapshot () {
+	}
+
+	/**
+	 * Constructor.
+	 * @param serverUrl server URL for the data
+	 * @param created time that the data were read from the web services
+	 * @param changesSinceToken token to request time series that have changed since the data were read, can be null
+	 * @param locationDescriptionList location description list
+	 * @param locationDataLoaded whether the location data were read for all locations
+	 * @param locationDataList location data list
+	 * @param parameterMetadataList parameter metadata list
+	 * @param timeSeriesUniqueIdList time series unique ID list
+	 * @param timeSeriesDescriptionList time series description list
+	 */
+	public CatalogSnapshot ( String serverUrl, Instant created, Instant changesSinceToken,
+		List<LocationDescription> locationDescriptionList,
+		boolean locationDataLoaded, List<Publish.LocationDataServiceResponse> locationDataList,
+		List<ParameterMetadata> parameterMetadataList,
+		List<TimeSeriesUniqueIds> timeSeriesUniqueIdList,
+		List<TimeSeriesDescription> timeSeriesDescriptionList ) {
+		this.serverUrl = serverUrl;
+		this.created = created;
+		this.changesSinceToken = changesSinceToken;
+		this.locationDescriptionList = locationDescriptionList;
+		this.locationDataLoaded = locationDataLoaded;
+		this.locationDataList = locationDataList;
+		this.parameterMetadataList = parameterMetadataList;
+		this.timeSeriesUniqueIdList = timeSeriesUniqueIdList;
+		this.timeSeriesDescriptionList = timeSeriesDescriptionList;
+	}
+
+	/**
+	 * Return the token to request time series that have changed since the data were read.
+	 * @return the token to request time series that have changed since the data were read, can be null
+	 */
+	public Instant getChangesSinceToken () {
+		return this.changesSinceToken;
+	}
+
+	/**
+	 * Return the time that the data were read from the web services.
+	 * @return the time that the data were read from the web services
+	 */
+	public Instant getCreated () {
+		return this.created;
+	}
+
+	/**
+	 * Return the snapshot file for a server, in the user's TSTool files:
+	 * <pre>
+	 * ~/.tstool/cache/aquarius/server.bin.gz
+	 * </pre>
+	 * @param serverUrl the server URL, which is converted to a safe file name
+	 * @return the snapshot file
+	 */
+	public static File getFileForServer ( String serverUrl ) {
+		String name = serverUrl.replaceFirst("^[a-zA-Z]+://", "").replaceAll("[^a-zA-Z0-9.-]", "_");
+		return new File(System.getProperty("user.home") + File.separator + ".tstool" + File.separator + "cache"
+			+ File.separator + "aquarius" + File.separator + name + ".bin.gz");
+	}
+
+	/**
+	 * Return the location data list.
+	 * @return the location data list
+	 */
+	public List<Publish.LocationDataServiceResponse> getLocationDataList () {
+		return this.locationDataList;
+	}
+
+	/**
+	 * Return the location description list.
+	 * @return the location description list
+	 */
+	public List<LocationDescription> getLocationDescriptionList () {
+		return this.locationDescriptionList;
+	}
+
+	/**
+	 * Return the parameter metadata list.
+	 * @return the parameter metadata list
+	 */
+	public List<ParameterMetadata> getParameterMetadataList () {
+		return this.parameterMetadataList;
+	}
+
+	/**
+	 * Return whether the location data were read for all locations.
+	 * @return true if the location data were read for all locations (LocationDataLoad=Eager),
+	 * false if the location data list is empty because location data were read when first used (LocationDataLoad=Lazy)
+	 */
+	public boolean getLocationDataLoaded () {
+		return this.locationDataLoaded;
+	}
+
+	/**
+	 * Return the server URL for the data.
+	 * @return the server URL for the data
+	 */
+	public String getServerUrl () {
+		return this.serverUrl;
+	}
+
+	/**
+	 * Return the time series description list.
+	 * @return the time series description list
+	 */
+	public List<TimeSeriesDescription> getTimeSeriesDescriptionList () {
+		return this.timeSeriesDescriptionList;
+	}
+
+	/**
+	 * Return the time series unique ID list.
+	 * @return the time series unique ID list
+	 */
+	public List<TimeSeriesUniqueIds> getTimeSeriesUniqueIdList () {
+		return this.timeSeriesUniqueIdList;
+	}
+
+	/**
+	 * Read a snapshot file.
+	 * @param file the file to read
+	 * @return the snapshot
+	 * @throws IOException if the file cannot be read or is not a valid snapshot file
+	 */
+	public static CatalogSnapshot read ( File file ) throws IOException {
+		try ( DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file), 65536))) ) {
+			if ( in.readInt() != MAGIC ) {
+				throw new IOException ( "File is not an Aquarius catalog snapshot: " + file );
+			}
+			int version = in.readInt();
+			if ( version != FORMAT_VERSION ) {
+				throw new IOException ( "Aquarius catalog snapshot version " + version + " is not supported (expecting "
+					+ FORMAT_VERSION + "): " + file );
+			}
+			CatalogSnapshot snapshot = new CatalogSnapshot();
+			snapshot.serverUrl = readString(in);
+			snapshot.created = readInstant(in);
+			snapshot.changesSinceToken = readInstant(in);
+
+			int size = in.readInt();
+			snapshot.locationDescriptionList = new ArrayList<>(size);
+			for ( int i = 0; i < size; i++ ) {
+				LocationDescription locationDescription = new LocationDescription();
+				locationDescription.setIdentifier(readString(in));
+				locationDescription.setName(readString(in));
+				locationDescription.setUniqueId(readString(in));
+				locationDescription.setUtcOffset(readDouble(in));
+				snapshot.locationDescriptionList.add(locationDescription);
+			}
+
+			snapshot.locationDataLoaded = in.readBoolean();
+			size = in.readInt();
+			snapshot.locationDataList = new ArrayList<>(size);
+			for ( int i = 0; i < size; i++ ) {
+				Publish.LocationDataServiceResponse locationData = new Publish.LocationDataServiceResponse();
+				locationData.setIdentifier(readString(in));
+				locationData.setElevation(readDouble(in));
+				locationData.setElevationUnits(readString(in));
+				locationData.setLatitude(readDouble(in));
+				locationData.setLongitude(readDouble(in));
+				snapshot.locationDataList.add(locationData);
+			}
+
+			size = in.readInt();
+			snapshot.parameterMetadataList = new ArrayList<>(size);
+			for ( int i = 0; i < size; i++ ) {
+				ParameterMetadata parameterMetadata = new ParameterMetadata();
+				parameterMetadata.setIdentifier(readString(in));
+				parameterMetadata.setDisplayName(readString(in));
+				snapshot.parameterMetadataList.add(parameterMetadata);
+			}
+
+			size = in.readInt();
+			snapshot.timeSeriesUniqueIdList = new ArrayList<>(size);
+			for ( int i = 0; i < size; i++ ) {
+				TimeSeriesUniqueIds timeSeriesUniqueId = new TimeSeriesUniqueIds();
+				timeSeriesUniqueId.setUniqueId(readString(in));
+				snapshot.timeSeriesUniqueIdList.add(timeSeriesUniqueId);
+			}
+
+			size = in.readInt();
+			snapshot.timeSeriesDescriptionList = new ArrayList<>(size);
+			for ( int i = 0; i < size; i++ ) {
+				TimeSeriesDescription timeSeriesDescription = new TimeSeriesDescription();
+				timeSeriesDescription.setIdentifier(readString(in));
+				timeSeriesDescription.setUniqueId(readString(in));
+				timeSeriesDescription.setLocationIdentifier(readString(in));
+				timeSeriesDescription.setParameter(readString(in));
+				timeSeriesDescription.setParameterId(readString(in));
+				timeSeriesDescription.setUnit(readString(in));
+				timeSeriesDescription.setUtcOffset(readDouble(in));
+				timeSeriesDescription.setUtcOffsetIsoDuration(readString(in));
+				timeSeriesDescription.setLastModified(readInstant(in));
+				timeSeriesDescription.setRawStartTime(readInstant(in));
+				timeSeriesDescription.setRawEndTime(readInstant(in));
+				timeSeriesDescription.setCorrectedStartTime(readInstant(in));
+				timeSeriesDescription.setCorrectedEndTime(readInstant(in));
+				timeSeriesDescription.setTimeSeriesType(readString(in));
+				timeSeriesDescription.setLabel(readString(in));
+				timeSeriesDescription.setComment(readString(in));
+				timeSeriesDescription.setDescription(readString(in));
+				timeSeriesDescription.setComputationIdentifier(readString(in));
+				timeSeriesDescription.setComputationPeriodIdentifier(readString(in));
+				timeSeriesDescription.setSubLocationIdentifier(readString(in));
+				snapshot.timeSeriesDescriptionList.add(timeSeriesDescription);
+			}
+			return snapshot;
+		}
+	}
+
+	/**
+	 * Read a Double that may be null.
+	 */
+	private static Double readDouble ( DataInputStream in ) throws IOException {
+		if ( in.readBoolean() ) {
+			return in.readDouble();
+		}
+		return null;
+	}
+
+	/**
+	 * Read an Instant that may be null.
+	 */
+	private static Instant readInstant ( DataInputStream in ) throws IOException {
+		if ( in.readBoolean() ) {
+			long seconds = in.readLong();
+			int nanos = in.readInt();
+			return Instant.ofEpochSecond(seconds, nanos);
+		}
+		return null;
+	}
+
+	/**
+	 * Read a String that may be null, as UTF-8 bytes.
+	 */
+	private static String readString ( DataInputStream in ) throws IOException {
+		int length = in.readInt();
+		if ( length < 0 ) {
+			return null;
+		}
+		byte [] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Write the snapshot to a file.
+	 * The file is written to a temporary file and then renamed so that a partial file is never read.
+	 * @param file the file to write
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write ( File file ) throws IOException {
+		File folder = file.getParentFile();
+		if ( (folder != null) && !folder.exists() ) {
+			folder.mkdirs();
+		}
+		File tempFile = new File(file.getPath() + ".tmp");
+		try ( DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(tempFile), 65536))) ) {
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			writeString(out, this.serverUrl);
+			writeInstant(out, this.created);
+			writeInstant(out, this.changesSinceToken);
+
+			out.writeInt(this.locationDescriptionList.size());
+			for ( LocationDescription locationDescription : this.locationDescriptionList ) {
+				writeString(out, locationDescription.getIdentifier());
+				writeString(out, locationDescription.getName());
+				writeString(out, locationDescription.getUniqueId());
+				writeDouble(out, locationDescription.getUtcOffset());
+			}
+
+			out.writeBoolean(this.locationDataLoaded);
+			out.writeInt(this.locationDataList.size());
+			for ( Publish.LocationDataServiceResponse locationData : this.locationDataList ) {
+				writeString(out, locationData.getIdentifier());
+				writeDouble(out, locationData.getElevation());
+				writeString(out, locationData.getElevationUnits());
+				writeDouble(out, locationData.getLatitude());
+				writeDouble(out, locationData.getLongitude());
+			}
+
+			out.writeInt(this.parameterMetadataList.size());
+			for ( ParameterMetadata parameterMetadata : this.parameterMetadataList ) {
+				writeString(out, parameterMetadata.getIdentifier());
+				writeString(out, parameterMetadata.getDisplayName());
+			}
+
+			out.writeInt(this.timeSeriesUniqueIdList.size());
+			for ( TimeSeriesUniqueIds timeSeriesUniqueId : this.timeSeriesUniqueIdList ) {
+				writeString(out, timeSeriesUniqueId.getUniqueId());
+			}
+
+			out.writeInt(this.timeSeriesDescriptionList.size());
+			for ( TimeSeriesDescription timeSeriesDescription : this.timeSeriesDescriptionList ) {
+				writeString(out, timeSeriesDescription.getIdentifier());
+				writeString(out, timeSeriesDescription.getUniqueId());
+				writeString(out, timeSeriesDescription.getLocationIdentifier());
+				writeString(out, timeSeriesDescription.getParameter());
+				writeString(out, timeSeriesDescription.getParameterId());
+				writeString(out, timeSeriesDescription.getUnit());
+				writeDouble(out, timeSeriesDescription.getUtcOffset());
+				writeString(out, timeSeriesDescription.getUtcOffsetIsoDuration());
+				writeInstant(out, timeSeriesDescription.getLastModified());
+				writeInstant(out, timeSeriesDescription.getRawStartTime());
+				writeInstant(out, timeSeriesDescription.getRawEndTime());
+				writeInstant(out, timeSeriesDescription.getCorrectedStartTime());
+				writeInstant(out, timeSeriesDescription.getCorrectedEndTime());
+				writeString(out, timeSeriesDescription.getTimeSeriesType());
+				writeString(out, timeSeriesDescription.getLabel());
+				writeString(out, timeSeriesDescription.getComment());
+				writeString(out, timeSeriesDescription.getDescription());
+				writeString(out, timeSeriesDescription.getComputationIdentifier());
+				writeString(out, timeSeriesDescription.getComputationPeriodIdentifier());
+				writeString(out, timeSeriesDescription.getSubLocationIdentifier());
+			}
+		}
+		Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	/**
+	 * Write a Double that may be null.
+	 */
+	private static void writeDouble ( DataOutputStream out, Double value ) throws IOException {
+		out.writeBoolean(value != null);
+		if ( value != null ) {
+			out.writeDouble(value);
+		}
+	}
+
+	/**
+	 * Write an Instant that may be null.
+	 */
+	private static void writeInstant ( DataOutputStream out, Instant value ) throws IOException {
+		out.writeBoolean(value != null);
+		if ( value != null ) {
+			out.writeLong(value.getEpochSecond());
+			out.writeInt(value.getNano());
+		}
+	}
+
+	/**
+	 * Write a String that may be null, as UTF-8 bytes.
+	 */
+	private static void writeString ( DataOutputStream out, String value ) throws IOException {
+		if ( value == null ) {
+			out.writeInt(-1);
+		}
+		else {
+			byte [] bytes = value.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+}
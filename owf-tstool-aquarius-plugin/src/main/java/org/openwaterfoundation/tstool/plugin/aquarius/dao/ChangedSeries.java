@@ -0,0 +1,121 @@
+// ChangedSeries - time series that have changed since a token, from the time series unique ID list service
+
+/* NoticeStart
+
+OWF TSTool Aquarius Plugin
+Copyright (C) 2025 Open Water Foundation
+
+OWF TSTool Aquarius Plugin is free software:  you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+OWF TSTool Aquarius Plugin is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+    along with OWF TSTool Aquarius Plugin.  If not, see <https://www.gnu.org/licenses/>.
+
+NoticeEnd */
+
+package org.openwaterfoundation.tstool.plugin.aquarius.dao;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Time series that have changed (data or metadata) since a token,
+ * from the GetTimeSeriesUniqueIdList service ChangesSinceToken request.
+ * The next token is the time of the request on the server and can be used for the next request,
+ * so that changes made during or after the request are reported by the next request.
+ */
+public class ChangedSeries {
+
+	/**
+	 * Token that was requested (ChangesSinceToken).
+	 */
+	private Instant sinceToken;
+
+	/**
+	 * Token for the next request (NextToken).
+	 */
+	private Instant nextToken;
+
+	/**
+	 * Whether the requested token has expired, in which case the changed time series are not known.
+	 */
+	private boolean tokenExpired;
+
+	/**
+	 * Unique identifiers of the time series that have changed.
+	 */
+	private Set<String> uniqueIds;
+
+	/**
+	 * Constructor.
+	 * @param sinceToken the token that was requested
+	 * @param nextToken the token for the next request
+	 * @param tokenExpired whether the requested token has expired
+	 * @param uniqueIds unique identifiers of the time series that have changed
+	 */
+	public ChangedSeries ( Instant sinceToken, Instant nextToken, boolean tokenExpired, Set<String> uniqueIds ) {
+		this.sinceToken = sinceToken;
+		this.nextToken = nextToken;
+		this.tokenExpired = tokenExpired;
+		this.uniqueIds = (uniqueIds == null) ? Collections.emptySet() : uniqueIds;
+	}
+
+	/**
+	 * Return the token for the next request.
+	 * @return the token for the next request
+	 */
+	public Instant getNextToken () {
+		return this.nextToken;
+	}
+
+	/**
+	 * Return the token that was requested.
+	 * @return the token that was requested
+	 */
+	public Instant getSinceToken () {
+		return this.sinceToken;
+	}
+
+	/**
+	 * Return the unique identifiers of the time series that have changed.
+	 * @return the unique identifiers of the time series that have changed, guaranteed to be non-null
+	 */
+	public Set<String> getUniqueIds () {
+		return this.uniqueIds;
+	}
+
+	/**
+	 * Indicate whether the requested token has expired, in which case all time series should be treated as changed.
+	 * @return true if the requested token has expired
+	 */
+	public boolean isTokenExpired () {
+		return this.tokenExpired;
+	}
+
+	/**
+	 * Indicate whether a time series is known to be unchanged since a previous token,
+	 * which requires that the changes were requested for a token at or before the previous token.
+	 * @param uniqueId the time series unique identifier
+	 * @param previousToken the token when the time series was previously read
+	 * @return true if the time series is known to be unchanged since the previous token
+	 */
+	public boolean isUnchangedSince ( String uniqueId, Instant previousToken ) {
+		if ( this.tokenExpired || (this.sinceToken == null) || (previousToken == null) ) {
+			return false;
+		}
+		if ( this.sinceToken.isAfter(previousToken) ) {
+			// Changes between the previous token and the requested token are not known.
+			return false;
+		}
+		return !this.uniqueIds.contains(uniqueId);
+	}
+
+}
@@ -0,0 +1,220 @@
+// DataCache - in-memory cache of time series data points read during the session
+
+/* NoticeStart
+
+OWF TSTool Aquarius Plugin
+Copyright (C) 2025 Open Water Foundation
+
+OWF TSTool Aquarius Plugin is free software:  you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+OWF TSTool Aquarius Plugin is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+    along with OWF TSTool Aquarius Plugin.  If not, see <https://www.gnu.org/licenses/>.
+
+NoticeEnd */
+
+package org.openwaterfoundation.tstool.plugin.aquarius.dao;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.openwaterfoundation.tstool.plugin.aquarius.dto.TimeSeriesPointArrays;
+
+/**
+ * In-memory cache of time series data points, used when the datastore 'DataCacheMaxMB' property is greater than zero,
+ * so that reading the same time series again in a session (for example when a command file is run again)
+ * does not request the data again.
+ * One period is cached for each key (time series unique identifier, data API, and data parts),
+ * and a read of the same or a shorter period uses the cached points.
+ * A cached period is ignored and replaced if the time series LastModified has changed.
+ * The total size of the points is limited by removing the least recently used entries.
+ * The cached points are shared and must not be modified.
+ */
+public class DataCache {
+
+	/**
+	 * Approximate memory used by each point (time and value), bytes.
+	 */
+	private static final long BYTES_PER_POINT = 16;
+
+	/**
+	 * Approximate memory used by each entry in addition to the points, bytes.
+	 */
+	private static final long BYTES_PER_ENTRY = 200;
+
+	/**
+	 * Cached points for a key.
+	 */
+	private static class Entry {
+		/**
+		 * Time series description LastModified when the points were read.
+		 */
+		Instant lastModified;
+
+		/**
+		 * Start of the period that was read, UTC epoch milliseconds.
+		 */
+		long fromMs;
+
+		/**
+		 * End of the period that was read, UTC epoch milliseconds.
+		 */
+		long toMs;
+
+		/**
+		 * Points that were read.
+		 */
+		TimeSeriesPointArrays points;
+
+		/**
+		 * Approximate memory used by the entry, bytes.
+		 */
+		long bytes;
+
+		Entry ( Instant lastModified, long fromMs, long toMs, TimeSeriesPointArrays points ) {
+			this.lastModified = lastModified;
+			this.fromMs = fromMs;
+			this.toMs = toMs;
+			this.points = points;
+			this.bytes = BYTES_PER_ENTRY + points.size()*BYTES_PER_POINT;
+		}
+	}
+
+	/**
+	 * Maximum total size of the cached points, bytes.
+	 */
+	private long maxBytes;
+
+	/**
+	 * Cached entries in least recently used order.
+	 */
+	private LinkedHashMap<String,Entry> entryMap = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * Total size of the cached points, bytes.
+	 */
+	private long totalBytes = 0;
+
+	/**
+	 * Number of reads that used cached points.
+	 */
+	private long hitCount = 0;
+
+	/**
+	 * Number of reads that did not use cached points.
+	 */
+	private long missCount = 0;
+
+	/**
+	 * Number of cached entries that were ignored because the time series LastModified changed.
+	 */
+	private long invalidationCount = 0;
+
+	/**
+	 * Number of cached entries that were removed to limit the cache size.
+	 */
+	private long evictionCount = 0;
+
+	/**
+	 * Constructor.
+	 * @param maxBytes maximum total size of the cached points, bytes
+	 */
+	public DataCache ( long maxBytes ) {
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * Return the cached points for a period.
+	 * @param key key for the time series, data API, and data parts
+	 * @param lastModified the time series description LastModified, used to check whether cached points are current
+	 * @param fromMs the start of the period (inclusive), UTC epoch milliseconds
+	 * @param toMs the end of the period (inclusive), UTC epoch milliseconds
+	 * @return the points in the period, or null if the period is not cached
+	 */
+	public synchronized TimeSeriesPointArrays get ( String key, Instant lastModified, long fromMs, long toMs ) {
+		Entry entry = this.entryMap.get(key);
+		if ( entry != null ) {
+			if ( !Objects.equals(entry.lastModified, lastModified) ) {
+				// The time series has changed so the cached points may not be current.
+				++this.invalidationCount;
+				remove(key);
+			}
+			else if ( (fromMs >= entry.fromMs) && (toMs <= entry.toMs) ) {
+				++this.hitCount;
+				if ( (fromMs == entry.fromMs) && (toMs == entry.toMs) ) {
+					return entry.points;
+				}
+				return entry.points.subset(fromMs, toMs);
+			}
+		}
+		++this.missCount;
+		return null;
+	}
+
+	/**
+	 * Return a summary of the cache statistics, for logging and datastore properties.
+	 * @return a summary of the cache statistics
+	 */
+	public synchronized String getStatisticsSummary () {
+		return "hits=" + this.hitCount
+			+ ", misses=" + this.missCount
+			+ ", invalidations=" + this.invalidationCount
+			+ ", evictions=" + this.evictionCount
+			+ ", entries=" + this.entryMap.size()
+			+ ", sizeMB=" + String.format("%.1f", this.totalBytes/1048576.0)
+			+ ", maxMB=" + (this.maxBytes/1048576);
+	}
+
+	/**
+	 * Save the points for a period, replacing the cached period for the key,
+	 * and remove the least recently used entries if the cache is too large.
+	 * Points that are larger than the cache are not saved.
+	 * @param key key for the time series, data API, and data parts
+	 * @param lastModified the time series description LastModified
+	 * @param fromMs the start of the period (inclusive), UTC epoch milliseconds
+	 * @param toMs the end of the period (inclusive), UTC epoch milliseconds
+	 * @param points the points that were read, which must not be modified after being saved
+	 */
+	public synchronized void put ( String key, Instant lastModified, long fromMs, long toMs, TimeSeriesPointArrays points ) {
+		Entry entry = new Entry(lastModified, fromMs, toMs, points);
+		remove(key);
+		if ( entry.bytes > this.maxBytes ) {
+			return;
+		}
+		this.entryMap.put(key, entry);
+		this.totalBytes += entry.bytes;
+		// Remove the least recently used entries, which are first in the map.
+		Iterator<Map.Entry<String,Entry>> it = this.entryMap.entrySet().iterator();
+		while ( (this.totalBytes > this.maxBytes) && it.hasNext() ) {
+			Map.Entry<String,Entry> e = it.next();
+			if ( e.getKey().equals(key) ) {
+				continue;
+			}
+			this.totalBytes -= e.getValue().bytes;
+			it.remove();
+			++this.evictionCount;
+		}
+	}
+
+	/**
+	 * Remove an entry.
+	 * @param key key for the entry to remove
+	 */
+	private void remove ( String key ) {
+		Entry entry = this.entryMap.remove(key);
+		if ( entry != null ) {
+			this.totalBytes -= entry.bytes;
+		}
+	}
+
+}
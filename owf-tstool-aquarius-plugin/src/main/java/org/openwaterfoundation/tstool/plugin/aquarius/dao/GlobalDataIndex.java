@@ -0,0 +1,193 @@
+// GlobalDataIndex - indexes for global data, used to quickly join global data
+
+/* NoticeStart
+
+OWF TSTool Aquarius Plugin
+Copyright (C) 2025 Open Water Foundation
+
+OWF TSTool Aquarius Plugin is free software:  you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+OWF TSTool Aquarius Plugin is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+    along with OWF TSTool Aquarius Plugin.  If not, see <https://www.gnu.org/licenses/>.
+
+NoticeEnd */
+
+package org.openwaterfoundation.tstool.plugin.aquarius.dao;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.aquaticinformatics.aquarius.sdk.timeseries.servicemodels.Publish;
+import com.aquaticinformatics.aquarius.sdk.timeseries.servicemodels.Publish.LocationDescription;
+import com.aquaticinformatics.aquarius.sdk.timeseries.servicemodels.Publish.ParameterMetadata;
+
+/**
+ * Indexes for the global data lists, used to join time series descriptions with location and parameter data
+ * without searching the lists.
+ * The index is created from specific lists and is not changed,
+ * so a new index must be created when the global data are read (see isFor()).
+ * If a list contains the same identifier more than once, the first object is used, consistent with a list search.
+ */
+public class GlobalDataIndex {
+
+	/**
+	 * Location description list used to create the index.
+	 */
+	private List<LocationDescription> locationDescriptionList;
+
+	/**
+	 * Location data list used to create the index.
+	 */
+	private List<Publish.LocationDataServiceResponse> locationDataList;
+
+	/**
+	 * Parameter metadata list used to create the index.
+	 */
+	private List<ParameterMetadata> parameterMetadataList;
+
+	/**
+	 * Location description map, keyed by location identifier.
+	 */
+	private Map<String,LocationDescription> locationDescriptionMap;
+
+	/**
+	 * Location data map, keyed by location identifier.
+	 */
+	private Map<String,Publish.LocationDataServiceResponse> locationDataMap;
+
+	/**
+	 * Parameter metadata map, keyed by parameter identifier.
+	 */
+	private Map<String,ParameterMetadata> parameterMetadataMap;
+
+	/**
+	 * Time to create the index, milliseconds.
+	 */
+	private long buildTimeMs = 0;
+
+	/**
+	 * Constructor, which creates the indexes.
+	 * @param locationDescriptionList location description list to index
+	 * @param locationDataList location data list to index
+	 * @param parameterMetadataList parameter metadata list to index
+	 */
+	public GlobalDataIndex ( List<LocationDescription> locationDescriptionList,
+		List<Publish.LocationDataServiceResponse> locationDataList,
+		List<ParameterMetadata> parameterMetadataList ) {
+		long start = System.currentTimeMillis();
+		this.locationDescriptionList = locationDescriptionList;
+		this.locationDataList = locationDataList;
+		this.parameterMetadataList = parameterMetadataList;
+
+		this.locationDescriptionMap = new HashMap<>(capacity(locationDescriptionList));
+		if ( locationDescriptionList != null ) {
+			for ( LocationDescription locationDescription : locationDescriptionList ) {
+				if ( locationDescription.getIdentifier() != null ) {
+					this.locationDescriptionMap.putIfAbsent(locationDescription.getIdentifier(), locationDescription);
+				}
+			}
+		}
+
+		this.locationDataMap = new HashMap<>(capacity(locationDataList));
+		if ( locationDataList != null ) {
+			for ( Publish.LocationDataServiceResponse locationData : locationDataList ) {
+				if ( locationData.getIdentifier() != null ) {
+					this.locationDataMap.putIfAbsent(locationData.getIdentifier(), locationData);
+				}
+			}
+		}
+
+		this.parameterMetadataMap = new HashMap<>(capacity(parameterMetadataList));
+		if ( parameterMetadataList != null ) {
+			for ( ParameterMetadata parameterMetadata : parameterMetadataList ) {
+				if ( parameterMetadata.getIdentifier() != null ) {
+					this.parameterMetadataMap.putIfAbsent(parameterMetadata.getIdentifier(), parameterMetadata);
+				}
+			}
+		}
+		this.buildTimeMs = System.currentTimeMillis() - start;
+	}
+
+	/**
+	 * Return the initial map capacity for a list so that the map is not resized.
+	 * @param list list to index
+	 * @return initial map capacity
+	 */
+	private static int capacity ( List<?> list ) {
+		if ( list == null ) {
+			return 16;
+		}
+		return Math.max(16, (int)(list.size()/0.75) + 1);
+	}
+
+	/**
+	 * Find the location data for a location identifier.
+	 * @param locationIdentifier location identifier to match
+	 * @return the location data, or null if not found
+	 */
+	public Publish.LocationDataServiceResponse findLocationData ( String locationIdentifier ) {
+		if ( locationIdentifier == null ) {
+			return null;
+		}
+		return this.locationDataMap.get(locationIdentifier);
+	}
+
+	/**
+	 * Find the location description for a location identifier.
+	 * @param locationIdentifier location identifier to match
+	 * @return the location description, or null if not found
+	 */
+	public LocationDescription findLocationDescription ( String locationIdentifier ) {
+		if ( locationIdentifier == null ) {
+			return null;
+		}
+		return this.locationDescriptionMap.get(locationIdentifier);
+	}
+
+	/**
+	 * Find the parameter metadata for a parameter identifier.
+	 * @param parameter parameter identifier to match
+	 * @return the parameter metadata, or null if not found
+	 */
+	public ParameterMetadata findParameterMetadata ( String parameter ) {
+		if ( parameter == null ) {
+			return null;
+		}
+		return this.parameterMetadataMap.get(parameter);
+	}
+
+	/**
+	 * Return the time to create the index.
+	 * @return the time to create the index, milliseconds
+	 */
+	public long getBuildTimeMs () {
+		return this.buildTimeMs;
+	}
+
+	/**
+	 * Indicate whether the index was created for the specified lists,
+	 * used to check whether the index needs to be created again after the global data are read.
+	 * The list objects are compared, not the list contents, because global data lists are replaced when read.
+	 * @param locationDescriptionList location description list
+	 * @param locationDataList location data list
+	 * @param parameterMetadataList parameter metadata list
+	 * @return true if the index was created for the lists
+	 */
+	public boolean isFor ( List<LocationDescription> locationDescriptionList,
+		List<Publish.LocationDataServiceResponse> locationDataList,
+		List<ParameterMetadata> parameterMetadataList ) {
+		return (this.locationDescriptionList == locationDescriptionList)
+			&& (this.locationDataList == locationDataList)
+			&& (this.parameterMetadataList == parameterMetadataList);
+	}
+
+}
@@ -0,0 +1,195 @@
+// LocationDataCache - cache of location data read on demand
+
+/* NoticeStart
+
+OWF TSTool Aquarius Plugin
+Copyright (C) 2025 Open Water Foundation
+
+OWF TSTool Aquarius Plugin is free software:  you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+OWF TSTool Aquarius Plugin is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+    along with OWF TSTool Aquarius Plugin.  If not, see <https://www.gnu.org/licenses/>.
+
+NoticeEnd */
+
+package org.openwaterfoundation.tstool.plugin.aquarius.dao;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+
+import org.openwaterfoundation.tstool.plugin.aquarius.util.ConcurrencyUtil;
+
+import com.aquaticinformatics.aquarius.sdk.timeseries.servicemodels.Publish;
+
+/**
+ * Cache of location data, used when location data are loaded lazily (datastore LocationDataLoad=Lazy).
+ * Location data are read the first time that a location is requested and are then reused.
+ * If multiple threads request the same location at the same time, only one request is made.
+ * Locations that are not found are remembered so that they are not requested repeatedly,
+ * but failed reads are not remembered so that the location is read again the next time that it is requested.
+ * Location data can be read in the calling thread (see get()) or in the background (see load()),
+ * for example so that user interface code does not wait for web service requests.
+ */
+public class LocationDataCache {
+
+	/**
+	 * Reader for the location data for a location identifier.
+	 */
+	public interface Reader {
+		/**
+		 * Read the location data.
+		 * @param locationIdentifier location identifier to read
+		 * @return the location data, or null if the location is not found
+		 * @throws Exception if the read fails
+		 */
+		Publish.LocationDataServiceResponse read ( String locationIdentifier ) throws Exception;
+	}
+
+	/**
+	 * Reader used to read the location data for a location identifier.
+	 */
+	private Reader reader;
+
+	/**
+	 * Number of threads used to read location data in the background.
+	 */
+	private int concurrency;
+
+	/**
+	 * Executor used to read location data in the background, created when first needed.
+	 */
+	private ExecutorService executor = null;
+
+	/**
+	 * Map of location identifier to the read for the location, which completes with null if the location is not found.
+	 * Reads that fail are removed.
+	 */
+	private ConcurrentHashMap<String,CompletableFuture<Publish.LocationDataServiceResponse>> cache = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructor.
+	 * @param reader reader for location data given the location identifier
+	 * @param concurrency the number of threads used to read location data in the background
+	 */
+	public LocationDataCache ( Reader reader, int concurrency ) {
+		this.reader = reader;
+		this.concurrency = concurrency;
+	}
+
+	/**
+	 * Return the location data for a location identifier, reading the data in the calling thread if not previously read.
+	 * @param locationIdentifier location identifier to match
+	 * @return the location data, or null if not found or the read failed
+	 */
+	public Publish.LocationDataServiceResponse get ( String locationIdentifier ) {
+		if ( (locationIdentifier == null) || locationIdentifier.isEmpty() ) {
+			return null;
+		}
+		CompletableFuture<Publish.LocationDataServiceResponse> newFuture = new CompletableFuture<>();
+		CompletableFuture<Publish.LocationDataServiceResponse> future = this.cache.putIfAbsent(locationIdentifier, newFuture);
+		if ( future == null ) {
+			// This thread is the first to request the location so do the read.
+			future = newFuture;
+			read(locationIdentifier, future);
+		}
+		try {
+			return future.get();
+		}
+		catch ( ExecutionException e ) {
+			return null;
+		}
+		catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+
+	/**
+	 * Return the location data for a location identifier if previously read, without reading.
+	 * @param locationIdentifier location identifier to match
+	 * @return the location data, or null if not found or not read
+	 */
+	public Publish.LocationDataServiceResponse getIfLoaded ( String locationIdentifier ) {
+		return isLoaded(locationIdentifier) ? this.cache.get(locationIdentifier).getNow(null) : null;
+	}
+
+	/**
+	 * Indicate whether the location data for a location identifier have been read,
+	 * including if the location was not found.
+	 * @param locationIdentifier location identifier to match
+	 * @return true if the location data have been read, false if not read, being read, or the read failed
+	 */
+	public boolean isLoaded ( String locationIdentifier ) {
+		if ( (locationIdentifier == null) || locationIdentifier.isEmpty() ) {
+			return true;
+		}
+		CompletableFuture<Publish.LocationDataServiceResponse> future = this.cache.get(locationIdentifier);
+		return (future != null) && future.isDone() && !future.isCompletedExceptionally();
+	}
+
+	/**
+	 * Read the location data for a location identifier in the background, if not already read or being read.
+	 * @param locationIdentifier location identifier to read
+	 * @param onLoaded called (in the background thread) when the read is successful, can be null
+	 */
+	public void load ( String locationIdentifier, Runnable onLoaded ) {
+		if ( (locationIdentifier == null) || locationIdentifier.isEmpty() ) {
+			return;
+		}
+		CompletableFuture<Publish.LocationDataServiceResponse> newFuture = new CompletableFuture<>();
+		if ( this.cache.putIfAbsent(locationIdentifier, newFuture) != null ) {
+			// Already read or being read.
+			return;
+		}
+		if ( onLoaded != null ) {
+			newFuture.thenRun(onLoaded);
+		}
+		getExecutor().submit ( () -> read(locationIdentifier, newFuture) );
+	}
+
+	/**
+	 * Return the executor used to read location data in the background, creating if necessary.
+	 * @return the executor used to read location data in the background
+	 */
+	private synchronized ExecutorService getExecutor () {
+		if ( this.executor == null ) {
+			this.executor = ConcurrencyUtil.newDaemonThreadPool("aquarius-locationdata", this.concurrency);
+		}
+		return this.executor;
+	}
+
+	/**
+	 * Read the location data and complete the future.
+	 * If the read fails, the location is removed from the cache so that it is read again when next requested.
+	 * @param locationIdentifier location identifier to read
+	 * @param future the future to complete
+	 */
+	private void read ( String locationIdentifier, CompletableFuture<Publish.LocationDataServiceResponse> future ) {
+		try {
+			future.complete(this.reader.read(locationIdentifier));
+		}
+		catch ( Exception e ) {
+			this.cache.remove(locationIdentifier, future);
+			future.completeExceptionally(e);
+		}
+	}
+
+	/**
+	 * Return the number of locations that have been requested.
+	 * @return the number of locations that have been requested
+	 */
+	public int size () {
+		return this.cache.size();
+	}
+
+}
@@ -0,0 +1,383 @@
+// PointCache - persistent cache of time series data points, saved in files in the user's TSTool files
+
+/* NoticeStart
+
+OWF TSTool Aquarius Plugin
+Copyright (C) 2025 Open Water Foundation
+
+OWF TSTool Aquarius Plugin is free software:  you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+OWF TSTool Aquarius Plugin is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+    along with OWF TSTool Aquarius Plugin.  If not, see <https://www.gnu.org/licenses/>.
+
+NoticeEnd */
+
+package org.openwaterfoundation.tstool.plugin.aquarius.dao;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.openwaterfoundation.tstool.plugin.aquarius.dto.TimeSeriesPointArrays;
+
+import RTi.Util.Message.Message;
+
+/**
+ * Persistent cache of time series data points, used when the datastore 'PointCache' property is true,
+ * so that repeated reads of the same time series (for example by scheduled command files)
+ * only request the points after the last cached point.
+ * Each time series and data API (Raw or Corrected) is saved in a separate gzipped binary file,
+ * containing the period that was read, the time series description LastModified,
+ * and the point timestamps and values.
+ * A cached file is ignored and replaced if the time series LastModified has changed,
+ * because data within the cached period may have been edited.
+ * The total size of the files is limited by removing the least recently used files.
+ * The cache is thread-safe but a time series that is read by multiple threads at the same time may be requested more than once.
+ */
+public class PointCache {
+
+	/**
+	 * Identifier at the start of the file, used to check the file type.
+	 */
+	private static final int MAGIC = 0x41515450; // "AQTP"
+
+	/**
+	 * File format version, increment when the format changes so that old files are ignored.
+	 */
+	private static final int FORMAT_VERSION = 1;
+
+	/**
+	 * File extension for cache files.
+	 */
+	private static final String FILE_EXTENSION = ".bin.gz";
+
+	/**
+	 * Function to read points for a period.
+	 */
+	public interface PointReader {
+		/**
+		 * Read the points for a period.
+		 * @param fromMs the start of the period (inclusive), UTC epoch milliseconds
+		 * @param toMs the end of the period (inclusive), UTC epoch milliseconds
+		 * @return the points for the period, guaranteed to be non-null
+		 * @throws IOException if the points cannot be read
+		 */
+		public TimeSeriesPointArrays read ( long fromMs, long toMs ) throws IOException;
+	}
+
+	/**
+	 * Folder for the cache files.
+	 */
+	private File folder;
+
+	/**
+	 * Maximum total size of the cache files, bytes.
+	 */
+	private long maxBytes;
+
+	/**
+	 * Cache file sizes in least recently used order, keyed by file name.
+	 */
+	private LinkedHashMap<String,Long> fileSizeMap = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * Total size of the cache files, bytes.
+	 */
+	private long totalBytes = 0;
+
+	/**
+	 * Number of reads that used only cached points.
+	 */
+	private AtomicLong hitCount = new AtomicLong();
+
+	/**
+	 * Number of reads that used cached points and requested the points after the last cached point.
+	 */
+	private AtomicLong tailHitCount = new AtomicLong();
+
+	/**
+	 * Number of reads that requested all points.
+	 */
+	private AtomicLong missCount = new AtomicLong();
+
+	/**
+	 * Number of cached files that were ignored because the time series LastModified changed.
+	 */
+	private AtomicLong invalidationCount = new AtomicLong();
+
+	/**
+	 * Number of cached files that were removed to limit the cache size.
+	 */
+	private AtomicLong evictionCount = new AtomicLong();
+
+	/**
+	 * Constructor, which determines the size of the existing cache files.
+	 * @param folder folder for the cache files, which is created if necessary
+	 * @param maxBytes maximum total size of the cache files, bytes
+	 */
+	public PointCache ( File folder, long maxBytes ) {
+		this.folder = folder;
+		this.maxBytes = maxBytes;
+		File [] files = folder.listFiles((dir, name) -> name.endsWith(FILE_EXTENSION));
+		if ( files != null ) {
+			// Add the files in order of use so that the oldest are removed first.
+			Arrays.sort(files, (f1, f2) -> Long.compare(f1.lastModified(), f2.lastModified()));
+			for ( File file : files ) {
+				this.fileSizeMap.put(file.getName(), file.length());
+				this.totalBytes += file.length();
+			}
+		}
+	}
+
+	/**
+	 * Return the points for a time series and period, using the cached points if available and reading others.
+	 * If the cached period includes the requested period, only the cached points are used.
+	 * If the requested period starts in the cached period and ends after it,
+	 * the points after the last cached point are read and added to the cache.
+	 * Otherwise, all points for the period are read and replace the cached points.
+	 * @param timeSeriesUniqueId the time series unique identifier
+	 * @param dataApi the data API ('Raw' or 'Corrected')
+	 * @param lastModified the time series description LastModified, used to check whether the cached points are current
+	 * @param fromMs the start of the period (inclusive), UTC epoch milliseconds
+	 * @param toMs the end of the period (inclusive), UTC epoch milliseconds
+	 * @param reader function to read points for a period
+	 * @return the points for the period, guaranteed to be non-null
+	 * @throws IOException if the points cannot be read
+	 */
+	public TimeSeriesPointArrays get ( String timeSeriesUniqueId, String dataApi, Instant lastModified,
+		long fromMs, long toMs, PointReader reader ) throws IOException {
+		String routine = getClass().getSimpleName() + ".get";
+		File file = getFile(timeSeriesUniqueId, dataApi);
+		Entry entry = readEntry(file, timeSeriesUniqueId, dataApi);
+		if ( (entry != null) && !entry.lastModified.equals(lastModified) ) {
+			Message.printStatus(2, routine, "Cached points for \"" + timeSeriesUniqueId + "\" " + dataApi
+				+ " are not used because the time series was modified (" + entry.lastModified + " to " + lastModified + ").");
+			this.invalidationCount.incrementAndGet();
+			entry = null;
+		}
+		if ( (entry == null) || (fromMs < entry.fromMs) ) {
+			// Read all the points for the period and replace the cached points.
+			this.missCount.incrementAndGet();
+			TimeSeriesPointArrays points = reader.read(fromMs, toMs);
+			writeEntry(file, new Entry(timeSeriesUniqueId, dataApi, lastModified, fromMs, toMs, points));
+			return points;
+		}
+		if ( toMs <= entry.toMs ) {
+			// The cached points include the period.
+			this.hitCount.incrementAndGet();
+			touch(file);
+			return entry.points.subset(fromMs, toMs);
+		}
+		// Read the points from the last cached point, which replace cached points at the same time.
+		this.tailHitCount.incrementAndGet();
+		TimeSeriesPointArrays cachedPoints = entry.points;
+		long tailFromMs = (cachedPoints.size() > 0) ? cachedPoints.getTimes()[cachedPoints.size() - 1] : entry.fromMs;
+		TimeSeriesPointArrays tailPoints = reader.read(tailFromMs, toMs);
+		int keepCount = cachedPoints.indexAfter(tailFromMs - 1);
+		TimeSeriesPointArrays points = new TimeSeriesPointArrays(keepCount + tailPoints.size());
+		long [] times = cachedPoints.getTimes();
+		double [] values = cachedPoints.getValues();
+		for ( int i = 0; i < keepCount; i++ ) {
+			points.add(times[i], values[i]);
+		}
+		times = tailPoints.getTimes();
+		values = tailPoints.getValues();
+		for ( int i = 0; i < tailPoints.size(); i++ ) {
+			points.add(times[i], values[i]);
+		}
+		if ( Message.isDebugOn ) {
+			Message.printStatus(2, routine, "Used " + keepCount + " cached points and read " + tailPoints.size()
+				+ " points after " + Instant.ofEpochMilli(tailFromMs) + " for \"" + timeSeriesUniqueId + "\" " + dataApi + ".");
+		}
+		writeEntry(file, new Entry(timeSeriesUniqueId, dataApi, lastModified, entry.fromMs, toMs, points));
+		return points.subset(fromMs, toMs);
+	}
+
+	/**
+	 * Return the cache file for a time series and data API.
+	 */
+	private File getFile ( String timeSeriesUniqueId, String dataApi ) {
+		String name = (timeSeriesUniqueId + "-" + dataApi).replaceAll("[^a-zA-Z0-9.-]", "_");
+		return new File(this.folder, name + FILE_EXTENSION);
+	}
+
+	/**
+	 * Return the folder for the point cache for a server, in the user's TSTool files:
+	 * <pre>
+	 * ~/.tstool/cache/aquarius/points/server/
+	 * </pre>
+	 * @param serverUrl the server URL, which is converted to a safe folder name
+	 * @return the point cache folder
+	 */
+	public static File getFolderForServer ( String serverUrl ) {
+		String name = serverUrl.replaceFirst("^[a-zA-Z]+://", "").replaceAll("[^a-zA-Z0-9.-]", "_");
+		return new File(System.getProperty("user.home") + File.separator + ".tstool" + File.separator + "cache"
+			+ File.separator + "aquarius" + File.separator + "points" + File.separator + name);
+	}
+
+	/**
+	 * Return a summary of the cache statistics, for the log file and datastore properties.
+	 * @return a summary of the cache statistics
+	 */
+	public synchronized String getStatisticsSummary () {
+		return "hits=" + this.hitCount.get()
+			+ ", tailHits=" + this.tailHitCount.get()
+			+ ", misses=" + this.missCount.get()
+			+ ", invalidations=" + this.invalidationCount.get()
+			+ ", evictions=" + this.evictionCount.get()
+			+ ", files=" + this.fileSizeMap.size()
+			+ ", sizeMB=" + String.format("%.1f", this.totalBytes/1048576.0)
+			+ ", maxMB=" + (this.maxBytes/1048576);
+	}
+
+	/**
+	 * Read a cache file.
+	 * @return the cache entry, or null if the file does not exist or cannot be read
+	 */
+	private Entry readEntry ( File file, String timeSeriesUniqueId, String dataApi ) {
+		String routine = getClass().getSimpleName() + ".readEntry";
+		if ( !file.exists() ) {
+			return null;
+		}
+		try ( DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file), 65536))) ) {
+			if ( (in.readInt() != MAGIC) || (in.readInt() != FORMAT_VERSION) ) {
+				return null;
+			}
+			if ( !in.readUTF().equals(timeSeriesUniqueId) || !in.readUTF().equals(dataApi) ) {
+				return null;
+			}
+			Instant lastModified = Instant.ofEpochSecond(in.readLong(), in.readInt());
+			long fromMs = in.readLong();
+			long toMs = in.readLong();
+			int size = in.readInt();
+			TimeSeriesPointArrays points = new TimeSeriesPointArrays(size);
+			for ( int i = 0; i < size; i++ ) {
+				points.add(in.readLong(), in.readDouble());
+			}
+			return new Entry(timeSeriesUniqueId, dataApi, lastModified, fromMs, toMs, points);
+		}
+		catch ( IOException e ) {
+			// Treat as not cached, the file will be replaced.
+			Message.printWarning(3, routine, "Error reading point cache file \"" + file + "\" (" + e + ") - ignoring.");
+			return null;
+		}
+	}
+
+	/**
+	 * Indicate that a cache file was used, so that it is removed after files that have not been used recently.
+	 */
+	private synchronized void touch ( File file ) {
+		this.fileSizeMap.get(file.getName());
+		file.setLastModified(System.currentTimeMillis());
+	}
+
+	/**
+	 * Write a cache file and remove the least recently used files if the cache is too large.
+	 * The file is written to a temporary file and then renamed so that a partial file is never read.
+	 * An error writing the file is logged and does not cause the read to fail.
+	 */
+	private void writeEntry ( File file, Entry entry ) {
+		String routine = getClass().getSimpleName() + ".writeEntry";
+		File tempFile = null;
+		try {
+			if ( !this.folder.exists() ) {
+				this.folder.mkdirs();
+			}
+			tempFile = File.createTempFile(file.getName(), ".tmp", this.folder);
+			try ( DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(tempFile), 65536))) ) {
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT_VERSION);
+				out.writeUTF(entry.timeSeriesUniqueId);
+				out.writeUTF(entry.dataApi);
+				out.writeLong(entry.lastModified.getEpochSecond());
+				out.writeInt(entry.lastModified.getNano());
+				out.writeLong(entry.fromMs);
+				out.writeLong(entry.toMs);
+				int size = entry.points.size();
+				long [] times = entry.points.getTimes();
+				double [] values = entry.points.getValues();
+				out.writeInt(size);
+				for ( int i = 0; i < size; i++ ) {
+					out.writeLong(times[i]);
+					out.writeDouble(values[i]);
+				}
+			}
+			try {
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch ( AtomicMoveNotSupportedException e ) {
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		catch ( IOException e ) {
+			Message.printWarning(3, routine, "Error writing point cache file \"" + file + "\" (" + e + ").");
+			if ( tempFile != null ) {
+				tempFile.delete();
+			}
+			return;
+		}
+		synchronized ( this ) {
+			Long previousBytes = this.fileSizeMap.put(file.getName(), file.length());
+			this.totalBytes += file.length() - ((previousBytes == null) ? 0 : previousBytes);
+			// Remove the least recently used files, other than the file that was just written.
+			Iterator<Map.Entry<String,Long>> it = this.fileSizeMap.entrySet().iterator();
+			while ( (this.totalBytes > this.maxBytes) && it.hasNext() ) {
+				Map.Entry<String,Long> mapEntry = it.next();
+				if ( mapEntry.getKey().equals(file.getName()) ) {
+					continue;
+				}
+				new File(this.folder, mapEntry.getKey()).delete();
+				this.totalBytes -= mapEntry.getValue();
+				it.remove();
+				this.evictionCount.incrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Cached points for a time series and data API.
+	 */
+	private static class Entry {
+		String timeSeriesUniqueId;
+		String dataApi;
+		Instant lastModified;
+		long fromMs;
+		long toMs;
+		TimeSeriesPointArrays points;
+
+		Entry ( String timeSeriesUniqueId, String dataApi, Instant lastModified, long fromMs, long toMs,
+			TimeSeriesPointArrays points ) {
+			this.timeSeriesUniqueId = timeSeriesUniqueId;
+			this.dataApi = dataApi;
+			this.lastModified = lastModified;
+			this.fromMs = fromMs;
+			this.toMs = toMs;
+			this.points = points;
+		}
+	}
+
+}
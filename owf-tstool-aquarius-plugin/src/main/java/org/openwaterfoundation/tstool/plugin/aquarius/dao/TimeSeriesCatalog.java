@@ -24,7 +24,11 @@ package org.openwaterfoundation.tstool.plugin.aquarius.dao;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+
+import com.aquaticinformatics.aquarius.sdk.timeseries.servicemodels.Publish;
 
 import RTi.TS.TSIdent;
 
@@ -84,6 +88,11 @@ public class TimeSeriesCatalog {
 	private String locationDataElevationUnits = "";
 	private Double locationDataLatitude = null;
 	private Double locationDataLongitude = null;
+
+	// Cache used to set the location data when location data are loaded lazily:
+	// - the getters only use location data that have already been read (see loadLocationData())
+	// - null if location data have been set or are loaded eagerly
+	private volatile LocationDataCache locationDataCache = null;
 	
 	// Parameter data, listed alphabetically.
 	private String parameterMetadataDisplayName = "";
@@ -95,6 +104,10 @@ public class TimeSeriesCatalog {
 	// List of problems, one string per issue.
 	private List<String> problems = null; // Initialize to null to save memory ... must check elsewhere when using.
 
+	// Aquarius time series unique IDs for all catalog entries that have the same TSTool TSID as this entry,
+	// including this entry, or null if the TSID is unique.
+	private List<String> duplicateTsIdUniqueIds = null;
+
 	/**
 	 * Has ReadTSCatalog.checkData() resulted in problems being set?
 	 * This is used when there are issues with non-unique time series identifiers.
@@ -144,6 +157,11 @@ public class TimeSeriesCatalog {
 		this.locationDescriptionUniqueId = timeSeriesCatalog.locationDescriptionUniqueId;
 		this.locationDescriptionName = timeSeriesCatalog.locationDescriptionName;
 		this.locationDescriptionUtcOffset = timeSeriesCatalog.locationDescriptionUtcOffset;
+		this.locationDataElevation = timeSeriesCatalog.locationDataElevation;
+		this.locationDataElevationUnits = timeSeriesCatalog.locationDataElevationUnits;
+		this.locationDataLatitude = timeSeriesCatalog.locationDataLatitude;
+		this.locationDataLongitude = timeSeriesCatalog.locationDataLongitude;
+		this.locationDataCache = timeSeriesCatalog.locationDataCache;
 		
 		if ( deepCopy ) {
 			// Time series catalog problems.
@@ -157,6 +175,9 @@ public class TimeSeriesCatalog {
 					this.problems.add(s);
 				}
 			}
+			if ( timeSeriesCatalog.duplicateTsIdUniqueIds != null ) {
+				this.duplicateTsIdUniqueIds = new ArrayList<>(timeSeriesCatalog.duplicateTsIdUniqueIds);
+			}
 		}
 		else {
 			// Default is null problems list.
@@ -174,6 +195,54 @@ public class TimeSeriesCatalog {
 		this.problems.add(problem);
 	}
 	
+	/**
+	 * Check the catalog for entries that have the same TSTool time series identifier (TSID),
+	 * which occurs when multiple Aquarius time series map to the same TSID.
+	 * The entries are grouped by TSID in a single pass, and each entry in a group with more than one entry
+	 * has a problem added and the group's Aquarius unique IDs set (see getDuplicateTsIdUniqueIds()).
+	 * @param tscatalogList list of TimeSeriesCatalog to check
+	 * @return the number of catalog entries that have a duplicate TSID
+	 */
+	public static int checkForDuplicateTsIds ( List<TimeSeriesCatalog> tscatalogList ) {
+		// Group the entries by TSID:
+		// - most TSIDs are unique so only create a list when a second entry is found
+		Map<String,Object> tsidMap = new HashMap<>((int)(tscatalogList.size()/0.75) + 1);
+		List<List<TimeSeriesCatalog>> duplicateGroups = new ArrayList<>();
+		for ( TimeSeriesCatalog tscatalog : tscatalogList ) {
+			Object previous = tsidMap.putIfAbsent(tscatalog.getTsId(), tscatalog);
+			if ( previous instanceof TimeSeriesCatalog ) {
+				// Second entry for the TSID.
+				List<TimeSeriesCatalog> group = new ArrayList<>();
+				group.add((TimeSeriesCatalog)previous);
+				group.add(tscatalog);
+				tsidMap.put(tscatalog.getTsId(), group);
+				duplicateGroups.add(group);
+			}
+			else if ( previous != null ) {
+				// Third or later entry for the TSID.
+				@SuppressWarnings("unchecked")
+				List<TimeSeriesCatalog> group = (List<TimeSeriesCatalog>)previous;
+				group.add(tscatalog);
+			}
+		}
+
+		// Set the problem for each entry in a duplicate group.
+		int duplicateCount = 0;
+		for ( List<TimeSeriesCatalog> group : duplicateGroups ) {
+			List<String> uniqueIds = new ArrayList<>(group.size());
+			for ( TimeSeriesCatalog tscatalog : group ) {
+				uniqueIds.add(tscatalog.getTimeSeriesDescriptionUniqueId());
+			}
+			String problem = "TSTool TSID is not unique (Aquarius unique IDs: " + String.join(", ", uniqueIds) + ").";
+			for ( TimeSeriesCatalog tscatalog : group ) {
+				tscatalog.setDuplicateTsIdUniqueIds(uniqueIds);
+				tscatalog.addProblem(problem);
+			}
+			duplicateCount += group.size();
+		}
+		return duplicateCount;
+	}
+
 	/**
 	 * Clear the problems.
 	 * @return
@@ -275,6 +344,15 @@ public class TimeSeriesCatalog {
 		return b.toString();
 	}
 
+	/**
+	 * Return the Aquarius time series unique IDs for all catalog entries that have the same TSTool TSID as this entry.
+	 * @return the Aquarius time series unique IDs for catalog entries with the same TSID, including this entry,
+	 * or null if the TSID is unique
+	 */
+	public List<String> getDuplicateTsIdUniqueIds () {
+		return this.duplicateTsIdUniqueIds;
+	}
+
 	public String getDataInterval ( ) {
 		return this.dataInterval;
 	}
@@ -378,19 +456,34 @@ public class TimeSeriesCatalog {
 
 	// ======================== Start LocationData data ===========================
 
+	/**
+	 * Set the location data from the lazy location data cache if the location data have been read.
+	 * The location data are not read so that the getters can be called from user interface code.
+	 */
+	private void checkLocationData () {
+		LocationDataCache cache = this.locationDataCache;
+		if ( (cache != null) && cache.isLoaded(this.locId) ) {
+			setLocationDataFromCache();
+		}
+	}
+
 	public Double getLocationDataElevation () {
+		checkLocationData();
 		return this.locationDataElevation;
 	}
 
 	public String getLocationDataElevationUnits () {
+		checkLocationData();
 		return this.locationDataElevationUnits;
 	}
 
 	public Double getLocationDataLatitude () {
+		checkLocationData();
 		return this.locationDataLatitude;
 	}
 
 	public Double getLocationDataLongitude () {
+		checkLocationData();
 		return this.locationDataLongitude;
 	}
 
@@ -509,6 +602,14 @@ public class TimeSeriesCatalog {
 
 	// ======================== End TimeSeriesDescription data ===========================
 
+	/**
+	 * Set the Aquarius time series unique IDs for all catalog entries that have the same TSTool TSID as this entry.
+	 * @param duplicateTsIdUniqueIds the Aquarius time series unique IDs for catalog entries with the same TSID
+	 */
+	public void setDuplicateTsIdUniqueIds ( List<String> duplicateTsIdUniqueIds ) {
+		this.duplicateTsIdUniqueIds = duplicateTsIdUniqueIds;
+	}
+
 	public void setDataInterval ( String dataInterval ) {
 		this.dataInterval = dataInterval;
 	}
@@ -548,6 +649,68 @@ public class TimeSeriesCatalog {
 
 	// ======================== Start LocationData data ===========================
 
+	/**
+	 * Set the cache used to look up location data on first access, used when location data are loaded lazily.
+	 * @param locationDataCache the location data cache
+	 */
+	public void setLocationDataCache ( LocationDataCache locationDataCache ) {
+		this.locationDataCache = locationDataCache;
+	}
+
+	/**
+	 * Indicate whether the location data are available.
+	 * @return true if the location data have been set or were read when loaded lazily, false if not yet read
+	 */
+	public boolean isLocationDataLoaded () {
+		checkLocationData();
+		return this.locationDataCache == null;
+	}
+
+	/**
+	 * Read the location data if loaded lazily and not previously read, waiting for the read.
+	 * This should not be called from user interface code (see loadLocationDataInBackground()).
+	 */
+	public void loadLocationData () {
+		if ( this.locationDataCache != null ) {
+			setLocationDataFromCache();
+		}
+	}
+
+	/**
+	 * Read the location data in the background if loaded lazily and not previously read.
+	 * @param onLoaded called (in the background thread) when the location data have been read, can be null
+	 */
+	public void loadLocationDataInBackground ( Runnable onLoaded ) {
+		LocationDataCache cache = this.locationDataCache;
+		if ( cache != null ) {
+			cache.load(this.locId, onLoaded);
+		}
+	}
+
+	/**
+	 * Set the location data from the location data cache, which will read the location data if not previously read.
+	 * If the read fails, the cache is kept so that the location data can be read again later.
+	 * This is synchronized so that the data are only set once if accessed by multiple threads.
+	 */
+	private synchronized void setLocationDataFromCache () {
+		LocationDataCache cache = this.locationDataCache;
+		if ( cache != null ) {
+			Publish.LocationDataServiceResponse locationData = cache.get(this.locId);
+			if ( !cache.isLoaded(this.locId) ) {
+				// The read failed so check the cache again later.
+				return;
+			}
+			if ( locationData != null ) {
+				this.locationDataElevation = locationData.getElevation();
+				this.locationDataElevationUnits = locationData.getElevationUnits();
+				this.locationDataLatitude = locationData.getLatitude();
+				this.locationDataLongitude = locationData.getLongitude();
+			}
+			// Only check the cache once.
+			this.locationDataCache = null;
+		}
+	}
+
 	public void setLocationDataElevation ( Double locationDataElevation ) {
 		this.locationDataElevation = locationDataElevation;
 	}
@@ -0,0 +1,283 @@
+// TimeSeriesCatalogFilter - filter for the time series catalog, created from the data type, interval, and where filters
+
+/* NoticeStart
+
+OWF TSTool Aquarius Plugin
+Copyright (C) 2025 Open Water Foundation
+
+OWF TSTool Aquarius Plugin is free software:  you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+OWF TSTool Aquarius Plugin is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+    along with OWF TSTool Aquarius Plugin.  If not, see <https://www.gnu.org/licenses/>.
+
+NoticeEnd */
+
+package org.openwaterfoundation.tstool.plugin.aquarius.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import RTi.Util.GUI.InputFilter;
+import RTi.Util.GUI.InputFilter_JPanel;
+import RTi.Util.Message.Message;
+
+/**
+ * Filter for the time series catalog, created from the requested data type and interval and the input filter panel
+ * "where" conditions, which are ANDed.
+ * Each condition is compiled once into a predicate so that the catalog can be filtered without re-parsing the filters.
+ * String comparisons ignore case and "Matches" can use * wildcards.
+ * Conditions that are equivalent to Aquarius GetTimeSeriesDescriptionList request parameters
+ * are also saved so that the request can be filtered on the server (see getPushdown*() methods).
+ */
+public class TimeSeriesCatalogFilter {
+
+	/**
+	 * Predicates for the filter, all of which must be true for a catalog entry to be included.
+	 */
+	private List<Predicate<TimeSeriesCatalog>> predicateList = new ArrayList<>();
+
+	/**
+	 * Location identifier that can be used in the web service request, or null if not specified.
+	 */
+	private String pushdownLocationIdentifier = null;
+
+	/**
+	 * Parameter that can be used in the web service request, or null if not specified.
+	 */
+	private String pushdownParameter = null;
+
+	/**
+	 * Computation period identifier that can be used in the web service request, or null if not specified.
+	 */
+	private String pushdownComputationPeriodIdentifier = null;
+
+	/**
+	 * Constructor.
+	 * @param dataTypeReq requested data type (e.g., "Discharge"), or null, empty, or "*" to match all
+	 * @param dataIntervalReq requested data interval (e.g., "Day"), or null, empty, or "*" to match all
+	 * @param ifp input filter panel with "where" conditions, or null if no conditions
+	 */
+	public TimeSeriesCatalogFilter ( String dataTypeReq, String dataIntervalReq, InputFilter_JPanel ifp ) {
+		String routine = getClass().getSimpleName() + ".TimeSeriesCatalogFilter";
+		if ( isSpecified(dataTypeReq) ) {
+			// The data type is the Aquarius parameter.
+			this.predicateList.add ( tscatalog -> dataTypeReq.equals(tscatalog.getDataType()) );
+			this.pushdownParameter = dataTypeReq;
+		}
+		if ( isSpecified(dataIntervalReq) ) {
+			this.predicateList.add ( tscatalog -> dataIntervalReq.equalsIgnoreCase(tscatalog.getDataInterval()) );
+			this.pushdownComputationPeriodIdentifier = getComputationPeriodIdentifierForDataInterval(dataIntervalReq);
+		}
+		if ( ifp != null ) {
+			int nfg = ifp.getNumFilterGroups();
+			for ( int ifg = 0; ifg < nfg; ifg++ ) {
+				InputFilter filter = ifp.getInputFilter(ifg);
+				if ( filter.getWhereLabel().trim().isEmpty() ) {
+					// Blank indicates that the filter should be ignored.
+					continue;
+				}
+				String whereSubject = filter.getWhereInternal();
+				String operator = ifp.getOperator(ifg);
+				String input = filter.getInputInternal().trim();
+				Function<TimeSeriesCatalog,String> getter = getValueFunction(whereSubject);
+				if ( getter == null ) {
+					Message.printWarning(3, routine, "Filter \"" + whereSubject + "\" is not supported - ignoring." );
+					continue;
+				}
+				Predicate<String> valuePredicate = createValuePredicate(operator, input);
+				this.predicateList.add ( tscatalog -> valuePredicate.test(getter.apply(tscatalog)) );
+				if ( whereSubject.equals("loc_id") && isExactMatch(operator, input) ) {
+					this.pushdownLocationIdentifier = input;
+				}
+				if ( Message.isDebugOn ) {
+					Message.printStatus(2, routine, "Filter group " + ifg + " where is: " + whereSubject + " " + operator + " \"" + input + "\"");
+				}
+			}
+		}
+	}
+
+	/**
+	 * Create a predicate to compare a string value.
+	 * @param operator the input filter operator
+	 * @param input the input filter value
+	 * @return the predicate to compare a string value
+	 * @throws IllegalArgumentException if the operator is not supported
+	 */
+	private static Predicate<String> createValuePredicate ( String operator, String input ) {
+		String inputUpper = input.toUpperCase();
+		if ( operator.equalsIgnoreCase(InputFilter.INPUT_CONTAINS) ) {
+			return value -> (value != null) && value.toUpperCase().contains(inputUpper);
+		}
+		else if ( operator.equalsIgnoreCase(InputFilter.INPUT_ENDS_WITH) ) {
+			return value -> (value != null) && value.toUpperCase().endsWith(inputUpper);
+		}
+		else if ( operator.equalsIgnoreCase(InputFilter.INPUT_EQUALS) ) {
+			return value -> (value != null) && value.equalsIgnoreCase(input);
+		}
+		else if ( operator.equalsIgnoreCase(InputFilter.INPUT_MATCHES) ) {
+			if ( input.indexOf('*') < 0 ) {
+				return value -> (value != null) && value.equalsIgnoreCase(input);
+			}
+			// Convert the * wildcards to a regular expression, quoting the other parts.
+			StringBuilder regex = new StringBuilder();
+			String [] parts = input.split("\\*", -1);
+			for ( int i = 0; i < parts.length; i++ ) {
+				if ( i > 0 ) {
+					regex.append(".*");
+				}
+				if ( !parts[i].isEmpty() ) {
+					regex.append(Pattern.quote(parts[i]));
+				}
+			}
+			Pattern pattern = Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+			return value -> (value != null) && pattern.matcher(value).matches();
+		}
+		else if ( operator.equalsIgnoreCase(InputFilter.INPUT_STARTS_WITH) ) {
+			return value -> (value != null) && value.toUpperCase().startsWith(inputUpper);
+		}
+		else {
+			throw new IllegalArgumentException("Unsupported filter operator \"" + operator + "\"");
+		}
+	}
+
+	/**
+	 * Filter a catalog list.
+	 * @param tscatalogList the catalog list to filter
+	 * @return a new list containing the catalog entries that match the filter
+	 */
+	public List<TimeSeriesCatalog> filter ( List<TimeSeriesCatalog> tscatalogList ) {
+		List<TimeSeriesCatalog> filteredList = new ArrayList<>();
+		for ( TimeSeriesCatalog tscatalog : tscatalogList ) {
+			if ( test(tscatalog) ) {
+				filteredList.add(tscatalog);
+			}
+		}
+		return filteredList;
+	}
+
+	/**
+	 * Return the Aquarius computation period identifier for a TSTool data interval.
+	 * Only intervals that map to a single computation period are returned.
+	 * @param dataInterval the data interval
+	 * @return the computation period identifier, or null if not a single computation period
+	 */
+	private static String getComputationPeriodIdentifierForDataInterval ( String dataInterval ) {
+		if ( dataInterval.equalsIgnoreCase("Day") ) {
+			return "Daily";
+		}
+		else if ( dataInterval.equalsIgnoreCase("Hour") ) {
+			return "Hourly";
+		}
+		else if ( dataInterval.equalsIgnoreCase("Month") ) {
+			return "Monthly";
+		}
+		else if ( dataInterval.equalsIgnoreCase("Year") ) {
+			return "Annual";
+		}
+		else {
+			// IrregSecond is used for "Unknown" and empty computation periods so can't be requested.
+			return null;
+		}
+	}
+
+	/**
+	 * Return the computation period identifier to use in the web service request.
+	 * @return the computation period identifier to use in the web service request, or null if not specified
+	 */
+	public String getPushdownComputationPeriodIdentifier () {
+		return this.pushdownComputationPeriodIdentifier;
+	}
+
+	/**
+	 * Return the location identifier to use in the web service request.
+	 * @return the location identifier to use in the web service request, or null if not specified
+	 */
+	public String getPushdownLocationIdentifier () {
+		return this.pushdownLocationIdentifier;
+	}
+
+	/**
+	 * Return the parameter to use in the web service request.
+	 * @return the parameter to use in the web service request, or null if not specified
+	 */
+	public String getPushdownParameter () {
+		return this.pushdownParameter;
+	}
+
+	/**
+	 * Return the function to get the catalog value for an input filter internal "where".
+	 * @param whereSubject the input filter internal "where"
+	 * @return the function to get the catalog value, or null if not supported
+	 */
+	private static Function<TimeSeriesCatalog,String> getValueFunction ( String whereSubject ) {
+		if ( whereSubject == null ) {
+			return null;
+		}
+		else if ( whereSubject.equals("loc_id") ) {
+			return TimeSeriesCatalog::getLocId;
+		}
+		else {
+			return null;
+		}
+	}
+
+	/**
+	 * Indicate whether the filter has any conditions that can be used in the web service request.
+	 * @return true if the filter has any conditions that can be used in the web service request
+	 */
+	public boolean hasPushdown () {
+		return (this.pushdownLocationIdentifier != null) || (this.pushdownParameter != null)
+			|| (this.pushdownComputationPeriodIdentifier != null);
+	}
+
+	/**
+	 * Indicate whether the filter has no conditions.
+	 * @return true if the filter has no conditions and will match all catalog entries
+	 */
+	public boolean isEmpty () {
+		return this.predicateList.isEmpty();
+	}
+
+	/**
+	 * Indicate whether an operator and input match a single value exactly.
+	 */
+	private static boolean isExactMatch ( String operator, String input ) {
+		if ( input.isEmpty() || (input.indexOf('*') >= 0) ) {
+			return false;
+		}
+		return operator.equalsIgnoreCase(InputFilter.INPUT_EQUALS) || operator.equalsIgnoreCase(InputFilter.INPUT_MATCHES);
+	}
+
+	/**
+	 * Indicate whether a requested data type or interval is specified.
+	 */
+	private static boolean isSpecified ( String value ) {
+		return (value != null) && !value.isEmpty() && !value.equals("*");
+	}
+
+	/**
+	 * Test whether a catalog entry matches the filter.
+	 * @param tscatalog the catalog entry to test
+	 * @return true if the catalog entry matches all the filter conditions
+	 */
+	public boolean test ( TimeSeriesCatalog tscatalog ) {
+		for ( Predicate<TimeSeriesCatalog> predicate : this.predicateList ) {
+			if ( !predicate.test(tscatalog) ) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
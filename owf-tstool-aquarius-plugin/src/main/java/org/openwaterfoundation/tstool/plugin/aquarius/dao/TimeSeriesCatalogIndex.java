@@ -0,0 +1,245 @@
+// TimeSeriesCatalogIndex - index for the time series catalog, used to find time series for a TSID
+
+/* NoticeStart
+
+OWF TSTool Aquarius Plugin
+Copyright (C) 2025 Open Water Foundation
+
+OWF TSTool Aquarius Plugin is free software:  you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+OWF TSTool Aquarius Plugin is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+    along with OWF TSTool Aquarius Plugin.  If not, see <https://www.gnu.org/licenses/>.
+
+NoticeEnd */
+
+package org.openwaterfoundation.tstool.plugin.aquarius.dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import RTi.TS.TSIdent;
+
+/**
+ * Index for a time series catalog list, used to find the catalog entries for a time series identifier (TSID)
+ * without searching the list.
+ * The primary index uses the location ID, data type, data interval, and scenario.
+ * Secondary indexes for each part are used when the TSID contains wildcard (*) parts.
+ * Data intervals are compared ignoring case, consistent with TimeSeriesCatalog.findForTSIdent().
+ * The index is created for a specific list and is not changed,
+ * so a new index must be created when the catalog list is replaced (see isFor()).
+ */
+public class TimeSeriesCatalogIndex {
+
+	/**
+	 * Wildcard used in TSID parts to match any value.
+	 */
+	private static final String WILDCARD = "*";
+
+	/**
+	 * Separator for composite keys, which will not occur in identifiers.
+	 */
+	private static final char SEPARATOR = '\u0000';
+
+	/**
+	 * Time series catalog list used to create the index.
+	 */
+	private List<TimeSeriesCatalog> tscatalogList;
+
+	/**
+	 * Primary index, keyed by location ID, data type, data interval (upper case), and scenario.
+	 */
+	private Map<String,List<TimeSeriesCatalog>> compositeMap;
+
+	/**
+	 * Secondary index keyed by location ID.
+	 */
+	private Map<String,List<TimeSeriesCatalog>> locIdMap = new HashMap<>();
+
+	/**
+	 * Secondary index keyed by data type.
+	 */
+	private Map<String,List<TimeSeriesCatalog>> dataTypeMap = new HashMap<>();
+
+	/**
+	 * Secondary index keyed by data interval (upper case).
+	 */
+	private Map<String,List<TimeSeriesCatalog>> dataIntervalMap = new HashMap<>();
+
+	/**
+	 * Secondary index keyed by scenario.
+	 */
+	private Map<String,List<TimeSeriesCatalog>> scenarioMap = new HashMap<>();
+
+	/**
+	 * Time to create the index, milliseconds.
+	 */
+	private long buildTimeMs = 0;
+
+	/**
+	 * Constructor, which creates the indexes.
+	 * @param tscatalogList time series catalog list to index
+	 */
+	public TimeSeriesCatalogIndex ( List<TimeSeriesCatalog> tscatalogList ) {
+		long start = System.currentTimeMillis();
+		this.tscatalogList = tscatalogList;
+		this.compositeMap = new HashMap<>((int)(tscatalogList.size()/0.75) + 1);
+		for ( TimeSeriesCatalog tscatalog : tscatalogList ) {
+			String locId = toKeyPart(tscatalog.getLocId());
+			String dataType = toKeyPart(tscatalog.getDataType());
+			String dataInterval = toKeyPart(tscatalog.getDataInterval()).toUpperCase();
+			String scenario = toKeyPart(tscatalog.getScenario());
+			add(this.compositeMap, createKey(locId, dataType, dataInterval, scenario), tscatalog);
+			add(this.locIdMap, locId, tscatalog);
+			add(this.dataTypeMap, dataType, tscatalog);
+			add(this.dataIntervalMap, dataInterval, tscatalog);
+			add(this.scenarioMap, scenario, tscatalog);
+		}
+		this.buildTimeMs = System.currentTimeMillis() - start;
+	}
+
+	/**
+	 * Add a catalog entry to an index map.
+	 * @param map the index map
+	 * @param key the key for the entry
+	 * @param tscatalog the catalog entry to add
+	 */
+	private static void add ( Map<String,List<TimeSeriesCatalog>> map, String key, TimeSeriesCatalog tscatalog ) {
+		List<TimeSeriesCatalog> list = map.get(key);
+		if ( list == null ) {
+			// Most keys in the primary index have one entry.
+			list = new ArrayList<>(1);
+			map.put(key, list);
+		}
+		list.add(tscatalog);
+	}
+
+	/**
+	 * Create a composite key.
+	 */
+	private static String createKey ( String locId, String dataType, String dataInterval, String scenario ) {
+		return new StringBuilder(locId.length() + dataType.length() + dataInterval.length() + scenario.length() + 3)
+			.append(locId).append(SEPARATOR)
+			.append(dataType).append(SEPARATOR)
+			.append(dataInterval).append(SEPARATOR)
+			.append(scenario).toString();
+	}
+
+	/**
+	 * Find the catalog entries that match a time series identifier.
+	 * The location ID, data type, and interval must match unless specified as a wildcard (*).
+	 * The scenario must match if specified and not a wildcard.
+	 * A TSID without a scenario matches any scenario, consistent with TimeSeriesCatalog.findForTSIdent().
+	 * @param tsidentReq requested time series identifier to match
+	 * @return the matching catalog entries, in catalog order, guaranteed to be non-null
+	 */
+	public List<TimeSeriesCatalog> findForTSIdent ( TSIdent tsidentReq ) {
+		String locId = toKeyPart(tsidentReq.getLocation());
+		String dataType = toKeyPart(tsidentReq.getType());
+		String dataInterval = toKeyPart(tsidentReq.getInterval()).toUpperCase();
+		String scenario = toKeyPart(tsidentReq.getScenario());
+		boolean matchLocId = !locId.equals(WILDCARD);
+		boolean matchDataType = !dataType.equals(WILDCARD);
+		boolean matchDataInterval = !dataInterval.equals(WILDCARD);
+		boolean matchScenario = !scenario.isEmpty() && !scenario.equals(WILDCARD);
+
+		if ( matchLocId && matchDataType && matchDataInterval && matchScenario ) {
+			// All parts are specified so use the primary index.
+			List<TimeSeriesCatalog> list = this.compositeMap.get(createKey(locId, dataType, dataInterval, scenario));
+			if ( list == null ) {
+				return new ArrayList<>();
+			}
+			return new ArrayList<>(list);
+		}
+
+		// Use the smallest secondary index list for the specified parts and then check the other parts.
+		List<TimeSeriesCatalog> candidateList = null;
+		if ( matchLocId ) {
+			candidateList = smaller(candidateList, this.locIdMap.get(locId));
+		}
+		if ( matchDataType ) {
+			candidateList = smaller(candidateList, this.dataTypeMap.get(dataType));
+		}
+		if ( matchDataInterval ) {
+			candidateList = smaller(candidateList, this.dataIntervalMap.get(dataInterval));
+		}
+		if ( matchScenario ) {
+			candidateList = smaller(candidateList, this.scenarioMap.get(scenario));
+		}
+		if ( candidateList == null ) {
+			// All parts are wildcards.
+			candidateList = this.tscatalogList;
+		}
+		List<TimeSeriesCatalog> tscatalogFoundList = new ArrayList<>();
+		for ( TimeSeriesCatalog tscatalog : candidateList ) {
+			if ( matchLocId && !locId.equals(toKeyPart(tscatalog.getLocId())) ) {
+				continue;
+			}
+			if ( matchDataType && !dataType.equals(toKeyPart(tscatalog.getDataType())) ) {
+				continue;
+			}
+			if ( matchDataInterval && !dataInterval.equalsIgnoreCase(toKeyPart(tscatalog.getDataInterval())) ) {
+				continue;
+			}
+			if ( matchScenario && !scenario.equals(toKeyPart(tscatalog.getScenario())) ) {
+				continue;
+			}
+			tscatalogFoundList.add(tscatalog);
+		}
+		return tscatalogFoundList;
+	}
+
+	/**
+	 * Return the time to create the index.
+	 * @return the time to create the index, milliseconds
+	 */
+	public long getBuildTimeMs () {
+		return this.buildTimeMs;
+	}
+
+	/**
+	 * Indicate whether the index was created for the specified list,
+	 * used to check whether the index needs to be created again after the catalog is replaced.
+	 * @param tscatalogList time series catalog list
+	 * @return true if the index was created for the list
+	 */
+	public boolean isFor ( List<TimeSeriesCatalog> tscatalogList ) {
+		return this.tscatalogList == tscatalogList;
+	}
+
+	/**
+	 * Return the smaller of two candidate lists, where a null current list has not been set
+	 * and a null new list indicates no matches.
+	 */
+	private static List<TimeSeriesCatalog> smaller ( List<TimeSeriesCatalog> currentList, List<TimeSeriesCatalog> newList ) {
+		if ( newList == null ) {
+			// No matches for the part so nothing can match.
+			return Collections.emptyList();
+		}
+		if ( (currentList == null) || (newList.size() < currentList.size()) ) {
+			return newList;
+		}
+		return currentList;
+	}
+
+	/**
+	 * Convert a TSID part to a key part, converting null to an empty string.
+	 */
+	private static String toKeyPart ( String part ) {
+		if ( part == null ) {
+			return "";
+		}
+		return part;
+	}
+
+}
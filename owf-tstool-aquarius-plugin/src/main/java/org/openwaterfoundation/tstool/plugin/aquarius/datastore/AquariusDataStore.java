@@ -22,34 +22,68 @@ NoticeEnd */
 
 package org.openwaterfoundation.tstool.plugin.aquarius.datastore;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
 import java.net.URI;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.aquaticinformatics.aquarius.sdk.timeseries.AquariusClient;
 import com.aquaticinformatics.aquarius.sdk.timeseries.servicemodels.Publish;
 import com.aquaticinformatics.aquarius.sdk.timeseries.servicemodels.Publish.LocationDescription;
 import com.aquaticinformatics.aquarius.sdk.timeseries.servicemodels.Publish.ParameterMetadata;
+import com.aquaticinformatics.aquarius.sdk.timeseries.servicemodels.Publish.TimeAlignedDataServiceRequest;
 import com.aquaticinformatics.aquarius.sdk.timeseries.servicemodels.Publish.TimeSeriesDataCorrectedServiceRequest;
 import com.aquaticinformatics.aquarius.sdk.timeseries.servicemodels.Publish.TimeSeriesDataRawServiceRequest;
 import com.aquaticinformatics.aquarius.sdk.timeseries.servicemodels.Publish.TimeSeriesDataServiceResponse;
 import com.aquaticinformatics.aquarius.sdk.timeseries.servicemodels.Publish.TimeSeriesDescription;
-import com.aquaticinformatics.aquarius.sdk.timeseries.servicemodels.Publish.TimeSeriesPoint;
 import com.aquaticinformatics.aquarius.sdk.timeseries.servicemodels.Publish.TimeSeriesUniqueIds;
 
+import net.servicestack.client.ConnectionFilter;
+import net.servicestack.client.WebServiceException;
+
 import org.openwaterfoundation.tstool.plugin.aquarius.PluginMeta;
+import org.openwaterfoundation.tstool.plugin.aquarius.dao.CatalogSnapshot;
+import org.openwaterfoundation.tstool.plugin.aquarius.dao.ChangedSeries;
+import org.openwaterfoundation.tstool.plugin.aquarius.dao.DataCache;
+import org.openwaterfoundation.tstool.plugin.aquarius.dao.GlobalDataIndex;
+import org.openwaterfoundation.tstool.plugin.aquarius.dao.LocationDataCache;
+import org.openwaterfoundation.tstool.plugin.aquarius.dao.PointCache;
 import org.openwaterfoundation.tstool.plugin.aquarius.dao.TimeSeriesCatalog;
+import org.openwaterfoundation.tstool.plugin.aquarius.dao.TimeSeriesCatalogFilter;
+import org.openwaterfoundation.tstool.plugin.aquarius.dao.TimeSeriesCatalogIndex;
 import org.openwaterfoundation.tstool.plugin.aquarius.dao.TimeSeriesDescriptionComparator;
+import org.openwaterfoundation.tstool.plugin.aquarius.dto.TimeSeriesDataFormatException;
+import org.openwaterfoundation.tstool.plugin.aquarius.dto.TimeSeriesPointArrays;
 import org.openwaterfoundation.tstool.plugin.aquarius.ui.Aquarius_TimeSeries_CellRenderer;
 import org.openwaterfoundation.tstool.plugin.aquarius.ui.Aquarius_TimeSeries_InputFilter_JPanel;
 import org.openwaterfoundation.tstool.plugin.aquarius.ui.Aquarius_TimeSeries_TableModel;
+import org.openwaterfoundation.tstool.plugin.aquarius.util.ConcurrencyUtil;
+import org.openwaterfoundation.tstool.plugin.aquarius.util.ConcurrentRequests;
+import org.openwaterfoundation.tstool.plugin.aquarius.util.ConnectionSettings;
+import org.openwaterfoundation.tstool.plugin.aquarius.util.SingleFlight;
+import org.openwaterfoundation.tstool.plugin.aquarius.util.EpochDateTimeConverter;
 import org.openwaterfoundation.tstool.plugin.aquarius.util.TimeUtil;
 
 import RTi.TS.TS;
@@ -83,49 +117,260 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
 	private final String TS_DATA_SOURCE = "Aquarius";
 
 	/**
-	 * The Aquarius client that will be used for API requests.
+	 * Default maximum size of the points from previous reads that are kept for ReadAquarius OnlyIfChangedSince, megabytes,
+	 * if the 'ChangedSeriesCacheMaxMB' property is not specified.
+	 */
+	private final long DEFAULT_CHANGED_SERIES_CACHE_MAX_MB = 100;
+
+	/**
+	 * Default number of time series to read concurrently, if the 'ReadConcurrency' property is not specified.
+	 */
+	private final int DEFAULT_READ_CONCURRENCY = 4;
+
+	/**
+	 * Default maximum number of data requests that are run at the same time by the datastore,
+	 * if the 'MaxConcurrentRequests' property is not specified.
+	 */
+	private final int DEFAULT_MAX_CONCURRENT_REQUESTS = 8;
+
+	/**
+	 * Default number of read windows to request concurrently for a time series,
+	 * if the 'ReadWindowConcurrency' property is not specified.
+	 */
+	private final int DEFAULT_READ_WINDOW_CONCURRENCY = 4;
+
+	/**
+	 * Default number of times to retry a failed read window, if the 'ReadWindowRetries' property is not specified.
+	 */
+	private final int DEFAULT_READ_WINDOW_RETRIES = 2;
+
+	/**
+	 * Default timeout for each read window request in milliseconds,
+	 * if the 'ReadWindowTimeoutMs' property is not specified.
+	 */
+	private final long DEFAULT_READ_WINDOW_TIMEOUT_MS = 300000;
+
+	/**
+	 * Default maximum size of the point cache files in megabytes, if the 'PointCacheMaxMB' property is not specified.
+	 */
+	private final long DEFAULT_POINT_CACHE_MAX_MB = 1024;
+
+	/**
+	 * Default number of time series in each time-aligned data request,
+	 * if the 'TimeAlignedBatchSize' property is not specified.
+	 */
+	private final int DEFAULT_TIME_ALIGNED_BATCH_SIZE = 10;
+
+	/**
+	 * Default timeout for each time-aligned data request in milliseconds,
+	 * if the 'TimeAlignedTimeoutMs' property is not specified.
+	 */
+	private final long DEFAULT_TIME_ALIGNED_TIMEOUT_MS = 300000;
+
+	/**
+	 * Default timeout to connect to the server in milliseconds, if the 'ConnectTimeoutMs' property is not specified.
+	 */
+	private final int DEFAULT_CONNECT_TIMEOUT_MS = 30000;
+
+	/**
+	 * Default timeout waiting for response data in milliseconds, if the 'ReadTimeoutMs' property is not specified.
+	 */
+	private final int DEFAULT_READ_TIMEOUT_MS = 300000;
+
+	/**
+	 * Default maximum age of the authenticated session in minutes before authenticating again,
+	 * if the 'SessionMaxAgeMinutes' property is not specified.
+	 */
+	private final long DEFAULT_SESSION_MAX_AGE_MINUTES = 50;
+
+	/**
+	 * Time in milliseconds to wait after the read timeout before closing a client that was replaced,
+	 * so that requests that are using the client have completed or timed out.
+	 */
+	private final long CLIENT_CLOSE_GRACE_MS = 60000;
+
+	/**
+	 * Default number of location data requests to run concurrently,
+	 * if the 'LocationDataConcurrency' property is not specified.
+	 */
+	private final int DEFAULT_LOCATION_DATA_CONCURRENCY = 8;
+
+	/**
+	 * Default timeout for each location data request in milliseconds,
+	 * if the 'LocationDataTimeoutMs' property is not specified.
+	 */
+	private final long DEFAULT_LOCATION_DATA_TIMEOUT_MS = 60000;
+
+	/**
+	 * Default time to wait for datastore initialization in milliseconds,
+	 * if the 'InitializationWaitMs' property is not specified.
+	 */
+	private final long DEFAULT_INITIALIZATION_WAIT_MS = 300000;
+
+	/**
+	 * Default number of time series unique identifiers in each time series description request,
+	 * if the 'TimeSeriesDescriptionBatchSize' property is not specified.
+	 */
+	private final int DEFAULT_TIME_SERIES_DESCRIPTION_BATCH_SIZE = 1000;
+
+	/**
+	 * Default number of time series description requests to run concurrently,
+	 * if the 'TimeSeriesDescriptionConcurrency' property is not specified.
+	 */
+	private final int DEFAULT_TIME_SERIES_DESCRIPTION_CONCURRENCY = 4;
+
+	/**
+	 * Default number of times to retry a failed time series description request,
+	 * if the 'TimeSeriesDescriptionRetries' property is not specified.
+	 */
+	private final int DEFAULT_TIME_SERIES_DESCRIPTION_RETRIES = 2;
+
+	/**
+	 * Default timeout for each time series description request in milliseconds,
+	 * if the 'TimeSeriesDescriptionTimeoutMs' property is not specified.
+	 */
+	private final long DEFAULT_TIME_SERIES_DESCRIPTION_TIMEOUT_MS = 120000;
+
+	/**
+	 * Default time in seconds after which the catalog snapshot is revalidated,
+	 * if the 'CatalogCacheTtl' property is not specified.
+	 */
+	private final long DEFAULT_CATALOG_CACHE_TTL_SECONDS = 3600;
+
+	/**
+	 * The Aquarius client that will be used for API requests,
+	 * which is replaced when authenticating again (see getClient() and reauthenticate()).
 	 */
-    private AquariusClient client = null;
+    private volatile AquariusClient client = null;
+
+    /**
+     * Time when the client session was authenticated, UTC epoch milliseconds.
+     */
+    private volatile long sessionStartMs = 0;
+
+    /**
+     * Session generation, incremented each time that the client is replaced,
+     * used so that threads that detect an expired session at the same time only authenticate once.
+     */
+    private volatile long sessionGeneration = 0;
+
+    /**
+     * Maximum age of the session in milliseconds before authenticating again, 0 to not check,
+     * set from the 'SessionMaxAgeMinutes' property.
+     */
+    private long sessionMaxAgeMs = DEFAULT_SESSION_MAX_AGE_MINUTES*60000;
+
+    /**
+     * Number of times that the session was authenticated again.
+     */
+    private int reauthenticationCount = 0;
+
+    /**
+     * Lock used to authenticate a new session,
+     * separate from the datastore lock so that authenticating does not block property and cache access.
+     */
+    private final Object sessionLock = new Object();
+
+    /**
+     * Executor used to close clients that were replaced, created when first needed.
+     */
+    private ScheduledExecutorService clientCloseExecutor = null;
+
+    /**
+     * Settings applied to each web service connection, set from the 'Compression', 'ConnectTimeoutMs', 'KeepAlive',
+     * and 'ReadTimeoutMs' properties.
+     */
+    private ConnectionSettings connectionSettings =
+    	new ConnectionSettings(DEFAULT_CONNECT_TIMEOUT_MS, DEFAULT_READ_TIMEOUT_MS, true, true);
+
+    /**
+     * Limit on the number of data requests that are run at the same time,
+     * sized using the 'MaxConcurrentRequests' property (see callWithRequestLimit()).
+     * Data requests are made from nested thread pools (time series, read windows, time-aligned batches)
+     * so the total number of requests would otherwise be the product of the pool sizes.
+     */
+    private volatile Semaphore requestLimiter = null;
+
+	/**
+	 * Future that completes when the client has been created and global data have been read,
+	 * which is done in the background so that TSTool startup is not blocked.
+	 */
+	private CompletableFuture<Void> initializationFuture = null;
+
+	/**
+	 * Initialization status: "Initializing", "Ready", or "Failed".
+	 */
+	private volatile String initializationStatus = "Initializing";
+
+	/**
+	 * Executor used to revalidate the global data in the background when the catalog snapshot is used,
+	 * null if not used.
+	 */
+	private ScheduledExecutorService catalogRefreshExecutor = null;
+
+	/**
+	 * Number of errors reading global data stages, used to determine whether the catalog snapshot can be saved.
+	 */
+	private AtomicInteger globalDataErrorCount = new AtomicInteger(0);
 
 	/**
 	 * Properties for the plugin, used to help with application integration.
+	 * Access is synchronized because properties are set by the initialization thread.
 	 */
 	private Map<String,Object> pluginProperties = new LinkedHashMap<>();
 
 	/**
-	 * Cached location description list.
+	 * Persistent cache of time series data points, used when PointCache=True, otherwise null.
+	 * Created on first use by getPointCache().
 	 */
-	List<LocationDescription> locationDescriptionList = new ArrayList<>();
+	private PointCache pointCache = null;
 
 	/**
-	 * Cached location data list.
+	 * Whether getPointCache() has checked the 'PointCache' property.
 	 */
-	List<Publish.LocationDataServiceResponse> locationDataList = new ArrayList<>();
+	private boolean pointCacheChecked = false;
 
 	/**
-	 * Cached parameter metadata list.
+	 * In-memory cache of time series data points, used if the 'DataCacheMaxMB' property is greater than zero.
 	 */
-	List<ParameterMetadata> parameterMetadataList = new ArrayList<>();
+	private DataCache dataCache = null;
 
 	/**
-	 * Cached station list.
+	 * Whether getDataCache() has checked the 'DataCacheMaxMB' property.
 	 */
-	//List<Station> stationList = new ArrayList<>();
+	private boolean dataCacheChecked = false;
+
+	/**
+	 * Previous reads in the session that were read with a ChangedSeries (ReadAquarius OnlyIfChangedSince),
+	 * keyed by time series unique identifier, data API, and data parts, used to avoid reading time series that have not changed.
+	 * Only the token and period are saved and the points are saved in the changed series cache.
+	 */
+	private Map<String,PreviousRead> previousReadMap = new ConcurrentHashMap<>();
+
+	/**
+	 * Points from previous reads that were read with a ChangedSeries, limited by the 'ChangedSeriesCacheMaxMB' property,
+	 * created by getChangedSeriesCache() when first used.
+	 */
+	private DataCache changedSeriesCache = null;
 
 	/**
-	 * Cached time series catalog, used to streamline creating lists for UI choices.
+	 * Data reads that are in progress, keyed by time series unique identifier, data API, data parts, and query period,
+	 * used so that concurrent reads of the same data (e.g., by parallel commands) share one request.
 	 */
-	private List<TimeSeriesCatalog> tscatalogList = new ArrayList<>();
+	private SingleFlight<String,TimeSeriesPointArrays> inFlightDataReads = new SingleFlight<>();
 
 	/**
-	 * Cached time series description list.
+	 * Cached global data (location, parameter, and time series description lists),
+	 * and the time series catalog and indexes that are created from the global data.
+	 * The global data are replaced as a whole when read or refreshed so that other threads
+	 * always see lists, catalog, and indexes that are consistent.
 	 */
-	List<TimeSeriesDescription> timeSeriesDescriptionList = new ArrayList<>();
+	private volatile GlobalData globalData = new GlobalData();
 
 	/**
-	 * Cached time series unique ID list.
+	 * Cached station list.
 	 */
-	List<TimeSeriesUniqueIds> timeSeriesUniqueIdList = new ArrayList<>();
+	//List<Station> stationList = new ArrayList<>();
 
 	/**
 	 * Authentication token.
@@ -144,13 +389,60 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
 	@param serviceRootUrl the service root URL to which specific requests will be appended, must have a trailing slash
 	@param props properties to configure the datastore:
 	<ul>
+	<li> `CatalogCache` - `True` (default) to save global data in a file and use the file to start quickly,
+	     or `False` to always read global data from web services</li>
+	<li> `CatalogCacheTtl` - time in seconds after which the saved global data are revalidated
+	     by reading from web services in the background (default is 3600)</li>
+	<li> `ChangedSeriesCacheMaxMB` - maximum size in megabytes of time series data points from previous reads that are kept
+	for ReadAquarius OnlyIfChangedSince (default is 100)</li>
+	<li> `Compression` - `True` (default) to request gzip-compressed responses for time series data requests,
+	     or `False` to request uncompressed responses</li>
+	<li> `ConnectTimeoutMs` - timeout to connect to the server in milliseconds (default is 30000, 0 for no timeout)</li>
+	<li> `DataCacheMaxMB` - maximum size in megabytes of time series data points that are kept in memory
+	     so that reading the same time series and period (or a shorter period) again in the session does not request the data,
+	     after which the least recently used points are removed (default is 0, which does not keep points)</li>
+	<li> `DataDecoder` - `Streaming` (default) to parse time series data points directly from the web service response
+	     into arrays, or `SDK` to use the Aquarius SDK objects for each point</li>
 	<li> `Description` - description, longer than name</li>
 	<li> `Enabled` - standard datastore property, indicated whether it is enabled</li>
+	<li> `InitializationWaitMs` - time to wait for background initialization to complete before
+	     indicating that the datastore is initializing (default is 300000)</li>
+	<li> `LocationDataLoad` - `Eager` (default) to read location data for all locations when the datastore is initialized,
+	     or `Lazy` to read location data for a location when first used</li>
+	<li> `LocationDataConcurrency` - number of location data requests to run concurrently (default is 8)</li>
+	<li> `KeepAlive` - `True` (default) to reuse connections to the server for later requests, or `False` to close
+	     each connection after the response</li>
+	<li> `LocationDataTimeoutMs` - timeout for each location data request in milliseconds (default is 60000, 0 for no timeout)</li>
+	<li> `MaxConcurrentRequests` - maximum number of data requests that are run at the same time by the datastore,
+	     including time series, read window, and time-aligned requests (default is 8)</li>
 	<li> `Name` - name of the datastore, same as name</li>
 	<li> `OrganizationId` - the Aquarius organization ID</li>
 	<li> `Password` - Aquarius account password</li>
+	<li> `PointCache` - `True` to save time series data points in files so that later reads of the same time series
+	     only request the points after the last saved point, or `False` (default) to not save points</li>
+	<li> `PointCacheMaxMB` - maximum size of the point cache files in megabytes,
+	     after which the least recently used files are removed (default is 1024)</li>
+	<li> `ReadConcurrency` - default number of time series to read concurrently (default is 4)</li>
+	<li> `ReadTimeoutMs` - timeout waiting for response data in milliseconds (default is 300000, 0 for no timeout)</li>
+	<li> `ReadWindowConcurrency` - number of read windows to request concurrently when a time series is read
+	     using the `ReadWindow` read property (default is 4)</li>
+	<li> `ReadWindowRetries` - number of times to retry a failed read window (default is 2)</li>
+	<li> `ReadWindowTimeoutMs` - timeout for each read window request in milliseconds (default is 300000, 0 for no timeout)</li>
+	<li> `SessionMaxAgeMinutes` - maximum age of the authenticated session in minutes,
+	     after which a new session is authenticated before the next request (default is 50, 0 to not check),
+	     requests that fail because the session has expired are also retried once with a new session</li>
 	<li> `ServiceApiDocumentationUrl` - URL for the API documentation landing page</li>
 	<li> `ServiceRootUrl` - the URL for the web service API, for example "ServiceRootUrl = "https://panama.aquaticinformatics.net"</li>
+	<li> `TimeAlignedBatchSize` - number of time series in each time-aligned data request
+	     when time series are read using `ReadMode=TimeAligned` (default is 10)</li>
+	<li> `TimeAlignedTimeoutMs` - timeout for each time-aligned data request in milliseconds
+	     (default is 300000, 0 for no timeout)</li>
+	<li> `TimeSeriesDescriptionBatchSize` - number of time series unique identifiers in each time series description request
+	     (default is 1000)</li>
+	<li> `TimeSeriesDescriptionConcurrency` - number of time series description requests to run concurrently (default is 4)</li>
+	<li> `TimeSeriesDescriptionRetries` - number of times to retry a failed time series description request (default is 2)</li>
+	<li> `TimeSeriesDescriptionTimeoutMs` - timeout for each time series description request in milliseconds
+	     (default is 120000, 0 for no timeout)</li>
 	<li> `Type` - must be `AquariusDataStore`</li>
 	<li> `UserName` - Aquarius account user name</li>
 	</ul>
@@ -176,13 +468,15 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
         this.pluginProperties.put("Author", "Open Water Foundation, https://openwaterfoundation.org");
         this.pluginProperties.put("Version", PluginMeta.VERSION);
 
-        // Create the client that will be used for the session.
-        createClient ();
-
-	    // Read global data used throughout the session:
-	    // - in particular a cache of the TimeSeriesCatalog used for further queries
-
-	    readGlobalData();
+        // Create the client and read global data in the background so that TSTool startup is not blocked:
+        // - each datastore uses its own thread so that multiple datastores initialize in parallel
+        // - methods that need the global data call waitForInitialization()
+        setPluginProperty("InitializationStatus", this.initializationStatus);
+        this.initializationFuture = CompletableFuture.runAsync ( () -> initialize(), runnable -> {
+        	Thread thread = new Thread(runnable, "aquarius-init-" + name);
+        	thread.setDaemon(true);
+        	thread.start();
+        });
 	}
 
 	/**
@@ -313,15 +607,136 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
 	}
 
 	/**
-	 * Check whether the authentication token is expired if if so, refresh the token.
+	 * A request that uses the Aquarius client, used with callWithSession().
+	 * @param <R> the result type
+	 */
+	private interface ClientRequest<R> {
+		/**
+		 * Run the request.
+		 * @param client the client to use for the request
+		 * @return the result of the request
+		 */
+		R call ( AquariusClient client );
+	}
+
+	/**
+	 * Run a request using the current client, and if the request fails because the session has expired (HTTP 401),
+	 * authenticate again and retry the request once.
+	 * @param request the request to run
+	 * @return the result of the request
+	 */
+	private <R> R callWithSession ( ClientRequest<R> request ) {
+		long generation = this.sessionGeneration;
+		AquariusClient client = getClient();
+		try {
+			return request.call(client);
+		}
+		catch ( WebServiceException e ) {
+			if ( (e.getStatusCode() != HttpURLConnection.HTTP_UNAUTHORIZED) || !reauthenticate(generation, "HTTP 401") ) {
+				throw e;
+			}
+			return request.call(this.client);
+		}
+	}
+
+	/**
+	 * A data request, used with callWithRequestLimit().
+	 * @param <R> the result type
+	 */
+	private interface DataRequest<R> {
+		/**
+		 * Run the request.
+		 * @return the result of the request
+		 * @throws IOException if the request fails
+		 */
+		R call () throws IOException;
+	}
+
+	/**
+	 * Run a data request, waiting if the number of data requests that are running is the 'MaxConcurrentRequests' property,
+	 * so that the load on the server is limited regardless of how the requests are split between thread pools.
+	 * @param request the request to run
+	 * @return the result of the request
+	 * @throws IOException if the request fails or the wait is interrupted
+	 */
+	private <R> R callWithRequestLimit ( DataRequest<R> request ) throws IOException {
+		Semaphore limiter = this.requestLimiter;
+		if ( limiter == null ) {
+			return request.call();
+		}
+		try {
+			limiter.acquire();
+		}
+		catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			throw new IOException ( "Interrupted waiting to make a data request.", e );
+		}
+		try {
+			return request.call();
+		}
+		finally {
+			limiter.release();
+		}
+	}
+
+	/**
+	 * Check whether the session is older than the 'SessionMaxAgeMinutes' property and if so, authenticate again
+	 * so that the session does not expire during requests.
 	 */
 	private void checkTokenExpiration() {
-		/*
-		if ( this.token.isExpired() ) {
-			// Create a new token
-			createAuthenticationToken();
+		long generation = this.sessionGeneration;
+		if ( (this.client != null) && (this.sessionMaxAgeMs > 0)
+			&& ((System.currentTimeMillis() - this.sessionStartMs) > this.sessionMaxAgeMs) ) {
+			reauthenticate(generation, "session is older than " + (this.sessionMaxAgeMs/60000) + " minutes");
 		}
-		*/
+	}
+
+	/**
+	 * Configure the HTTP connections using the 'Compression', 'ConnectTimeoutMs', 'KeepAlive', and 'ReadTimeoutMs' properties.
+	 * The settings are applied to each connection (see ConnectionSettings) and therefore only apply to this datastore.
+	 */
+	private void configureConnections () {
+		String routine = getClass().getSimpleName() + ".configureConnections";
+		String prop = getProperty("ConnectTimeoutMs");
+		int connectTimeoutMs = DEFAULT_CONNECT_TIMEOUT_MS;
+		if ( (prop != null) && StringUtil.isInteger(prop.trim()) ) {
+			connectTimeoutMs = Math.max(0, Integer.parseInt(prop.trim()));
+		}
+		prop = getProperty("ReadTimeoutMs");
+		int readTimeoutMs = DEFAULT_READ_TIMEOUT_MS;
+		if ( (prop != null) && StringUtil.isInteger(prop.trim()) ) {
+			readTimeoutMs = Math.max(0, Integer.parseInt(prop.trim()));
+		}
+		prop = getProperty("Compression");
+		boolean compression = (prop == null) || !prop.equalsIgnoreCase("false");
+		prop = getProperty("KeepAlive");
+		boolean keepAlive = (prop == null) || !prop.equalsIgnoreCase("false");
+		this.connectionSettings = new ConnectionSettings(connectTimeoutMs, readTimeoutMs, compression, keepAlive);
+		this.requestLimiter = new Semaphore(getMaxConcurrentRequests(), true);
+		Message.printStatus(2, routine, "Connections: " + this.connectionSettings );
+	}
+
+	/**
+	 * Create a client and authenticate a session using the 'ServiceRootUrl', 'UserName', and 'Password' properties.
+	 * @return a connected client
+	 */
+	private AquariusClient connectClient () {
+    	String server = getProperty("ServiceRootUrl");
+        if ( (server != null) && server.endsWith("/") ) {
+        	// Remove the trailing / from the server.
+        	server = server.substring(0, (server.length() - 1));
+        }
+        AquariusClient client = AquariusClient.createConnectedClient(server, getProperty("UserName"), getProperty("Password"));
+        // Apply the connection settings to each SDK request connection, in addition to any filter used by the SDK:
+        // - don't request compression because the SDK reads the response
+        final ConnectionFilter sdkFilter = client.Publish.RequestFilter;
+        client.Publish.RequestFilter = connection -> {
+        	if ( sdkFilter != null ) {
+        		sdkFilter.exec(connection);
+        	}
+        	this.connectionSettings.configure(connection, false);
+        };
+        return client;
 	}
 
 	/**
@@ -338,12 +753,6 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
         if ( (server == null) || server.isEmpty() ) {
         	Message.printWarning(2,routine,"The datastore configuration ServiceRootUrl property is not defined.");
         }
-        else {
-        	// Remove the trailing / from the server.
-        	if ( server.endsWith("/") ) {
-        		server = server.substring(0, (server.length() - 1));
-        	}
-        }
         if ( (username == null) || username.isEmpty() ) {
         	Message.printWarning(2,routine,"The datastore configuration UserName property is not defined.");
         }
@@ -351,8 +760,17 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
         	Message.printWarning(2,routine,"The datastore configuration Password property is not defined.");
         }
 
+        // Configure the connections before the first request.
+        configureConnections();
+
+        String prop = getProperty("SessionMaxAgeMinutes");
+        if ( (prop != null) && StringUtil.isLong(prop.trim()) ) {
+        	this.sessionMaxAgeMs = Math.max(0, Long.parseLong(prop.trim()))*60000;
+        }
+
         try {
-        	this.client = AquariusClient.createConnectedClient(server, username, password);
+        	this.client = connectClient();
+        	this.sessionStartMs = System.currentTimeMillis();
         }
         catch ( Exception e ) {
         	Message.printWarning(2, routine, "There was an error creating the Aquarius client.");
@@ -381,6 +799,64 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
             */
     }
 
+	/**
+	 * Return the client for API requests, authenticating a new session first if the session is too old.
+	 * @return the client for API requests
+	 */
+	private AquariusClient getClient () {
+		checkTokenExpiration();
+		return this.client;
+	}
+
+	/**
+	 * Authenticate a new session and replace the client.
+	 * Only one thread authenticates: other threads that detect the expired session wait,
+	 * and then use the new client without authenticating again.
+	 * The previous client is closed after a delay because other threads may be using it (see scheduleClientClose()),
+	 * and requests that then fail because the session has expired are retried with the new client.
+	 * @param generation the session generation when the calling code got the client
+	 * @param reason the reason for authenticating, for logging
+	 * @return true if a new session is available, false if authentication failed
+	 */
+	private boolean reauthenticate ( long generation, String reason ) {
+		String routine = getClass().getSimpleName() + ".reauthenticate";
+		synchronized ( this.sessionLock ) {
+			if ( generation != this.sessionGeneration ) {
+				// Another thread has already authenticated.
+				return true;
+			}
+			Message.printStatus(2, routine, "Authenticating a new Aquarius session (" + reason + ").");
+			try {
+				AquariusClient newClient = connectClient();
+				AquariusClient oldClient = this.client;
+				this.client = newClient;
+				this.sessionStartMs = System.currentTimeMillis();
+				++this.reauthenticationCount;
+				this.sessionGeneration = generation + 1;
+				setPluginProperty("Session.ReauthenticationCount", "" + this.reauthenticationCount);
+				if ( oldClient != null ) {
+					scheduleClientClose(oldClient);
+				}
+				return true;
+			}
+			catch ( Exception e ) {
+				Message.printWarning(3, routine, "Error authenticating a new Aquarius session (" + e + ").");
+				Message.printWarning(3, routine, e );
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Create the cache used when location data are loaded lazily (LocationDataLoad=Lazy),
+	 * using the 'LocationDataConcurrency' property for background reads.
+	 * @return the location data cache
+	 */
+	private LocationDataCache createLocationDataCache () {
+		int concurrency = ConcurrencyUtil.parseConcurrency(getProperty("LocationDataConcurrency"), DEFAULT_LOCATION_DATA_CONCURRENCY);
+		return new LocationDataCache ( locationIdentifier -> readLocationData(locationIdentifier), concurrency );
+	}
+
 	/**
 	 * Create a time series input filter, used to initialize user interfaces.
 	 * @return a time series input filter for Aquarius time series catalog queries
@@ -406,26 +882,13 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
 	}
 
 	/**
-	 * Find a location data object given the location identifier.
-	 * @param locationDataList the list of location data to search
+	 * Find a location description object given the location identifier, using the index for the cached location descriptions.
 	 * @param locationIdentifier location identifier to match.
-	 * @return the location data that matches the requested location identifier, or null if not found
+	 * @return the location description that matches the requested location identifier, or null if not found
 	 */
-	private Publish.LocationDataServiceResponse findLocationDataForLocationIdentifier (
-		List<Publish.LocationDataServiceResponse> locationDataList, String locationIdentifier ) {
-		Publish.LocationDataServiceResponse foundLoc = null;
-		if ( locationIdentifier == null ) {
-			return null;
-		}
-		if ( locationDataList != null ) {
-			for ( Publish.LocationDataServiceResponse locationData : locationDataList ) {
-				if ( locationData.getIdentifier().equals(locationIdentifier) ) {
-					foundLoc = locationData;
-					break;
-				}
-			}
-		}
-		return foundLoc;
+	public LocationDescription findLocationDescriptionForLocationIdentifier ( String locationIdentifier ) {
+		waitForInitialization();
+		return this.globalData.globalDataIndex.findLocationDescription(locationIdentifier);
 	}
 
 	/**
@@ -450,29 +913,6 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
 		return foundLoc;
 	}
 
-	/**
-	 * Find a parameter metadata object the parameter.
-	 * @param parameterMetadataList the list of parameter metadata to search
-	 * @param parameterid parameter to match.
-	 * @return the parameter metadata object that matches the requested parameter , or null if not found
-	 */
-	private ParameterMetadata findParameterMetadataForParameter ( List<ParameterMetadata> parameterMetadataList, String parameter ) {
-		ParameterMetadata foundParam = null;
-		if ( parameter == null ) {
-			return null;
-		}
-		if ( parameterMetadataList != null ) {
-			for ( ParameterMetadata parameterMetadata: parameterMetadataList ) {
-				//if ( parameterMetadata.getIdentifier().equals(parameterId) ) {
-				if ( parameterMetadata.getIdentifier().equals(parameter) ) {
-					foundParam = parameterMetadata;
-					break;
-				}
-			}
-		}
-		return foundParam;
-	}
-
 	/**
 	 * Find a parameter metadata object the parameter identifier.
 	 * @param parameterMetadataList the list of parameter metadata to search
@@ -523,12 +963,105 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
 		}
 	}
 	
+	/**
+	 * Return the time in seconds after which the catalog snapshot is revalidated,
+	 * from the 'CatalogCacheTtl' configuration property.
+	 * @return the catalog snapshot time to live in seconds, at least 1
+	 */
+	private long getCatalogCacheTtlSeconds () {
+		long ttlSeconds = DEFAULT_CATALOG_CACHE_TTL_SECONDS;
+		String prop = getProperty("CatalogCacheTtl");
+		if ( (prop != null) && StringUtil.isLong(prop.trim()) ) {
+			ttlSeconds = Long.parseLong(prop.trim());
+		}
+		return Math.max(1, ttlSeconds);
+	}
+
+	/**
+	 * Return the catalog snapshot file for the datastore, which is specific to the server.
+	 * @return the catalog snapshot file
+	 */
+	private File getCatalogSnapshotFile () {
+		String server = getProperty("ServiceRootUrl");
+		if ( server == null ) {
+			server = "" + getServiceRootURI();
+		}
+		return CatalogSnapshot.getFileForServer(server);
+	}
+
+	/**
+	 * Return the time series that have changed (data or metadata) since a token,
+	 * using the GetTimeSeriesUniqueIdList service ChangesSinceToken.
+	 * The next token in the result can be used for the next request.
+	 * @param token the token from a previous request (NextToken) or a time on the server
+	 * @return the time series that have changed since the token
+	 * @throws IOException if the request fails
+	 */
+	public ChangedSeries getChangedSeriesSince ( Instant token ) throws IOException {
+		String routine = getClass().getSimpleName() + ".getChangedSeriesSince";
+		waitForInitialization();
+		Publish.TimeSeriesUniqueIdListServiceRequest request = new Publish.TimeSeriesUniqueIdListServiceRequest();
+		request.setChangesSinceToken(token);
+		Publish.TimeSeriesUniqueIdListServiceResponse response = callWithSession(c -> c.Publish.get(request));
+		boolean tokenExpired = Boolean.TRUE.equals(response.getTokenExpired());
+		Set<String> uniqueIds = new HashSet<>();
+		if ( response.getTimeSeriesUniqueIds() != null ) {
+			for ( TimeSeriesUniqueIds id : response.getTimeSeriesUniqueIds() ) {
+				uniqueIds.add(id.getUniqueId());
+			}
+		}
+		Message.printStatus(2, routine, uniqueIds.size() + " time series have changed since " + token
+			+ (tokenExpired ? " (token has expired)" : "") + ", next token is " + response.getNextToken() + "." );
+		return new ChangedSeries(token, response.getNextToken(), tokenExpired, uniqueIds);
+	}
+
+	/**
+	 * Return the time series that have changed since the earliest previous read that used a ChangedSeries,
+	 * used with the ReadAquarius command OnlyIfChangedSince=LastRead.
+	 * If no time series have been read, the changes since the current time are requested to determine the next token.
+	 * @return the time series that have changed since the earliest previous read
+	 * @throws IOException if the request fails
+	 */
+	public ChangedSeries getChangedSeriesSinceLastRead () throws IOException {
+		Instant token = null;
+		for ( PreviousRead previousRead : this.previousReadMap.values() ) {
+			if ( (token == null) || previousRead.token.isBefore(token) ) {
+				token = previousRead.token;
+			}
+		}
+		if ( token == null ) {
+			token = Instant.now();
+		}
+		return getChangedSeriesSince(token);
+	}
+
+	/**
+	 * Create the indexes and time series catalog for global data that have been read, before the global data are published.
+	 * @param data the global data, which are updated with the time series catalog and indexes
+	 */
+	private void createTimeSeriesCatalog ( GlobalData data ) {
+		String routine = getClass().getSimpleName() + ".createTimeSeriesCatalog";
+		if ( !data.globalDataIndex.isFor(data.locationDescriptionList, data.locationDataList, data.parameterMetadataList) ) {
+			data.globalDataIndex = new GlobalDataIndex(data.locationDescriptionList, data.locationDataList, data.parameterMetadataList);
+			setPluginProperty("GlobalData.Index.TimeMs", "" + data.globalDataIndex.getBuildTimeMs());
+			Message.printStatus(2, routine, "Indexed " + data.locationDescriptionList.size() + " location descriptions, "
+				+ data.locationDataList.size() + " location data, and " + data.parameterMetadataList.size() + " parameters in "
+				+ data.globalDataIndex.getBuildTimeMs() + " ms." );
+		}
+		data.tscatalogList = createTimeSeriesCatalog ( data, data.timeSeriesDescriptionList );
+		data.tscatalogIndex = new TimeSeriesCatalogIndex(data.tscatalogList);
+		setPluginProperty("TimeSeriesCatalog.Index.TimeMs", "" + data.tscatalogIndex.getBuildTimeMs());
+		Message.printStatus(2, routine, "Indexed " + data.tscatalogList.size() + " time series catalog entries in "
+			+ data.tscatalogIndex.getBuildTimeMs() + " ms." );
+	}
+
 	/**
 	 * Return the location description list.
 	 * @return the location description list
 	 */
 	public List<LocationDescription> getLocationDescriptionList () {
-		return this.locationDescriptionList;
+		waitForInitialization();
+		return this.globalData.locationDescriptionList;
 	}
 
 	/**
@@ -536,7 +1069,7 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
  	* A copy of the properties map is returned so that calling code cannot change the properties for the plugin.
  	* @return plugin properties map.
  	*/
-	public Map<String,Object> getPluginProperties () {
+	public synchronized Map<String,Object> getPluginProperties () {
 		Map<String,Object> pluginProperties = new LinkedHashMap<>();
 		// For now the properties are all strings so it is easy to copy.
     	for (Map.Entry<String, Object> entry : this.pluginProperties.entrySet()) {
@@ -547,44 +1080,220 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
 	}
 
 	/**
-	 * Get the statistic for a computational period.
-	 * @param compuatationalIdentifier the computational period identifier to evaluate
-	 * @return the statistic for a computational period, or an empty string if not used (for instantaneous values).
+	 * Return the future that completes when the datastore has been initialized,
+	 * which can be used to take action when initialization is complete (e.g., refresh UI choices).
+	 * @return the initialization future
 	 */
-	private String getStatisticForComputationIdentifier ( String computationIdentifier ) {
-		if ( computationIdentifier.equals("Unknown") || computationIdentifier.isEmpty() ) {
-			return "";
-		}
-		else {
-			return computationIdentifier;
-		}
+	public CompletableFuture<Void> getInitializationFuture () {
+		return this.initializationFuture;
 	}
 
 	/**
-	 * Return the list of time series catalog.
-	 * @param readData if false, return the global cached data, if true read the data and reset in the cache
+	 * Return the initialization status.
+	 * @return the initialization status: "Initializing", "Ready", or "Failed"
 	 */
-	public List<TimeSeriesCatalog> getTimeSeriesCatalog(boolean readData) {
-		if ( readData ) {
-			String dataTypeReq = null;
-			String dataIntervalReq = null;
-    		InputFilter_JPanel ifp = null;
-			this.tscatalogList = readTimeSeriesCatalog ( dataTypeReq, dataIntervalReq, ifp );
-		}
-		return this.tscatalogList;
+	public String getInitializationStatus () {
+		return this.initializationStatus;
 	}
 
 	/**
-	 * This version is required by TSTool UI.
-	 * Return the list of time series data interval strings.
-	 * @param dataType data type string to filter the list of data intervals.
-	 * If null, blank, or "*" the data type is not considered when determining the list of data intervals.
+	 * Return the point cache, creating it on first use if the 'PointCache' configuration property is true.
+	 * @return the point cache, or null if not used
 	 */
-	public List<String> getTimeSeriesDataIntervalStrings(String dataType) {
-		boolean includeWildcards = true;
-		return getTimeSeriesDataIntervalStrings(dataType, includeWildcards);
-	}
-
+	private synchronized PointCache getPointCache () {
+		String routine = getClass().getSimpleName() + ".getPointCache";
+		if ( !this.pointCacheChecked ) {
+			this.pointCacheChecked = true;
+			String prop = getProperty("PointCache");
+			if ( (prop != null) && prop.equalsIgnoreCase("true") ) {
+				long maxMB = DEFAULT_POINT_CACHE_MAX_MB;
+				prop = getProperty("PointCacheMaxMB");
+				if ( (prop != null) && StringUtil.isLong(prop.trim()) ) {
+					maxMB = Long.parseLong(prop.trim());
+				}
+				String server = getProperty("ServiceRootUrl");
+				if ( server == null ) {
+					server = "" + getServiceRootURI();
+				}
+				this.pointCache = new PointCache(PointCache.getFolderForServer(server), maxMB*1048576L);
+				Message.printStatus(2, routine, "Using point cache: " + this.pointCache.getStatisticsSummary());
+			}
+		}
+		return this.pointCache;
+	}
+
+	/**
+	 * Return the in-memory cache of points from previous reads that used a ChangedSeries (ReadAquarius OnlyIfChangedSince),
+	 * creating it the first time with the size from the 'ChangedSeriesCacheMaxMB' property.
+	 * @return the changed series cache, guaranteed to be non-null
+	 */
+	private synchronized DataCache getChangedSeriesCache () {
+		String routine = getClass().getSimpleName() + ".getChangedSeriesCache";
+		if ( this.changedSeriesCache == null ) {
+			long maxMB = DEFAULT_CHANGED_SERIES_CACHE_MAX_MB;
+			String prop = getProperty("ChangedSeriesCacheMaxMB");
+			if ( (prop != null) && StringUtil.isLong(prop.trim()) ) {
+				maxMB = Math.max(0, Long.parseLong(prop.trim()));
+			}
+			this.changedSeriesCache = new DataCache(maxMB*1048576L);
+			Message.printStatus(2, routine, "Using changed series cache: " + this.changedSeriesCache.getStatisticsSummary());
+		}
+		return this.changedSeriesCache;
+	}
+
+	/**
+	 * Return the in-memory data cache, creating it the first time if the 'DataCacheMaxMB' property is greater than zero.
+	 * @return the data cache, or null if not used
+	 */
+	private synchronized DataCache getDataCache () {
+		String routine = getClass().getSimpleName() + ".getDataCache";
+		if ( !this.dataCacheChecked ) {
+			this.dataCacheChecked = true;
+			String prop = getProperty("DataCacheMaxMB");
+			if ( (prop != null) && StringUtil.isLong(prop.trim()) && (Long.parseLong(prop.trim()) > 0) ) {
+				this.dataCache = new DataCache(Long.parseLong(prop.trim())*1048576L);
+				Message.printStatus(2, routine, "Using data cache: " + this.dataCache.getStatisticsSummary());
+			}
+		}
+		return this.dataCache;
+	}
+
+	/**
+	 * Return the period to read, using the default period if not specified and setting the time zone if not specified.
+	 * The default period is the last 30 days.
+	 * @param readStart start of read, or null to use the default
+	 * @param readEnd end of read, or null to use the default
+	 * @param timezone time zone to use if the read start or end does not specify a time zone
+	 * @return the read start and end, as new DateTime instances that can be modified
+	 */
+	private DateTime [] getReadPeriod ( DateTime readStart, DateTime readEnd, String timezone ) {
+		String routine = getClass().getSimpleName() + ".getReadPeriod";
+		// The default period if not specified is the last 30 days:
+		// - if hourly data observations are measured, 24x30 = 720 values will result, which is within the 1500 limit data point requests
+		// - maybe need to round, but can't really do with irregular time series?
+		if ( readEnd == null ) {
+			readEnd = new DateTime ( DateTime.DATE_CURRENT );
+			readEnd.setTimeZone(timezone);
+			Message.printStatus(2, routine, "Using default read end: " + readEnd );
+		}
+		else {
+			// Make sure that the time zone is set in a copy of the DateTime.
+			readEnd = new DateTime(readEnd);
+			if ( (readEnd.getTimeZoneAbbreviation() == null) || readEnd.getTimeZoneAbbreviation().isEmpty() ) {
+				// No time zone in the read end so use the override time zone.
+				readEnd.setTimeZone(timezone);
+				Message.printStatus(2, routine, "Using specified read end with default timezone: " + readEnd );
+			}
+			else {
+				Message.printStatus(2, routine, "Using specified read end with specified timezone: " + readEnd );
+			}
+		}
+		if ( readStart == null ) {
+			readStart = new DateTime ( DateTime.DATE_CURRENT );
+			readStart.setTimeZone(timezone);
+			readStart.addDay(-30);
+		}
+		else {
+			// Make sure that the time zone is set in a copy of the DateTime.
+			readStart = new DateTime(readStart);
+			if ( (readStart.getTimeZoneAbbreviation() == null) || readStart.getTimeZoneAbbreviation().isEmpty() ) {
+				// No time zone in the read start so use the override time zone.
+				readStart.setTimeZone(timezone);
+				Message.printStatus(2, routine, "Using specified read start with default timezone: " + readStart );
+			}
+			else {
+				Message.printStatus(2, routine, "Using specified read start with specified timezone: " + readStart );
+			}
+		}
+		return new DateTime [] { readStart, readEnd };
+	}
+
+	/**
+	 * Return the interval used to pad the read period, from the 'ReadPeriodPad' read property.
+	 * @param ReadPeriodPad the 'ReadPeriodPad' read property, "Interval" to pad by the data interval
+	 * (regular interval time series only) or an interval string (e.g., "15Minute")
+	 * @param dataInterval the time series data interval (e.g., "Day")
+	 * @param tsid the time series identifier, for messages
+	 * @return the interval used to pad the read period, or null if the read period is not padded
+	 */
+	private TimeInterval getReadPeriodPadInterval ( String ReadPeriodPad, String dataInterval, String tsid ) {
+		String routine = getClass().getSimpleName() + ".getReadPeriodPadInterval";
+		TimeInterval padInterval = null;
+		if ( (ReadPeriodPad != null) && !ReadPeriodPad.isEmpty() ) {
+			if ( ReadPeriodPad.equalsIgnoreCase("Interval") ) {
+				// Pad using the data interval, which is only defined for regular interval time series.
+				TimeInterval interval = TimeInterval.parseInterval(dataInterval);
+				if ( TimeInterval.isRegularInterval(interval.getBase()) ) {
+					padInterval = interval;
+				}
+				else {
+					Message.printWarning(3, routine, "ReadPeriodPad=Interval is ignored for irregular interval time series \""
+						+ tsid + "\" - specify an interval such as 15Minute.");
+				}
+			}
+			else {
+				padInterval = TimeInterval.parseInterval(ReadPeriodPad);
+			}
+		}
+		return padInterval;
+	}
+
+	/**
+	 * Return the maximum number of data requests that are run at the same time by the datastore,
+	 * from the 'MaxConcurrentRequests' configuration property.
+	 * @return the maximum number of data requests that are run at the same time, at least 1
+	 */
+	public int getMaxConcurrentRequests () {
+		return ConcurrencyUtil.parseConcurrency(getProperty("MaxConcurrentRequests"), DEFAULT_MAX_CONCURRENT_REQUESTS);
+	}
+
+	/**
+	 * Return the number of time series to read concurrently, from the 'ReadConcurrency' configuration property.
+	 * @return the number of time series to read concurrently, at least 1
+	 */
+	public int getReadConcurrency () {
+		return ConcurrencyUtil.parseConcurrency(getProperty("ReadConcurrency"), DEFAULT_READ_CONCURRENCY);
+	}
+
+	/**
+	 * Get the statistic for a computational period.
+	 * @param compuatationalIdentifier the computational period identifier to evaluate
+	 * @return the statistic for a computational period, or an empty string if not used (for instantaneous values).
+	 */
+	private String getStatisticForComputationIdentifier ( String computationIdentifier ) {
+		if ( computationIdentifier.equals("Unknown") || computationIdentifier.isEmpty() ) {
+			return "";
+		}
+		else {
+			return computationIdentifier;
+		}
+	}
+
+	/**
+	 * Return the list of time series catalog.
+	 * @param readData if false, return the global cached data, if true read the data and reset in the cache
+	 */
+	public List<TimeSeriesCatalog> getTimeSeriesCatalog(boolean readData) {
+		waitForInitialization();
+		if ( readData ) {
+			GlobalData data = this.globalData.copy();
+			createTimeSeriesCatalog ( data );
+			publishGlobalData ( data );
+		}
+		return this.globalData.tscatalogList;
+	}
+
+	/**
+	 * This version is required by TSTool UI.
+	 * Return the list of time series data interval strings.
+	 * @param dataType data type string to filter the list of data intervals.
+	 * If null, blank, or "*" the data type is not considered when determining the list of data intervals.
+	 */
+	public List<String> getTimeSeriesDataIntervalStrings(String dataType) {
+		boolean includeWildcards = true;
+		return getTimeSeriesDataIntervalStrings(dataType, includeWildcards);
+	}
+
 	/**
 	 * This version is required by TSTool UI.
 	 * Return the list of time series data interval strings.
@@ -805,6 +1514,73 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
     	return new Aquarius_TimeSeries_TableModel(this,(List<TimeSeriesCatalog>)data);
     }
 
+	/**
+	 * Initialize the datastore, called in a background thread from the constructor.
+	 * The client is created and global data are read.
+	 */
+	private void initialize () {
+		String routine = getClass().getSimpleName() + ".initialize";
+		long start = System.currentTimeMillis();
+		try {
+	        // Create the client that will be used for the session.
+	        createClient ();
+
+		    // Read global data used throughout the session:
+		    // - in particular a cache of the TimeSeriesCatalog used for further queries
+		    // - if a catalog snapshot file is available, use it and revalidate in the background
+
+		    Instant snapshotCreated = null;
+		    if ( isCatalogCacheEnabled() ) {
+		    	snapshotCreated = readCatalogSnapshot();
+		    }
+		    if ( snapshotCreated == null ) {
+		    	readGlobalData();
+		    }
+		    if ( isCatalogCacheEnabled() ) {
+		    	scheduleCatalogRefresh(snapshotCreated);
+		    }
+
+		    this.initializationStatus = "Ready";
+		}
+		catch ( Exception e ) {
+			this.initializationStatus = "Failed";
+			Message.printWarning(3, routine, "Error initializing datastore \"" + getName() + "\" (" + e + ")." );
+			Message.printWarning(3, routine, e );
+		}
+		long elapsedMs = System.currentTimeMillis() - start;
+		setPluginProperty("InitializationStatus", this.initializationStatus);
+		setPluginProperty("InitializationTimeMs", "" + elapsedMs);
+		Message.printStatus(2, routine, "Datastore \"" + getName() + "\" initialization status is "
+			+ this.initializationStatus + " after " + elapsedMs + " ms." );
+	}
+
+	/**
+	 * Indicate whether the catalog snapshot file is used, from the 'CatalogCache' configuration property.
+	 * @return true if the catalog snapshot is used (the default)
+	 */
+	private boolean isCatalogCacheEnabled () {
+		String prop = getProperty("CatalogCache");
+		return (prop == null) || !prop.trim().equalsIgnoreCase("False");
+	}
+
+	/**
+	 * Indicate whether the datastore has been initialized (whether successful or not).
+	 * @return true if initialization is complete
+	 */
+	public boolean isInitialized () {
+		return (this.initializationFuture == null) || this.initializationFuture.isDone();
+	}
+
+	/**
+	 * Indicate whether time series data points are parsed with the streaming decoder,
+	 * from the 'DataDecoder' configuration property.
+	 * @return true if the streaming decoder is used (the default), false if the SDK is used
+	 */
+	private boolean isStreamingDataDecoderEnabled () {
+		String prop = getProperty("DataDecoder");
+		return (prop == null) || !prop.trim().equalsIgnoreCase("SDK");
+	}
+
 	/**
 	 * Indicate whether the datastore provides a time series input filter.
 	 * This datastore does provide an input filter panel.
@@ -813,123 +1589,379 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
 		return true;
 	}
 
+	/**
+	 * Read the catalog snapshot file and use it to set the global data and create the time series catalog.
+	 * @return the time that the snapshot data were read from web services,
+	 * or null if the snapshot is not available or could not be read, in which case global data should be read
+	 */
+	private Instant readCatalogSnapshot () {
+		String routine = getClass().getSimpleName() + ".readCatalogSnapshot";
+		File file = getCatalogSnapshotFile();
+		if ( !file.exists() ) {
+			Message.printStatus(2, routine, "Catalog snapshot file does not exist: " + file );
+			setPluginProperty("CatalogCache.Status", "NotFound");
+			return null;
+		}
+		long start = System.currentTimeMillis();
+		CatalogSnapshot snapshot = null;
+		try {
+			snapshot = CatalogSnapshot.read(file);
+		}
+		catch ( Exception e ) {
+			Message.printWarning(3, routine, "Error reading catalog snapshot file \"" + file + "\" (" + e + ") - will read from web services." );
+			setPluginProperty("CatalogCache.Status", "Error");
+			return null;
+		}
+		String server = getProperty("ServiceRootUrl");
+		if ( (server != null) && !server.equals(snapshot.getServerUrl()) ) {
+			Message.printStatus(2, routine, "Catalog snapshot server \"" + snapshot.getServerUrl()
+				+ "\" does not match \"" + server + "\" - will read from web services." );
+			setPluginProperty("CatalogCache.Status", "ServerMismatch");
+			return null;
+		}
+		if ( snapshot.getCreated() == null ) {
+			setPluginProperty("CatalogCache.Status", "Error");
+			return null;
+		}
+
+		String locationDataLoad = getProperty("LocationDataLoad");
+		boolean locationDataLazy = (locationDataLoad != null) && locationDataLoad.equalsIgnoreCase("Lazy");
+		if ( !locationDataLazy && !snapshot.getLocationDataLoaded() ) {
+			// The snapshot was saved with LocationDataLoad=Lazy and does not include location data,
+			// which would result in blank elevation, latitude, and longitude.
+			Message.printStatus(2, routine, "Catalog snapshot does not include location data (saved with LocationDataLoad=Lazy)"
+				+ " - will read from web services." );
+			setPluginProperty("CatalogCache.Status", "NoLocationData");
+			return null;
+		}
+
+		// Set the global data from the snapshot.
+		GlobalData data = new GlobalData();
+		data.locationDescriptionList = snapshot.getLocationDescriptionList();
+		data.parameterMetadataList = snapshot.getParameterMetadataList();
+		data.timeSeriesUniqueIdList = snapshot.getTimeSeriesUniqueIdList();
+		data.timeSeriesDescriptionList = snapshot.getTimeSeriesDescriptionList();
+		data.timeSeriesChangesToken = snapshot.getChangesSinceToken();
+		if ( locationDataLazy ) {
+			data.locationDataList = new ArrayList<>();
+			data.locationDataCache = createLocationDataCache();
+		}
+		else {
+			data.locationDataCache = null;
+			data.locationDataList = snapshot.getLocationDataList();
+		}
+		long readMs = System.currentTimeMillis() - start;
+
+		readGlobalDataStage ( "TimeSeriesCatalog", "time series catalog list", () -> {
+			createTimeSeriesCatalog ( data );
+			return "Created " + data.tscatalogList.size() + " time series catalog from snapshot.";
+		});
+		publishGlobalData ( data );
+
+		long elapsedMs = System.currentTimeMillis() - start;
+		setPluginProperty("CatalogCache.Status", "Loaded");
+		setPluginProperty("CatalogCache.Created", "" + snapshot.getCreated());
+		setPluginProperty("CatalogCache.ReadTimeMs", "" + readMs);
+		setPluginProperty("CatalogCache.LoadTimeMs", "" + elapsedMs);
+		Message.printStatus(2, routine, "Read catalog snapshot for datastore \"" + getName() + "\" from \"" + file
+			+ "\" created " + snapshot.getCreated() + " (" + data.timeSeriesDescriptionList.size()
+			+ " time series, read " + readMs + " ms, total " + elapsedMs + " ms)." );
+		return snapshot.getCreated();
+	}
+
+	/**
+	 * Global data and the time series catalog and indexes that are created from the global data.
+	 * An instance is filled in when global data are read (the fields are set in the read threads and are used
+	 * after the threads are joined), and is then published by a single write to the 'globalData' field
+	 * (see publishGlobalData()), after which it is not modified.
+	 */
+	private static class GlobalData {
+		List<LocationDescription> locationDescriptionList = new ArrayList<>();
+		List<Publish.LocationDataServiceResponse> locationDataList = new ArrayList<>();
+		// Cache of location data that are read on first use, used when LocationDataLoad=Lazy, otherwise null.
+		LocationDataCache locationDataCache = null;
+		List<ParameterMetadata> parameterMetadataList = new ArrayList<>();
+		List<TimeSeriesUniqueIds> timeSeriesUniqueIdList = new ArrayList<>();
+		// Token returned with the time series unique ID list (NextToken),
+		// used to request only the time series that have changed (ChangesSinceToken) when the catalog is refreshed.
+		Instant timeSeriesChangesToken = null;
+		List<TimeSeriesDescription> timeSeriesDescriptionList = new ArrayList<>();
+		// Index for the location and parameter lists, used to join with time series descriptions.
+		GlobalDataIndex globalDataIndex = new GlobalDataIndex(locationDescriptionList, locationDataList, parameterMetadataList);
+		// Time series catalog, used to streamline creating lists for UI choices.
+		List<TimeSeriesCatalog> tscatalogList = new ArrayList<>();
+		// Index for the time series catalog, used to find time series for a TSID.
+		TimeSeriesCatalogIndex tscatalogIndex = new TimeSeriesCatalogIndex(tscatalogList);
+
+		/**
+		 * Return a copy of the global data, used to create new global data from the current global data.
+		 * The lists are shared and must therefore be replaced rather than modified in the copy.
+		 * @return a copy of the global data
+		 */
+		GlobalData copy () {
+			GlobalData data = new GlobalData();
+			data.locationDescriptionList = this.locationDescriptionList;
+			data.locationDataList = this.locationDataList;
+			data.locationDataCache = this.locationDataCache;
+			data.parameterMetadataList = this.parameterMetadataList;
+			data.timeSeriesUniqueIdList = this.timeSeriesUniqueIdList;
+			data.timeSeriesChangesToken = this.timeSeriesChangesToken;
+			data.timeSeriesDescriptionList = this.timeSeriesDescriptionList;
+			data.globalDataIndex = this.globalDataIndex;
+			data.tscatalogList = this.tscatalogList;
+			data.tscatalogIndex = this.tscatalogIndex;
+			return data;
+		}
+	}
+
+	/**
+	 * Publish global data so that they are used by other threads, replacing the previous global data.
+	 * The global data must not be modified after they are published.
+	 * @param data the global data, including the time series catalog and indexes
+	 */
+	private void publishGlobalData ( GlobalData data ) {
+		this.globalData = data;
+	}
+
 	/**
 	 * Read global data that should be kept in memory to increase performance.
-	 * This is called from the constructor.
+	 * This is called from initialize(), which runs in the background after the constructor,
+	 * and when the global data are revalidated (see scheduleCatalogRefresh()).
+	 * Independent requests are run concurrently and the time for each stage is saved in the plugin properties.
 	 * The following data are read and are available with get() methods:
 	 * <ul>
 	 * <li>TimeSeriesCatalog - cache used to find time series without re-requesting from the web service</li>
 	 * </ul>
 	 * If an error is detected, set on the datastore so that TSTool View / Datastores will show the error.
 	 * This is usually an issue with a misconfigured datastore.
+	 * If the global data have not been read (cold start), the data that were read are used even if some requests failed
+	 * so that the datastore can be used, but the time series changes token is not saved and the catalog snapshot is not written,
+	 * so that all global data are read again when revalidated.
+	 * If the global data are being revalidated and any request fails, the previous global data are kept.
 	 */
 	public void readGlobalData () {
 		String routine = getClass().getSimpleName() + ".readGlobalData";
 		Message.printWarning ( 2, routine, "Reading global data for datastore \"" + getName() + "\"." );
-
-		// Read the location description data.
-		
+		long start = System.currentTimeMillis();
+		this.globalDataErrorCount.set(0);
+		boolean coldStart = this.globalData.timeSeriesDescriptionList.isEmpty();
+		GlobalData data = new GlobalData();
+
+		// Read the data as a dependency graph so that independent requests overlap:
+		// - location descriptions, parameters, and time series unique IDs do not depend on other data
+		// - location data depend on location descriptions
+		// - time series descriptions depend on time series unique IDs
+		// - the time series catalog depends on all of the above
+		// - each stage's time is saved in the plugin properties
+
+		ExecutorService executor = ConcurrencyUtil.newDaemonThreadPool("aquarius-globaldata", 3);
 		try {
-			this.locationDescriptionList = readLocationDescriptionList();
-			Message.printStatus(2, routine, "Read " + this.locationDescriptionList.size() + " location descriptions." );
-		}
-		catch ( Exception e ) {
-			Message.printWarning(3, routine, "Error reading global location description list (" + e + ")");
-			Message.printWarning(3, routine, e );
-		}
+			// Read the location description data.
 
-		// Read the location data:
-		// - this requires separate calls for each location
-		
-		try {
-			this.locationDataList = readLocationDataList();
-			Message.printStatus(2, routine, "Read " + this.locationDataList.size() + " location data." );
+			CompletableFuture<Void> locationDescriptionFuture = CompletableFuture.runAsync ( () ->
+				readGlobalDataStage ( "LocationDescriptionList", "location description list", () -> {
+					data.locationDescriptionList = readLocationDescriptionList();
+					return "Read " + data.locationDescriptionList.size() + " location descriptions.";
+				}), executor );
+
+			// Read the parameter data.
+
+			CompletableFuture<Void> parameterMetadataFuture = CompletableFuture.runAsync ( () ->
+				readGlobalDataStage ( "ParameterList", "parameter metadata list", () -> {
+					data.parameterMetadataList = readParameterMetadataList();
+					return "Read " + data.parameterMetadataList.size() + " parameters.";
+				}), executor );
+
+			// Read the time series unique ID data.
+
+			CompletableFuture<Void> timeSeriesUniqueIdFuture = CompletableFuture.runAsync ( () ->
+				readGlobalDataStage ( "TimeSeriesUniqueIdList", "time series unique ID list", () -> {
+					Publish.TimeSeriesUniqueIdListServiceResponse response = readTimeSeriesUniqueIdList();
+					if ( response.getTimeSeriesUniqueIds() != null ) {
+						data.timeSeriesUniqueIdList = response.getTimeSeriesUniqueIds();
+					}
+					data.timeSeriesChangesToken = response.getNextToken();
+					return "Read " + data.timeSeriesUniqueIdList.size() + " time series unique IDs.";
+				}), executor );
+
+			// Read the location data after the location descriptions:
+			// - this requires separate calls for each location
+			// - if LocationDataLoad=Lazy, location data are read when first used (e.g., for elevation, latitude, and longitude)
+
+			CompletableFuture<Void> locationDataFuture = locationDescriptionFuture.thenRunAsync ( () ->
+				readGlobalDataStage ( "LocationData", "location data list", () -> {
+					String locationDataLoad = getProperty("LocationDataLoad");
+					if ( (locationDataLoad != null) && locationDataLoad.equalsIgnoreCase("Lazy") ) {
+						data.locationDataCache = createLocationDataCache();
+						return "LocationDataLoad=Lazy - location data will be read when first used.";
+					}
+					else {
+						data.locationDataList = readLocationDataList(data.locationDescriptionList);
+						return "Read " + data.locationDataList.size() + " location data.";
+					}
+				}), executor );
+
+			// Read the time series description data after the time series unique IDs:
+			// - a partial list is only allowed on a cold start, so that revalidation does not drop time series
+
+			CompletableFuture<Void> timeSeriesDescriptionFuture = timeSeriesUniqueIdFuture.thenRunAsync ( () ->
+				readGlobalDataStage ( "TimeSeriesDescriptionList", "time series description list", () -> {
+					data.timeSeriesDescriptionList = readAllTimeSeriesDescriptions(data.timeSeriesUniqueIdList, coldStart);
+					return "Read " + data.timeSeriesDescriptionList.size() + " time series descriptions.";
+				}), executor );
+
+			// Wait for all data needed by the catalog.
+			CompletableFuture.allOf(locationDataFuture, parameterMetadataFuture, timeSeriesDescriptionFuture).join();
 		}
-		catch ( Exception e ) {
-			Message.printWarning(3, routine, "Error reading global location data list (" + e + ")");
-			Message.printWarning(3, routine, e );
+		finally {
+			executor.shutdown();
 		}
 
-		// Read the parameter data.
-		
-		try {
-			this.parameterMetadataList = readParameterMetadataList();
-			Message.printStatus(2, routine, "Read " + this.parameterMetadataList.size() + " parameters." );
+		// The time series catalog COULD be used more throughout TSTool, such as when reading time series.
+		// However, the initial implementation of readTimeSeries reads the list each time.
+		// The cached list is used to create choices for the UI in order to ensure fast performance.
+		// Therefore the slowdown is only at TSTool startup.
+		if ( coldStart || (this.globalDataErrorCount.get() == 0) ) {
+			readGlobalDataStage ( "TimeSeriesCatalog", "time series catalog list", () -> {
+	    		// Create the catalog and indexes for all time series.
+				createTimeSeriesCatalog ( data );
+				return "Read " + data.tscatalogList.size() + " time series catalog.";
+			});
 		}
-		catch ( Exception e ) {
-			Message.printWarning(3, routine, "Error reading global parameter metadata list (" + e + ")");
-			Message.printWarning(3, routine, e );
+
+		int errorCount = this.globalDataErrorCount.get();
+		if ( !coldStart && (errorCount > 0) ) {
+			// Keep the previous global data and catalog rather than replacing with incomplete data.
+			long elapsedMs = System.currentTimeMillis() - start;
+			setPluginProperty("GlobalData.TotalTimeMs", "" + elapsedMs);
+			Message.printWarning(3, routine, "Global data for datastore \"" + getName() + "\" had " + errorCount
+				+ " errors - keeping the previous global data and time series catalog." );
+			return;
 		}
 
-		// Read the time series unique ID data.
-		
-		try {
-			this.timeSeriesUniqueIdList = readTimeSeriesUniqueIdList();
-			Message.printStatus(2, routine, "Read " + this.timeSeriesUniqueIdList.size() + " time series unique IDs." );
+		// Save the global data:
+		// - the token is only saved if all data were read, so that a partial catalog is fully read when revalidated
+		if ( errorCount > 0 ) {
+			data.timeSeriesChangesToken = null;
 		}
-		catch ( Exception e ) {
-			Message.printWarning(3, routine, "Error reading global time series unique ID list (" + e + ")");
-			Message.printWarning(3, routine, e );
+		publishGlobalData ( data );
+
+		long elapsedMs = System.currentTimeMillis() - start;
+		setPluginProperty("GlobalData.TotalTimeMs", "" + elapsedMs);
+		Message.printStatus(2, routine, "Read global data for datastore \"" + getName() + "\" in " + elapsedMs + " ms." );
+
+		// Save the catalog snapshot if all data were read successfully.
+		if ( isCatalogCacheEnabled() ) {
+			if ( (this.globalDataErrorCount.get() == 0) && !data.timeSeriesDescriptionList.isEmpty() ) {
+				writeCatalogSnapshot();
+			}
+			else {
+				Message.printStatus(2, routine, "Not saving the catalog snapshot because global data had errors or no time series." );
+			}
 		}
+	}
 
-		// Read the time series description data:
-		// - read this after other data
-		
+	/**
+	 * Read one stage of the global data, handling exceptions and recording the time for the stage.
+	 * @param stage the stage name, used for the plugin property "GlobalData.Stage.TimeMs"
+	 * @param description description of the data, used in messages
+	 * @param reader reads the data and returns a status message
+	 */
+	private void readGlobalDataStage ( String stage, String description, Callable<String> reader ) {
+		String routine = getClass().getSimpleName() + ".readGlobalDataStage";
+		long start = System.currentTimeMillis();
 		try {
-			this.timeSeriesDescriptionList = readTimeSeriesDescriptionList();
-			Message.printStatus(2, routine, "Read " + this.timeSeriesDescriptionList.size() + " time series descriptions." );
+			String message = reader.call();
+			Message.printStatus(2, routine, message + "  Time = " + (System.currentTimeMillis() - start) + " ms." );
 		}
 		catch ( Exception e ) {
-			Message.printWarning(3, routine, "Error reading global time series description list (" + e + ")");
+			this.globalDataErrorCount.incrementAndGet();
+			Message.printWarning(3, routine, "Error reading global " + description + " (" + e + ")");
 			Message.printWarning(3, routine, e );
 		}
+		setPluginProperty("GlobalData." + stage + ".TimeMs", "" + (System.currentTimeMillis() - start));
+	}
 
-		// The time series catalog COULD be used more throughout TSTool, such as when reading time series.
-		// However, the initial implementation of readTimeSeries reads the list each time.
-		// The cached list is used to create choices for the UI in order to ensure fast performance.
-		// Therefore the slowdown is only at TSTool startup.
+	/**
+ 	* Read the location data for a single location, used when location data are loaded lazily.
+ 	* @param locationIdentifier the location identifier
+ 	* @return the location data, or null if the location is not found
+ 	* @throws Exception if the read fails, so that the location can be read again later
+ 	*/
+	private Publish.LocationDataServiceResponse readLocationData ( String locationIdentifier ) throws Exception {
+		String routine = getClass().getSimpleName() + ".readLocationData";
 		try {
-    		String dataTypeReq = null;
-    		String dataIntervalReq = null;
-    		InputFilter_JPanel ifp = null;
-    		// Read the catalog for all time series.
-			this.tscatalogList = readTimeSeriesCatalog ( dataTypeReq, dataIntervalReq, ifp );
-			Message.printStatus(2, routine, "Read " + this.tscatalogList.size() + " time series catalog." );
+			Publish.LocationDataServiceRequest request = new Publish.LocationDataServiceRequest();
+			request.setLocationIdentifier(locationIdentifier);
+			return callWithSession(c -> c.Publish.get(request));
+		}
+		catch ( WebServiceException e ) {
+			if ( e.getStatusCode() == HttpURLConnection.HTTP_NOT_FOUND ) {
+				return null;
+			}
+			Message.printWarning ( 3, routine, "Exception reading location data for identifier \"" + locationIdentifier + "\" (" + e + ")." );
+			throw e;
 		}
 		catch ( Exception e ) {
-			Message.printWarning(3, routine, "Error reading global time series catalog list (" + e + ")");
-			Message.printWarning(3, routine, e );
+			Message.printWarning ( 3, routine, "Exception reading location data for identifier \"" + locationIdentifier + "\" (" + e + ")." );
+			throw e;
 		}
 	}
 
 	/**
- 	* Read the location data for a single objects.
- 	* @return a location data object
+ 	* Read the location data for a list of location descriptions.
+ 	* A separate request is needed for each location so requests are run concurrently,
+ 	* using the 'LocationDataConcurrency' and 'LocationDataTimeoutMs' configuration properties.
+ 	* Failures are summarized rather than logged for each location.
+ 	* @param locationDescriptionList the location descriptions for which to read location data
+ 	* @return the list of location data objects, in the same order as the location descriptions
  	*/
-	private List<Publish.LocationDataServiceResponse> readLocationDataList() throws IOException {
+	private List<Publish.LocationDataServiceResponse> readLocationDataList (
+		List<LocationDescription> locationDescriptionList ) throws IOException {
 		String routine = getClass().getSimpleName() + ".readLocationDataList";
-		
-        // Create the request.
-        Publish.LocationDataServiceRequest request = new Publish.LocationDataServiceRequest();
-
-        List<Publish.LocationDataServiceResponse> locationDataList = new ArrayList<>();
-        for ( LocationDescription locationDescription : this.locationDescriptionList ) {
-        	// Request the data.
-        	try {
-        		request.setLocationIdentifier(locationDescription.getIdentifier());
-        		Publish.LocationDataServiceResponse response = client.Publish.get(request);
+
+		int concurrency = ConcurrencyUtil.parseConcurrency(getProperty("LocationDataConcurrency"), DEFAULT_LOCATION_DATA_CONCURRENCY);
+		long timeoutMs = DEFAULT_LOCATION_DATA_TIMEOUT_MS;
+		String prop = getProperty("LocationDataTimeoutMs");
+		if ( (prop != null) && StringUtil.isLong(prop.trim()) ) {
+			timeoutMs = Long.parseLong(prop.trim());
+		}
+
+        // Create a request for each location:
+        // - an enclosing object is not returned
+        // - instead, the response has methods corresponding to Location data
+        // - therefore, just cache the list of responses
+        List<String> locationIdentifiers = new ArrayList<>(locationDescriptionList.size());
+        List<ConcurrentRequests.Request<Publish.LocationDataServiceResponse>> requests = new ArrayList<>(locationDescriptionList.size());
+        for ( LocationDescription locationDescription : locationDescriptionList ) {
+        	String locationIdentifier = locationDescription.getIdentifier();
+        	locationIdentifiers.add(locationIdentifier);
+        	requests.add ( () -> {
+        		Publish.LocationDataServiceRequest request = new Publish.LocationDataServiceRequest();
+        		request.setLocationIdentifier(locationIdentifier);
+        		return callWithSession(c -> c.Publish.get(request));
+        	});
+        }
+
+        // Run the requests.
+        ConcurrentRequests<Publish.LocationDataServiceResponse> concurrentRequests =
+        	new ConcurrentRequests<>("aquarius-locationdata", concurrency, timeoutMs);
+        List<Publish.LocationDataServiceResponse> responses = concurrentRequests.run(locationIdentifiers, requests);
+
+        List<Publish.LocationDataServiceResponse> locationDataList = new ArrayList<>(responses.size());
+        for ( Publish.LocationDataServiceResponse response : responses ) {
+        	if ( response != null ) {
         		locationDataList.add(response);
-        
-        		// An enclosing object is not returned:
-        		// - instead, the response has methods corresponding to Location data
-        		// - therefore, just cache the list of responses
-        	}
-        	catch ( Exception e ) {
-        		Message.printWarning ( 3, routine, "Exception reading location data for identifier \"" + locationDescription.getIdentifier() );
-        		Message.printWarning ( 3, routine, e );
         	}
         }
 
+		Message.printStatus ( 2, routine, "Read " + locationDataList.size() + " of " + requests.size() + " location data, "
+			+ concurrentRequests.getTimingSummary() + "." );
+		if ( concurrentRequests.getFailureCount() > 0 ) {
+			Message.printWarning ( 3, routine, "Error reading location data for " + concurrentRequests.getFailureCount()
+				+ " locations:\n" + concurrentRequests.getFailureSummary(20) );
+		}
+
 		return locationDataList;
 	}
 
@@ -944,7 +1976,7 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
         Publish.LocationDescriptionListServiceRequest request = new Publish.LocationDescriptionListServiceRequest();
 
         // Request the data.
-        Publish.LocationDescriptionListServiceResponse response = client.Publish.get(request);
+        Publish.LocationDescriptionListServiceResponse response = callWithSession(c -> c.Publish.get(request));
         
         List<LocationDescription> locationDescriptionList = response.getLocationDescriptions();
 
@@ -964,7 +1996,7 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
         Publish.ParameterListServiceRequest request = new Publish.ParameterListServiceRequest();
 
         // Request the data.
-        Publish.ParameterListServiceResponse response = client.Publish.get(request);
+        Publish.ParameterListServiceResponse response = callWithSession(c -> c.Publish.get(request));
         
         List<ParameterMetadata> parameterMetadataList = response.getParameters();
         
@@ -1005,13 +2037,27 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
      * @param readEnd end of read, will be set to 'periodEnd' service parameter.
      * @param readProperties additional properties to control the query:
      * <ul>
+     * <li> "DataApi" - "Corrected" (default) or "Raw" to indicate the data API to call</li>
+     * <li> "DataParts" - "PointsOnly" (default) to request only the data points,
+     *      or "All" to also request grades, approvals, qualifiers, and other metadata,
+     *      which are not currently used but increase the size of the response</li>
      * <li> "Debug" - if true, turn on debug for the query</li>
      * <li> "IrregularInterval" - irregular interval (e.g., "IrregHour" to use instead of TSID interval,
      *      where the TSID intervals corresponds to the web services.</li>
+     * <li> "ReadPeriodPad" - "Interval" to pad the read period by one data interval (regular interval time series only),
+     *      or an interval string (e.g., "15Minute") to pad the read period by the interval,
+     *      for example to read values on each side of the period for interpolation</li>
+     * <li> "ReadWindow" - an interval string (e.g., "1Year") to split the read period into windows
+     *      that are read concurrently, for example to read a long period of record</li>
      * <li> "Read24HourAsDay" - string "false" (default) or "true" indicating whether 24Hour interval time series
      *      should be output as 1Day time series.</li>
      * <li> "ReadDayAs24Hour" - string "false" (default) or "true" indicating whether day interval time series
      *      should be output as 24Hour time series.</li>
+     * <li> "ChangedSeries" - ChangedSeries from getChangedSeriesSince(), in which case the points from the previous read
+     *      of the time series in the session are used if the time series has not changed and the previous read
+     *      includes the start of the read period, and the points are saved for later reads</li>
+     * <li> "TimeSeriesPoints" - TimeSeriesPointArrays containing the data points that were already read
+     *      for the time series and read period (see readTimeAlignedData()), in which case the points are not read again</li>
      * <li> "Timezone" - timezone such as "America/Denver" to convert from Aquarius UTC
      * </ul>
      * @return the time series or null if not read
@@ -1024,7 +2070,7 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
     	HashMap<String,Object> readProperties
     	) throws Exception {
     	String routine = getClass().getSimpleName() + ".readTimeSeries";
-		checkTokenExpiration();
+		waitForInitialization();
 		
     	// Get the properties of interest:
     	// - corresponds to parameters in the ReadAquarius command
@@ -1039,6 +2085,11 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
     		// Have a data API to call.
     		dataApi = (String)object;
     	}
+    	object = readProperties.get("DataParts");
+    	String dataParts = "PointsOnly"; // Default.
+    	if ( (object != null) && !((String)object).isEmpty() ) {
+    		dataParts = (String)object;
+    	}
     	String IrregularInterval = null;
     	TimeInterval irregularInterval = null;
     	//boolean read24HourAsDay = false;
@@ -1048,6 +2099,16 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
     		IrregularInterval = (String)object;
     		irregularInterval = TimeInterval.parseInterval(IrregularInterval);
     	}
+    	String ReadPeriodPad = null;
+    	object = readProperties.get("ReadPeriodPad");
+    	if ( object != null ) {
+    		ReadPeriodPad = (String)object;
+    	}
+    	TimeInterval readWindow = null;
+    	object = readProperties.get("ReadWindow");
+    	if ( (object != null) && !((String)object).isEmpty() ) {
+    		readWindow = TimeInterval.parseInterval((String)object);
+    	}
     	/*
     	object = readProperties.get("Read24HourAsDay");
     	if ( object != null ) {
@@ -1077,43 +2138,9 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
     	Message.printStatus(2, routine, "Default timezone for output is \"" + timezone +
     		"\" (will be used if requested input period does not specify time zone and TimeZone parameter is not specified).");
 
-		// The default period if not specified is the last 30 days:
-		// - if hourly data observations are measured, 24x30 = 720 values will result, which is within the 1500 limit data point requests
-		// - maybe need to round, but can't really do with irregular time series?
-		if ( readEnd == null ) {
-			readEnd = new DateTime ( DateTime.DATE_CURRENT );
-			readEnd.setTimeZone(timezone);
-			Message.printStatus(2, routine, "Using default read end: " + readEnd );
-		}
-		else {
-			// Make sure that the time zone is set in a copy of the DateTime.
-			readEnd = new DateTime(readEnd);
-			if ( (readEnd.getTimeZoneAbbreviation() == null) || readEnd.getTimeZoneAbbreviation().isEmpty() ) {
-				// No time zone in the read end so use the override time zone.
-				readEnd.setTimeZone(timezone);
-				Message.printStatus(2, routine, "Using specified read end with default timezone: " + readEnd );
-			}
-			else {
-				Message.printStatus(2, routine, "Using specified read end with specified timezone: " + readEnd );
-			}
-		}
-		if ( readStart == null ) {
-			readStart = new DateTime ( DateTime.DATE_CURRENT );
-			readStart.setTimeZone(timezone);
-			readStart.addDay(-30);
-		}
-		else {
-			// Make sure that the time zone is set in a copy of the DateTime.
-			readStart = new DateTime(readStart);
-			if ( (readStart.getTimeZoneAbbreviation() == null) || readStart.getTimeZoneAbbreviation().isEmpty() ) {
-				// No time zone in the read start so use the override time zone.
-				readStart.setTimeZone(timezone);
-				Message.printStatus(2, routine, "Using specified read start with default timezone: " + readStart );
-			}
-			else {
-				Message.printStatus(2, routine, "Using specified read start with specified timezone: " + readStart );
-			}
-		}
+		DateTime [] readPeriod = getReadPeriod ( readStart, readEnd, timezone );
+		readStart = readPeriod[0];
+		readEnd = readPeriod[1];
 
 		// Set the zone ID here after checks on the read period and Timezone property:
 		// - the read start timezone should be OK by here
@@ -1133,10 +2160,14 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
    		// Use Aquarius time series identifier parts to match a time series in the catalog:
    		// - station_no.stationparamer_no-ts_shortname
    		// - if necessary: station_no.'stationparamer_no'-'ts_shortname'
-   		List<TimeSeriesCatalog> tscatalogReqList = TimeSeriesCatalog.findForTSIdent ( this.tscatalogList, tsidentReq );
+   		// - use the index rather than searching the catalog list
+   		// - use the same global data for the index and catalog because the global data may be replaced by a background refresh
+   		GlobalData globalData = this.globalData;
+   		List<TimeSeriesCatalog> tscatalogList = globalData.tscatalogList;
+   		List<TimeSeriesCatalog> tscatalogReqList = globalData.tscatalogIndex.findForTSIdent ( tsidentReq );
    		if ( tscatalogReqList.size() == 0 ) {
    			// Did not match any time series.
-   			throw new RuntimeException ( "No time series catalog found matching TSID = \"" + tsidentReq + "\" in " + this.tscatalogList.size() + " tscatalog.");
+   			throw new RuntimeException ( "No time series catalog found matching TSID = \"" + tsidentReq + "\" in " + tscatalogList.size() + " tscatalog.");
    		}
    		else if ( tscatalogReqList.size() > 1 ) {
    			// Matched more than one time series so identifier information is not unique.
@@ -1226,23 +2257,41 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
     	if ( readData ) {
     		// Also read the time series values.
     		String timeSeriesUniqueId = tscatalog.getTimeSeriesDescriptionUniqueId();
-    		// Read the time series object, which has methods to retreive data points and other ata.
-    		TimeSeriesDataServiceResponse timeSeries = readTimeSeriesData ( dataApi, timeSeriesUniqueId, readStart, readEnd );
+    		// Determine the interval used to pad the read period, if requested.
+    		TimeInterval padInterval = getReadPeriodPadInterval ( ReadPeriodPad, tscatalog.getDataInterval(), tsidReq );
+    		// Read the data points, which are stored in arrays of UTC epoch milliseconds and values,
+    		// unless the points were already read (e.g., in a time-aligned request for many time series).
+    		TimeSeriesPointArrays points = null;
+    		object = readProperties.get("TimeSeriesPoints");
+    		if ( object instanceof TimeSeriesPointArrays ) {
+    			points = (TimeSeriesPointArrays)object;
+    			Message.printStatus(2, routine, "Using " + points.size() + " points that were already read for time series \""
+    				+ tsidReq + "\".");
+    		}
+    		else {
+    			object = readProperties.get("ChangedSeries");
+    			ChangedSeries changedSeries = (object instanceof ChangedSeries) ? (ChangedSeries)object : null;
+    			points = readTimeSeriesData ( dataApi, dataParts, timeSeriesUniqueId,
+    				tscatalog.getTimeSeriesDescriptionLastModified(), changedSeries, readStart, readEnd, padInterval, readWindow );
+    		}
     		
     		// The data are ordered with oldest first.
     		
-    		List<TimeSeriesPoint> pointList = timeSeries.getPoints();
-
-    		if ( pointList.size() > 0 ) {
+    		int pointCount = points.size();
+    		// Set the number of points that were read, which indicates the amount of data that was transferred.
+    		ts.setProperty("data.pointCount", Integer.valueOf(pointCount));
+
+    		if ( pointCount > 0 ) {
+    			long [] times = points.getTimes();
+    			double [] values = points.getValues();
+    			// Convert timestamps using a single DateTime cursor:
+    			// - the cursor is reused so copy it when the DateTime is retained
+    			EpochDateTimeConverter converter = new EpochDateTimeConverter(zoneId);
     			// Set the period based on data from the first and last values:
     			// - this values may be adjusted below
-    			//ts.setDate1(dataList.get(0).getTimestampAsDateTime(zoneOffset));
-    			Instant instant1 = pointList.get(0).getTimestamp().getDateTimeOffset();
-    			ts.setDate1(TimeUtil.ofInstant(instant1, zoneId));
+    			ts.setDate1(new DateTime(converter.toDateTime(times[0])));
     			ts.setDate1Original(ts.getDate1());
-    			//ts.setDate2(dataList.get(dataList.size() - 1).getTimestampAsDateTime(zoneOffset));
-    			Instant instant2 = pointList.get(pointList.size() - 1).getTimestamp().getDateTimeOffset();
-    			ts.setDate2(TimeUtil.ofInstant(instant2, zoneId));
+    			ts.setDate2(new DateTime(converter.toDateTime(times[pointCount - 1])));
     			ts.setDate2Original(ts.getDate2());
 
     			// Allocate the time series data array:
@@ -1251,11 +2300,12 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
     			ts.allocateDataSpace();
 
     			// Loop through the data values and set the data.
-    			for ( TimeSeriesPoint point : pointList ) {
-    				//DateTime dt = data.getTimestampAsDateTime ( zoneOffset );
-    				Instant instant = point.getTimestamp().getDateTimeOffset();
-    				DateTime dt = TimeUtil.ofInstant(instant, zoneId);
-    				ts.setDataValue(dt, point.getValue().getNumeric());
+    			for ( int i = 0; i < pointCount; i++ ) {
+    				ts.setDataValue(converter.toDateTime(times[i]), values[i]);
+    			}
+    			if ( Message.isDebugOn ) {
+    				Message.printStatus(2, routine, "Converted " + pointCount + " timestamps to " + zoneId + " with "
+    					+ converter.getOffsetLookupCount() + " time zone offset lookups.");
     			}
 
     			/*
@@ -1295,102 +2345,597 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
     }
 
 	/**
- 	* Read a single Aquarius time series.
+ 	* Read the data points for many regular interval time series using the time-aligned data service,
+ 	* which returns the points for many time series in one request, rather than one request per time series.
+ 	* The catalog entries are grouped by data interval and each group is requested in batches
+ 	* (see the 'TimeAlignedBatchSize' and 'TimeAlignedTimeoutMs' configuration properties),
+ 	* with batches requested concurrently.
+ 	* The time-aligned service only provides corrected data and does not use read windows,
+ 	* so the points for time series that are not returned, for example irregular interval time series
+ 	* or time series in a failed batch, should be read individually with readTimeSeries().
+ 	* The returned points can be passed to readTimeSeries() using the 'TimeSeriesPoints' read property.
+ 	* @param tscatalogList the catalog entries for the time series to read
+ 	* @param readStart start of read, or null to use the default (same as readTimeSeries())
+ 	* @param readEnd end of read, or null to use the default (same as readTimeSeries())
+ 	* @param readProperties the same read properties that will be passed to readTimeSeries(),
+ 	* of which 'DataApi', 'ReadPeriodPad', and 'Timezone' are used
+ 	* @param concurrency the number of requests to run concurrently, or 0 to use the 'ReadConcurrency' configuration property
+ 	* @return a map of time series unique identifier to data points, for the time series that were read,
+ 	* guaranteed to be non-null
+ 	*/
+	public Map<String,TimeSeriesPointArrays> readTimeAlignedData ( List<TimeSeriesCatalog> tscatalogList,
+		DateTime readStart, DateTime readEnd, HashMap<String,Object> readProperties, int concurrency ) {
+		String routine = getClass().getSimpleName() + ".readTimeAlignedData";
+		waitForInitialization();
+
+		Map<String,TimeSeriesPointArrays> pointsMap = new HashMap<>();
+		if ( readProperties == null ) {
+			readProperties = new HashMap<>();
+		}
+		Object object = readProperties.get("DataApi");
+		if ( (object != null) && ((String)object).equalsIgnoreCase("Raw") ) {
+			Message.printWarning(3, routine, "The time-aligned data service does not provide 'Raw' data - "
+				+ "time series will be read individually.");
+			return pointsMap;
+		}
+		String ReadPeriodPad = (String)readProperties.get("ReadPeriodPad");
+		String timezone = ZoneId.systemDefault().toString();
+		object = readProperties.get("Timezone");
+		if ( object != null ) {
+			timezone = (String)object;
+		}
+		// Use the same period as readTimeSeries() so that the points are the same as if read individually.
+		DateTime [] readPeriod = getReadPeriod ( readStart, readEnd, timezone );
+
+		int batchSize = DEFAULT_TIME_ALIGNED_BATCH_SIZE;
+		String prop = getProperty("TimeAlignedBatchSize");
+		if ( (prop != null) && StringUtil.isInteger(prop.trim()) && (Integer.parseInt(prop.trim()) > 0) ) {
+			batchSize = Integer.parseInt(prop.trim());
+		}
+		long timeoutMs = DEFAULT_TIME_ALIGNED_TIMEOUT_MS;
+		prop = getProperty("TimeAlignedTimeoutMs");
+		if ( (prop != null) && StringUtil.isLong(prop.trim()) ) {
+			timeoutMs = Long.parseLong(prop.trim());
+		}
+
+		// Group the regular interval time series by interval:
+		// - the interval determines the padded read period
+		Map<String,List<TimeSeriesCatalog>> intervalMap = new LinkedHashMap<>();
+		int irregularCount = 0;
+		for ( TimeSeriesCatalog tscatalog : tscatalogList ) {
+			String dataInterval = tscatalog.getDataInterval();
+			TimeInterval interval = null;
+			try {
+				interval = TimeInterval.parseInterval(dataInterval);
+			}
+			catch ( Exception e ) {
+				// Handled below.
+			}
+			if ( (interval == null) || !TimeInterval.isRegularInterval(interval.getBase()) ) {
+				++irregularCount;
+				continue;
+			}
+			intervalMap.computeIfAbsent(dataInterval.toUpperCase(), key -> new ArrayList<>()).add(tscatalog);
+		}
+		if ( irregularCount > 0 ) {
+			Message.printStatus(2, routine, "Time-aligned data are not read for " + irregularCount
+				+ " irregular interval time series - will be read individually.");
+		}
+
+		// Create a request for each batch.
+		List<String> labels = new ArrayList<>();
+		List<ConcurrentRequests.Request<Map<String,TimeSeriesPointArrays>>> requests = new ArrayList<>();
+		for ( List<TimeSeriesCatalog> intervalList : intervalMap.values() ) {
+			TimeSeriesCatalog first = intervalList.get(0);
+			TimeInterval padInterval = getReadPeriodPadInterval ( ReadPeriodPad, first.getDataInterval(), first.getTsId() );
+			DateTime queryStart = new DateTime(readPeriod[0]);
+			DateTime queryEnd = new DateTime(readPeriod[1]);
+			if ( padInterval != null ) {
+				queryStart.addInterval(padInterval.getBase(), -padInterval.getMultiplier());
+				queryEnd.addInterval(padInterval.getBase(), padInterval.getMultiplier());
+			}
+			Instant queryFrom = TimeUtil.toInstant(queryStart);
+			Instant queryTo = TimeUtil.toInstant(queryEnd);
+			for ( int iStart = 0; iStart < intervalList.size(); iStart += batchSize ) {
+				List<String> uniqueIds = new ArrayList<>(batchSize);
+				for ( TimeSeriesCatalog tscatalog : intervalList.subList(iStart, Math.min(iStart + batchSize, intervalList.size())) ) {
+					uniqueIds.add(tscatalog.getTimeSeriesDescriptionUniqueId());
+				}
+				labels.add(first.getDataInterval() + " batch " + (iStart/batchSize + 1) + " (" + uniqueIds.size() + " time series)");
+				requests.add ( () -> readTimeAlignedDataBatch ( uniqueIds, queryFrom, queryTo ) );
+			}
+		}
+		if ( requests.isEmpty() ) {
+			return pointsMap;
+		}
+
+		if ( concurrency <= 0 ) {
+			concurrency = getReadConcurrency();
+		}
+		Message.printStatus(2, routine, "Reading time-aligned data for " + (tscatalogList.size() - irregularCount)
+			+ " time series using " + requests.size() + " requests, " + concurrency + " concurrent requests.");
+		ConcurrentRequests<Map<String,TimeSeriesPointArrays>> concurrentRequests =
+			new ConcurrentRequests<>("aquarius-timealigned", concurrency, timeoutMs);
+		List<Map<String,TimeSeriesPointArrays>> results = concurrentRequests.run(labels, requests);
+		for ( Map<String,TimeSeriesPointArrays> result : results ) {
+			if ( result != null ) {
+				pointsMap.putAll(result);
+			}
+		}
+		Message.printStatus ( 2, routine, "Read time-aligned data for " + pointsMap.size() + " time series, "
+			+ concurrentRequests.getTimingSummary() + "." );
+		if ( concurrentRequests.getFailureCount() > 0 ) {
+			Message.printWarning ( 3, routine, "Error reading time-aligned data for " + concurrentRequests.getFailureCount()
+				+ " requests (time series will be read individually):\n" + concurrentRequests.getFailureSummary(20) );
+		}
+		return pointsMap;
+	}
+
+	/**
+	 * Read the data points for a batch of time series with one time-aligned data request.
+	 * @param timeSeriesUniqueIds the time series unique identifiers to read
+	 * @param queryFrom the start of the period to read (inclusive)
+	 * @param queryTo the end of the period to read (inclusive)
+	 * @return a map of time series unique identifier to data points, for all the requested time series
+	 * @throws IOException if the request fails or the response does not include all the requested time series
+	 */
+	private Map<String,TimeSeriesPointArrays> readTimeAlignedDataBatch ( List<String> timeSeriesUniqueIds,
+		Instant queryFrom, Instant queryTo ) throws IOException {
+		TimeAlignedDataServiceRequest request = new Publish.TimeAlignedDataServiceRequest();
+		request.setTimeSeriesUniqueIds(new ArrayList<>(timeSeriesUniqueIds));
+		request.setQueryFrom(queryFrom);
+		request.setQueryTo(queryTo);
+		// Gap markers would be added as points without values.
+		request.setIncludeGapMarkers(false);
+		Map<String,TimeSeriesPointArrays> pointsMap = callWithRequestLimit ( () -> {
+			HttpURLConnection connection = openServiceConnection ( request );
+			try ( InputStream in = ConnectionSettings.getInputStream(connection) ) {
+				return TimeSeriesPointArrays.parseTimeAligned(in);
+			}
+			finally {
+				connection.disconnect();
+			}
+		});
+		for ( String timeSeriesUniqueId : timeSeriesUniqueIds ) {
+			if ( !pointsMap.containsKey(timeSeriesUniqueId) ) {
+				throw new IOException("Time-aligned data response does not include time series unique ID \""
+					+ timeSeriesUniqueId + "\".");
+			}
+		}
+		return pointsMap;
+	}
+
+	/**
+ 	* Read the data points for a single Aquarius time series.
+ 	* The read period is passed to the service as QueryFrom and QueryTo so that only the requested points are returned.
+ 	* If a read window is specified, the period is split into windows that are read concurrently
+ 	* (see readTimeSeriesDataWindows()).
+ 	* If the 'PointCache' configuration property is true, the points are saved in the point cache
+ 	* and later reads of the time series only request the points after the last cached point (see PointCache).
+ 	* If the 'DataCacheMaxMB' configuration property is greater than zero, the points are kept in memory
+ 	* and later reads of the same or a shorter period in the session use the points without a request (see DataCache).
+ 	* If the same points are being read by another thread, the other thread's result is used rather than making another request,
+ 	* in which case the returned points are shared and must not be modified.
  	* @param dataApi which API to use, either 'Raw' or 'Corrected' (default).
+ 	* @param dataParts the parts of the response to request, either 'PointsOnly' or 'All',
+ 	* passed to the service as GetParts ('All' if null or empty)
  	* @param timeSeriesUniqueId the time series unique identifier to read
- 	* @param readStart the starting date/time to read
- 	* @param readEnd the ending date/time to read
- 	* @return the requested time series response (call its methods to get necessary data)
+ 	* @param lastModified the time series description LastModified, used to check whether cached points are current,
+ 	* or null to not use the point cache
+ 	* @param changedSeries if not null, the time series that have changed, used to reuse the points from the previous read
+ 	* in the session if the time series has not changed, and the points are saved for later reads
+ 	* @param readStart the starting date/time to read, or null to read from the start of the time series
+ 	* @param readEnd the ending date/time to read, or null to read to the end of the time series
+ 	* @param padInterval if not null, the interval used to pad the read period on each end,
+ 	* for example so that values on each side of the period are available for interpolation
+ 	* @param readWindow if not null, the interval used to split the read period into windows
+ 	* @return the data points, guaranteed to be non-null
  	*/
-	private TimeSeriesDataServiceResponse readTimeSeriesData ( String dataApi, String timeSeriesUniqueId, DateTime readStart, DateTime readEnd ) throws IOException {
-		String routine = getClass().getSimpleName() + ".readTimeSeries";
-		
-		// The response is apparently the same no matter what.
-		TimeSeriesDataServiceResponse response = null;
+	private TimeSeriesPointArrays readTimeSeriesData ( String dataApi, String dataParts, String timeSeriesUniqueId,
+		Instant lastModified, ChangedSeries changedSeries, DateTime readStart, DateTime readEnd,
+		TimeInterval padInterval, TimeInterval readWindow ) throws IOException {
+		String routine = getClass().getSimpleName() + ".readTimeSeriesData";
+		// Determine the query period:
+		// - make copies so that the calling code's period is not modified
+		DateTime queryStart = null;
+		DateTime queryEnd = null;
+		if ( readStart != null ) {
+			queryStart = new DateTime(readStart);
+			if ( padInterval != null ) {
+				queryStart.addInterval(padInterval.getBase(), -padInterval.getMultiplier());
+			}
+		}
+		if ( readEnd != null ) {
+			queryEnd = new DateTime(readEnd);
+			if ( padInterval != null ) {
+				queryEnd.addInterval(padInterval.getBase(), padInterval.getMultiplier());
+			}
+		}
+
+		// Only the points are used to set the time series data so by default request only the points:
+		// - the service default is 'All', which includes grades, approvals, qualifiers, methods, etc.
+		String getParts = ((dataParts != null) && !dataParts.isEmpty() && !dataParts.equalsIgnoreCase("All")) ? dataParts : null;
+		boolean isRaw = (dataApi != null) && dataApi.equalsIgnoreCase("Raw");
+
+		Instant queryFrom = (queryStart == null) ? null : TimeUtil.toInstant(queryStart);
+		Instant queryTo = (queryEnd == null) ? null : TimeUtil.toInstant(queryEnd);
+		String dataKey = timeSeriesUniqueId + "|" + (isRaw ? "Raw" : "Corrected") + "|" + getParts;
+
+		boolean usePreviousRead = (changedSeries != null) && (queryFrom != null) && (queryTo != null);
+		if ( usePreviousRead ) {
+			// Use the points from the previous read if the time series has not changed and the previous read included the period:
+			// - if the previous read extended to the time of the read, later points would have been reported as a change,
+			//   so the previous points are complete to the end of the period
+			// - the points may have been removed from the changed series cache, in which case the data are read
+			PreviousRead previousRead = this.previousReadMap.get(dataKey);
+			long fromMs = queryFrom.toEpochMilli();
+			long toMs = queryTo.toEpochMilli();
+			if ( (previousRead != null) && (fromMs >= previousRead.fromMs)
+				&& ((toMs <= previousRead.toMs) || (previousRead.toMs >= previousRead.token.toEpochMilli()))
+				&& changedSeries.isUnchangedSince(timeSeriesUniqueId, previousRead.token) ) {
+				TimeSeriesPointArrays previousPoints = getChangedSeriesCache().get ( dataKey, lastModified,
+					fromMs, Math.min(toMs, previousRead.toMs) );
+				if ( previousPoints != null ) {
+					Message.printStatus(2, routine, "Time series unique ID \"" + timeSeriesUniqueId + "\" has not changed since "
+						+ previousRead.token + " - using the points from the previous read.");
+					return previousPoints;
+				}
+			}
+		}
 
-		if ( (dataApi != null) && dataApi.equalsIgnoreCase("Raw") ) {
-			// Read raw data.
-			// Create the request.
-			TimeSeriesDataRawServiceRequest request = new Publish.TimeSeriesDataRawServiceRequest();
-			request.setTimeSeriesUniqueId(timeSeriesUniqueId);
+		// Use the points in memory if the same or a longer period was read in the session.
+		TimeSeriesPointArrays points = null;
+		DataCache dataCache = getDataCache();
+		if ( (dataCache != null) && (queryFrom != null) && (queryTo != null) ) {
+			points = dataCache.get ( dataKey, lastModified, queryFrom.toEpochMilli(), queryTo.toEpochMilli() );
+			setPluginProperty("DataCache.Statistics", dataCache.getStatisticsSummary());
+			if ( (points != null) && Message.isDebugOn ) {
+				Message.printStatus(2, routine, "Using the points in memory for time series unique ID \""
+					+ timeSeriesUniqueId + "\".");
+			}
+		}
 
-			// Request the data.
-			Message.printStatus(2, routine, "Reading time series data using the 'Raw' API service.");
-			response = client.Publish.get(request);
+		if ( points == null ) {
+			// Read the points:
+			// - if the same points are being read by another thread, share the result rather than making another request
+			// - the shared points must not be modified
+			String readKey = dataKey + "|" + queryFrom + "|" + queryTo;
+			final DateTime queryStartFinal = queryStart;
+			final DateTime queryEndFinal = queryEnd;
+			long sharedCount = this.inFlightDataReads.getSharedCount();
+			points = this.inFlightDataReads.run ( readKey,
+				() -> readTimeSeriesPoints ( isRaw, getParts, timeSeriesUniqueId, lastModified, queryStartFinal, queryEndFinal, readWindow ) );
+			if ( this.inFlightDataReads.getSharedCount() > sharedCount ) {
+				setPluginProperty("DataRead.SharedCount", "" + this.inFlightDataReads.getSharedCount());
+				if ( Message.isDebugOn ) {
+					Message.printStatus(2, routine, "Used the points from a concurrent read of time series unique ID \""
+						+ timeSeriesUniqueId + "\".");
+				}
+			}
+
+			if ( (dataCache != null) && (queryFrom != null) && (queryTo != null) ) {
+				dataCache.put ( dataKey, lastModified, queryFrom.toEpochMilli(), queryTo.toEpochMilli(), points );
+				String statistics = dataCache.getStatisticsSummary();
+				setPluginProperty("DataCache.Statistics", statistics);
+				Message.printStatus(2, routine, "Data cache " + statistics + ".");
+			}
+		}
+
+		if ( usePreviousRead && (changedSeries.getNextToken() != null) ) {
+			// Save the points for later reads:
+			// - the changes were requested before the read so changes during the read are reported by the next request
+			// - the points are saved in the bounded changed series cache and only the token and period are saved in the map
+			getChangedSeriesCache().put ( dataKey, lastModified, queryFrom.toEpochMilli(), queryTo.toEpochMilli(), points );
+			this.previousReadMap.put(dataKey, new PreviousRead(changedSeries.getNextToken(),
+				queryFrom.toEpochMilli(), queryTo.toEpochMilli()));
+		}
+		return points;
+	}
+
+	/**
+ 	* Read the data points for a single Aquarius time series and query period,
+ 	* using the point cache if enabled, and otherwise reading the period or windows.
+ 	* @param isRaw if true use the 'Raw' service, if false use the 'Corrected' service
+ 	* @param getParts the GetParts service parameter, or null to use the service default
+ 	* @param timeSeriesUniqueId the time series unique identifier to read
+ 	* @param lastModified the time series description LastModified, or null to not use the point cache
+ 	* @param queryStart the start of the period to read (inclusive), or null to read from the start of the time series
+ 	* @param queryEnd the end of the period to read (inclusive), or null to read to the end of the time series
+ 	* @param readWindow if not null, the interval used to split the read period into windows
+ 	* @return the data points, guaranteed to be non-null
+ 	*/
+	private TimeSeriesPointArrays readTimeSeriesPoints ( boolean isRaw, String getParts, String timeSeriesUniqueId,
+		Instant lastModified, DateTime queryStart, DateTime queryEnd, TimeInterval readWindow ) throws IOException {
+		String routine = getClass().getSimpleName() + ".readTimeSeriesPoints";
+		TimeSeriesPointArrays points = null;
+		PointCache pointCache = getPointCache();
+		if ( (pointCache != null) && (lastModified != null) && (queryStart != null) && (queryEnd != null) ) {
+			// Use the cached points and read the other points for the period.
+			ZoneId zoneId = ZoneId.of(queryStart.getTimeZoneAbbreviation());
+			points = pointCache.get ( timeSeriesUniqueId, isRaw ? "Raw" : "Corrected", lastModified,
+				TimeUtil.toInstant(queryStart).toEpochMilli(), TimeUtil.toInstant(queryEnd).toEpochMilli(),
+				(fromMs, toMs) -> {
+					Instant queryFrom = Instant.ofEpochMilli(fromMs);
+					Instant queryTo = Instant.ofEpochMilli(toMs);
+					if ( readWindow != null ) {
+						return readTimeSeriesDataWindows ( isRaw, getParts, timeSeriesUniqueId,
+							TimeUtil.ofInstant(queryFrom, zoneId), TimeUtil.ofInstant(queryTo, zoneId), readWindow );
+					}
+					return readTimeSeriesDataPeriod ( isRaw, getParts, timeSeriesUniqueId, queryFrom, queryTo );
+				} );
+			String statistics = pointCache.getStatisticsSummary();
+			setPluginProperty("PointCache.Statistics", statistics);
+			Message.printStatus(2, routine, "Point cache " + statistics + ".");
+		}
+		else if ( (readWindow != null) && (queryStart != null) && (queryEnd != null) ) {
+			points = readTimeSeriesDataWindows ( isRaw, getParts, timeSeriesUniqueId, queryStart, queryEnd, readWindow );
 		}
 		else {
-			// Default is Corrected.
-			// Create the request.
-			TimeSeriesDataCorrectedServiceRequest request = new Publish.TimeSeriesDataCorrectedServiceRequest();
-			request.setTimeSeriesUniqueId(timeSeriesUniqueId);
+			Instant queryFrom = (queryStart == null) ? null : TimeUtil.toInstant(queryStart);
+			Instant queryTo = (queryEnd == null) ? null : TimeUtil.toInstant(queryEnd);
+			points = readTimeSeriesDataPeriod ( isRaw, getParts, timeSeriesUniqueId, queryFrom, queryTo );
+		}
+
+		return points;
+	}
 
-			// Request the data.
-			Message.printStatus(2, routine, "Reading time series data using the 'Corrected' API service.");
-			response = client.Publish.get(request);
+	/**
+ 	* Read the data points for a single Aquarius time series and period with one request.
+ 	* The points are parsed directly from the response into arrays unless the 'DataDecoder' property is 'SDK',
+ 	* in which case the SDK response is read and converted to arrays.
+ 	* The SDK is also used if the streaming decoder cannot decode the response content.
+ 	* @param isRaw if true use the 'Raw' service, if false use the 'Corrected' service
+ 	* @param getParts the GetParts service parameter, or null to use the service default
+ 	* @param timeSeriesUniqueId the time series unique identifier to read
+ 	* @param queryFrom the start of the period to read (inclusive), or null to read from the start of the time series
+ 	* @param queryTo the end of the period to read (inclusive), or null to read to the end of the time series
+ 	* @return the data points, guaranteed to be non-null
+ 	*/
+	private TimeSeriesPointArrays readTimeSeriesDataPeriod ( boolean isRaw, String getParts, String timeSeriesUniqueId,
+		Instant queryFrom, Instant queryTo ) throws IOException {
+		String routine = getClass().getSimpleName() + ".readTimeSeriesDataPeriod";
+
+		// Create the request.
+		TimeSeriesDataRawServiceRequest rawRequest = null;
+		TimeSeriesDataCorrectedServiceRequest correctedRequest = null;
+		Object request = null;
+		if ( isRaw ) {
+			rawRequest = new Publish.TimeSeriesDataRawServiceRequest();
+			rawRequest.setTimeSeriesUniqueId(timeSeriesUniqueId);
+			rawRequest.setQueryFrom(queryFrom);
+			rawRequest.setQueryTo(queryTo);
+			rawRequest.setGetParts(getParts);
+			request = rawRequest;
 		}
-        
-        //response.get
-		return response;
+		else {
+			// Default is Corrected.
+			correctedRequest = new Publish.TimeSeriesDataCorrectedServiceRequest();
+			correctedRequest.setTimeSeriesUniqueId(timeSeriesUniqueId);
+			correctedRequest.setQueryFrom(queryFrom);
+			correctedRequest.setQueryTo(queryTo);
+			correctedRequest.setGetParts(getParts);
+			request = correctedRequest;
+		}
+		Message.printStatus(2, routine, "Reading time series data using the '" + (isRaw ? "Raw" : "Corrected")
+			+ "' API service, QueryFrom=" + queryFrom + " QueryTo=" + queryTo + " GetParts=" + getParts + ".");
+
+		TimeSeriesPointArrays points = null;
+		if ( isStreamingDataDecoderEnabled() ) {
+			// Parse the response directly into arrays:
+			// - only read with the SDK if the response content cannot be decoded
+			// - other errors (timeouts, connection and HTTP errors) are thrown because the SDK request would fail the same way
+			try {
+				points = readTimeSeriesDataStreaming ( request );
+			}
+			catch ( TimeSeriesDataFormatException e ) {
+				Message.printWarning(3, routine, "Error decoding time series data for unique ID \"" + timeSeriesUniqueId
+					+ "\" with the streaming decoder (" + e + ") - reading with the SDK.");
+				Message.printWarning(3, routine, e);
+			}
+		}
+		if ( points == null ) {
+			// Use the SDK response objects.
+			TimeSeriesDataServiceResponse response = null;
+			if ( isRaw ) {
+				TimeSeriesDataRawServiceRequest rawRequestFinal = rawRequest;
+				response = callWithRequestLimit(() -> callWithSession(c -> c.Publish.get(rawRequestFinal)));
+			}
+			else {
+				TimeSeriesDataCorrectedServiceRequest correctedRequestFinal = correctedRequest;
+				response = callWithRequestLimit(() -> callWithSession(c -> c.Publish.get(correctedRequestFinal)));
+			}
+			points = TimeSeriesPointArrays.fromPoints((response == null) ? null : response.getPoints());
+		}
+
+		Message.printStatus(2, routine, "Read " + points.size() + " points for time series unique ID \""
+			+ timeSeriesUniqueId + "\".");
+		return points;
 	}
 
 	/**
-	 * Read time series catalog, which uses the cached time series descriptions and other data.
-	 * @param dataTypeReq Requested data type (e.g., "DischargeRiver") or "*" to read all data types,
-	 *        or null to use default of "*".
-	 * @param dataIntervalReq Requested data interval (e.g., "IrregSecond") or "*" to read all intervals,
-	 *        or null to use default of "*".
-	 * @param ifp input filter panel with "where" conditions
+	 * Open a connection for a Publish service request, using the same URL and authentication as the SDK request.
+	 * The connection settings are applied, including requesting a gzip-compressed response if the 'Compression' property is true
+	 * (see ConnectionSettings).
+	 * The calling code must read and close the response so that the connection can be reused, and disconnect.
+	 * @param request the Publish service request
+	 * @return the connection, with a successful response
+	 * @throws IOException if the request fails or the response is not successful
 	 */
-	public List<TimeSeriesCatalog> readTimeSeriesCatalog ( String dataTypeReq, String dataIntervalReq, InputFilter_JPanel ifp ) {
-		String routine = getClass().getSimpleName() + ".readTimeSeriesCatalog";
-
-		// Loop through the time series descriptions and add an entry in the catalog.
-		List<TimeSeriesCatalog> tscatalogList = new ArrayList<>();
-		for ( TimeSeriesDescription timeSeriesDescription : this.timeSeriesDescriptionList ) {
-			if ( (dataTypeReq != null) && !dataTypeReq.isEmpty() && !dataTypeReq.equals("*") ) {
-				// Filter based on the data type.
-				if ( !timeSeriesDescription.getParameter().equals(dataTypeReq) ) {
-					// Data type did not match.
+	private HttpURLConnection openServiceConnection ( Object request ) throws IOException {
+		for ( int attempt = 1; ; attempt++ ) {
+			long generation = this.sessionGeneration;
+			AquariusClient client = getClient();
+			String url = client.Publish.createUrl(request, null);
+			HttpURLConnection connection = client.Publish.createRequest(url, "GET", null, null);
+			this.connectionSettings.configure(connection, true);
+			int responseCode = connection.getResponseCode();
+			if ( responseCode != HttpURLConnection.HTTP_OK ) {
+				String responseMessage = connection.getResponseMessage();
+				connection.disconnect();
+				if ( (responseCode == HttpURLConnection.HTTP_UNAUTHORIZED) && (attempt == 1)
+					&& reauthenticate(generation, "HTTP 401") ) {
+					// The session has expired so retry once with the new session.
 					continue;
 				}
+				throw new IOException("Service request returned HTTP " + responseCode + " (" + responseMessage + ").");
 			}
+			return connection;
+		}
+	}
 
-			if ( (dataIntervalReq != null) && !dataIntervalReq.isEmpty() && !dataIntervalReq.equals("*") ) {
-				// Filter based on the data interval:
-				// - currently all are IrregSecond so no filter
-			}
-
-			/*
-			// Add query parameters based on the input filter:
-			// - this includes list type parameters and specific parameters to match database values
-			int numFilterWheres = 0; // Number of filter where clauses that are added.
-			if ( ifp != null ) {
-	        	int nfg = ifp.getNumFilterGroups ();
-	        	InputFilter filter;
-	        	for ( int ifg = 0; ifg < nfg; ifg++ ) {
-	            	filter = ifp.getInputFilter ( ifg );
-	            	//Message.printStatus(2, routine, "IFP whereLabel =\"" + whereLabel + "\"");
-	            	boolean special = false; // TODO smalers 2022-12-26 might add special filters.
-	            	if ( special ) {
-	            	}
-	            	else {
-	            		// Add the query parameter to the URL.
-				    	filter = ifp.getInputFilter(ifg);
-				    	String queryClause = WebUtil.getQueryClauseFromInputFilter(filter,ifp.getOperator(ifg));
-				    	if ( Message.isDebugOn ) {
-				    		Message.printStatus(2,routine,"Filter group " + ifg + " where is: \"" + queryClause + "\"");
-				    }
-				    	if ( queryClause != null ) {
-				    	requestUrl.append("&" + queryClause);
-				    		++numFilterWheres;
-				    	}
-	            	}
-	        	}
+	/**
+	 * Read time series data points by requesting the service URL and parsing the JSON response with a streaming parser,
+	 * which avoids creating the SDK objects for each point.
+	 * The request URL and authentication are the same as for the SDK request.
+	 * @param request the Raw or Corrected data request
+	 * @return the data points
+	 * @throws IOException if the request fails or the response cannot be parsed
+	 */
+	private TimeSeriesPointArrays readTimeSeriesDataStreaming ( Object request ) throws IOException {
+		return callWithRequestLimit ( () -> {
+			HttpURLConnection connection = openServiceConnection ( request );
+			try ( InputStream in = ConnectionSettings.getInputStream(connection) ) {
+				return TimeSeriesPointArrays.parse(in);
 			}
-			*/
+			finally {
+				connection.disconnect();
+			}
+		});
+	}
+
+	/**
+ 	* Read the data points for a single Aquarius time series by splitting the period into windows,
+ 	* which avoids one very long request for long periods of record and allows failed windows to be retried.
+ 	* Windows are requested concurrently (see the 'ReadWindowConcurrency' and 'ReadWindowTimeoutMs'
+ 	* configuration properties) and failed windows are retried individually
+ 	* (see the 'ReadWindowRetries' configuration property).
+ 	* Each window except the last excludes points at its end, which are included in the next window,
+ 	* so that points on window boundaries are not duplicated.
+ 	* @param isRaw if true use the 'Raw' service, if false use the 'Corrected' service
+ 	* @param getParts the GetParts service parameter, or null to use the service default
+ 	* @param timeSeriesUniqueId the time series unique identifier to read
+ 	* @param queryStart the start of the period to read (inclusive)
+ 	* @param queryEnd the end of the period to read (inclusive)
+ 	* @param readWindow the interval for each window
+ 	* @return the data points for all windows, in order, guaranteed to be non-null
+ 	* @throws IOException if any window cannot be read after retries
+ 	*/
+	private TimeSeriesPointArrays readTimeSeriesDataWindows ( boolean isRaw, String getParts, String timeSeriesUniqueId,
+		DateTime queryStart, DateTime queryEnd, TimeInterval readWindow ) throws IOException {
+		String routine = getClass().getSimpleName() + ".readTimeSeriesDataWindows";
+
+		int concurrency = ConcurrencyUtil.parseConcurrency(getProperty("ReadWindowConcurrency"), DEFAULT_READ_WINDOW_CONCURRENCY);
+		int retries = DEFAULT_READ_WINDOW_RETRIES;
+		String prop = getProperty("ReadWindowRetries");
+		if ( (prop != null) && StringUtil.isInteger(prop.trim()) ) {
+			retries = Math.max(0, Integer.parseInt(prop.trim()));
+		}
+		long timeoutMs = DEFAULT_READ_WINDOW_TIMEOUT_MS;
+		prop = getProperty("ReadWindowTimeoutMs");
+		if ( (prop != null) && StringUtil.isLong(prop.trim()) ) {
+			timeoutMs = Long.parseLong(prop.trim());
+		}
+
+		// Determine the window boundaries, with the last window ending at the end of the period.
+		List<Instant> windowStarts = new ArrayList<>();
+		List<Instant> windowEnds = new ArrayList<>();
+		Instant queryTo = TimeUtil.toInstant(queryEnd);
+		DateTime windowStart = new DateTime(queryStart);
+		Instant windowFrom = TimeUtil.toInstant(windowStart);
+		while ( windowFrom.isBefore(queryTo) || windowStarts.isEmpty() ) {
+			DateTime windowEnd = new DateTime(windowStart);
+			windowEnd.addInterval(readWindow.getBase(), readWindow.getMultiplier());
+			Instant windowTo = TimeUtil.toInstant(windowEnd);
+			if ( !windowTo.isBefore(queryTo) || !windowTo.isAfter(windowFrom) ) {
+				// Last window, or the window interval does not advance (should not happen).
+				windowTo = queryTo;
+			}
+			windowStarts.add(windowFrom);
+			windowEnds.add(windowTo);
+			windowStart = windowEnd;
+			windowFrom = windowTo;
+		}
+		int windowCount = windowStarts.size();
+		if ( windowCount == 1 ) {
+			// No need to use separate threads.
+			return readTimeSeriesDataPeriod ( isRaw, getParts, timeSeriesUniqueId, windowStarts.get(0), windowEnds.get(0) );
+		}
+		Message.printStatus(2, routine, "Reading time series unique ID \"" + timeSeriesUniqueId + "\" using " + windowCount
+			+ " read windows of " + readWindow + ", " + concurrency + " concurrent requests.");
+
+		// Create a request for each window:
+		// - the service period is inclusive at both ends so points at the window end are removed below
+		List<String> windowLabels = new ArrayList<>(windowCount);
+		List<ConcurrentRequests.Request<TimeSeriesPointArrays>> windowRequests = new ArrayList<>(windowCount);
+		for ( int iWindow = 0; iWindow < windowCount; iWindow++ ) {
+			Instant from = windowStarts.get(iWindow);
+			Instant to = windowEnds.get(iWindow);
+			windowLabels.add("window " + (iWindow + 1) + " (" + from + " to " + to + ")");
+			windowRequests.add ( () -> readTimeSeriesDataPeriod ( isRaw, getParts, timeSeriesUniqueId, from, to ) );
+		}
+
+		// Run the requests, retrying failed windows.
+		ConcurrentRequests<TimeSeriesPointArrays> concurrentRequests =
+			new ConcurrentRequests<>("aquarius-readwindow", concurrency, timeoutMs);
+		List<TimeSeriesPointArrays> windowResults = concurrentRequests.run(windowLabels, windowRequests, retries);
+		int failureCount = concurrentRequests.getFailureCount();
+		Message.printStatus ( 2, routine, "Read " + (windowCount - failureCount) + " of " + windowCount
+			+ " read windows, " + concurrentRequests.getTimingSummary() + "." );
+		if ( failureCount > 0 ) {
+			// A partial time series would have gaps that look like missing data so don't return it.
+			Message.printWarning ( 3, routine, "Error reading time series data for " + failureCount
+				+ " read windows:\n" + concurrentRequests.getFailureSummary(20) );
+			throw new IOException ( "Could not read time series data for " + failureCount + " of " + windowCount
+				+ " read windows after " + retries + " retries." );
+		}
+
+		// Merge the results in window order.
+		int pointCount = 0;
+		for ( TimeSeriesPointArrays windowResult : windowResults ) {
+			pointCount += windowResult.size();
+		}
+		TimeSeriesPointArrays points = new TimeSeriesPointArrays(pointCount);
+		for ( int iWindow = 0; iWindow < windowCount; iWindow++ ) {
+			TimeSeriesPointArrays windowPoints = windowResults.get(iWindow);
+			long [] times = windowPoints.getTimes();
+			double [] values = windowPoints.getValues();
+			boolean isLastWindow = (iWindow == (windowCount - 1));
+			long windowToMs = windowEnds.get(iWindow).toEpochMilli();
+			for ( int i = 0; i < windowPoints.size(); i++ ) {
+				if ( !isLastWindow && (times[i] >= windowToMs) ) {
+					// Point is at the end of the window so is included in the next window.
+					break;
+				}
+				points.add(times[i], values[i]);
+			}
+		}
+		Message.printStatus(2, routine, "Read " + points.size() + " points for time series unique ID \""
+			+ timeSeriesUniqueId + "\" in " + windowCount + " read windows.");
+		return points;
+	}
+
+	/**
+	 * Create the time series catalog from time series descriptions and the location and parameter data.
+	 * This is called when global data are read and the catalog is saved for use by readTimeSeriesCatalog().
+	 * @param data the global data that provide the location and parameter data, which must be indexed
+	 * @param timeSeriesDescriptionList the time series descriptions to process
+	 * @return the time series catalog, with one entry per time series description
+	 */
+	private List<TimeSeriesCatalog> createTimeSeriesCatalog ( GlobalData data, List<TimeSeriesDescription> timeSeriesDescriptionList ) {
+		String routine = getClass().getSimpleName() + ".createTimeSeriesCatalog";
+		long start = System.currentTimeMillis();
+
+		// Use the index to join location and parameter data with the time series descriptions:
+		// - the index is created once after global data are read
+		GlobalDataIndex globalDataIndex = data.globalDataIndex;
 
+		// Loop through the time series descriptions and add an entry in the catalog.
+		List<TimeSeriesCatalog> tscatalogList = new ArrayList<>(timeSeriesDescriptionList.size());
+		for ( TimeSeriesDescription timeSeriesDescription : timeSeriesDescriptionList ) {
 			TimeSeriesCatalog tscatalog = new TimeSeriesCatalog();
-			Message.printStatus(2, routine, "Adding tscatalog for time series unique ID \"" + timeSeriesDescription.getUniqueId() + "\".");
+			if ( Message.isDebugOn ) {
+				Message.printStatus(2, routine, "Adding tscatalog for time series unique ID \"" + timeSeriesDescription.getUniqueId() + "\".");
+			}
 
 			// Standard properties expected by TSTool:
 			// - locId - set below from description metadata
@@ -1435,8 +2980,8 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
 			// Set location data:
 			// - this includes location "description" and location "data" objects
 			tscatalog.setLocId ( timeSeriesDescription.getLocationIdentifier() );
-			LocationDescription locationDescription = findLocationDescriptionForLocationIdentifier (
-				this.locationDescriptionList, timeSeriesDescription.getLocationIdentifier() );
+			LocationDescription locationDescription = globalDataIndex.findLocationDescription (
+				timeSeriesDescription.getLocationIdentifier() );
 			if ( locationDescription != null ) {
 				//Message.printStatus(2, routine, "Found location description \"" + locationDescription.getIdentifier()
 				//+ "\" for time series unique ID \"" + timeSeriesDescription.getUniqueId() + "\".");
@@ -1449,41 +2994,50 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
 				tscatalog.setLocationDescriptionUniqueId(locationDescription.getUniqueId());
 				tscatalog.setLocationDescriptionUtcOffset(locationDescription.getUtcOffset());
 			}
-			else {
+			else if ( Message.isDebugOn ) {
 				Message.printStatus(2, routine, "Did not location description \"" + timeSeriesDescription.getLocationIdentifier()
 					+ "\" for time series unique ID \"" + timeSeriesDescription.getUniqueId() + "\".");
 			}
 
-			Publish.LocationDataServiceResponse locationData = findLocationDataForLocationIdentifier (
-				this.locationDataList, timeSeriesDescription.getLocationIdentifier() );
-			if ( locationData != null ) {
-				//Message.printStatus(2, routine, "Found location description \"" + locationDescription.getIdentifier()
-				//+ "\" for time series unique ID \"" + timeSeriesDescription.getUniqueId() + "\".");
-
-				// Set location data in the tscatalog:
-				// - only include what seems useful
-				tscatalog.setLocationDataElevation(locationData.getElevation());
-				tscatalog.setLocationDataElevationUnits(locationData.getElevationUnits());
-				tscatalog.setLocationDataLatitude(locationData.getLatitude());
-				tscatalog.setLocationDataLongitude(locationData.getLongitude());
+			if ( data.locationDataCache != null ) {
+				// Location data are loaded lazily:
+				// - the location data will be set in the catalog the first time that location data are requested
+				tscatalog.setLocationDataCache(data.locationDataCache);
 			}
 			else {
-				Message.printStatus(2, routine, "Did not location data \"" + timeSeriesDescription.getLocationIdentifier()
-					+ "\" for time series unique ID \"" + timeSeriesDescription.getUniqueId() + "\".");
+				Publish.LocationDataServiceResponse locationData = globalDataIndex.findLocationData (
+					timeSeriesDescription.getLocationIdentifier() );
+				if ( locationData != null ) {
+					//Message.printStatus(2, routine, "Found location description \"" + locationDescription.getIdentifier()
+					//+ "\" for time series unique ID \"" + timeSeriesDescription.getUniqueId() + "\".");
+
+					// Set location data in the tscatalog:
+					// - only include what seems useful
+					tscatalog.setLocationDataElevation(locationData.getElevation());
+					tscatalog.setLocationDataElevationUnits(locationData.getElevationUnits());
+					tscatalog.setLocationDataLatitude(locationData.getLatitude());
+					tscatalog.setLocationDataLongitude(locationData.getLongitude());
+				}
+				else if ( Message.isDebugOn ) {
+					Message.printStatus(2, routine, "Did not location data \"" + timeSeriesDescription.getLocationIdentifier()
+						+ "\" for time series unique ID \"" + timeSeriesDescription.getUniqueId() + "\".");
+				}
 			}
 
 			// Set parameter data.
-			ParameterMetadata parameterMetadata = findParameterMetadataForParameter (
-				this.parameterMetadataList, timeSeriesDescription.getParameter() );
+			ParameterMetadata parameterMetadata = globalDataIndex.findParameterMetadata (
+				timeSeriesDescription.getParameter() );
 			if ( parameterMetadata != null ) {
-				Message.printStatus(2, routine, "Found parameter metadata \"" + timeSeriesDescription.getParameterId()
-					+ "\" for time series unique ID \"" + timeSeriesDescription.getUniqueId() + "\".");
+				if ( Message.isDebugOn ) {
+					Message.printStatus(2, routine, "Found parameter metadata \"" + timeSeriesDescription.getParameterId()
+						+ "\" for time series unique ID \"" + timeSeriesDescription.getUniqueId() + "\".");
+				}
 				// Set parameter metadata in the tscatalog:
 				// - only include what seems useful
 				tscatalog.setParameterMetadataIdentifier(parameterMetadata.getIdentifier());
 				tscatalog.setParameterMetadataDisplayName(parameterMetadata.getDisplayName());
 			}
-			else {
+			else if ( Message.isDebugOn ) {
 				Message.printStatus(2, routine, "Did not parameter metadata \"" + timeSeriesDescription.getParameterId()
 					+ "\" for time series unique ID \"" + timeSeriesDescription.getUniqueId() + "\".");
 			}
@@ -1509,33 +3063,75 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
 			tscatalogList.add(tscatalog);
 		}
 		
-		// Check the catalog list for problems.
-		for ( TimeSeriesCatalog tscatalog : tscatalogList ) {
-			// Make sure that the time series identifier is unique.
-			boolean duplicateTsid = false;
-			for ( TimeSeriesCatalog tscatalog2 : tscatalogList ) {
-				if ( tscatalog == tscatalog2 ) {
-					// Don't compare with itself.
-					continue;
-				}
-				if ( tscatalog.getTsId().equals(tscatalog2.getTsId()) ) {
-					// The time series identifier is not unique.
-					duplicateTsid = true;
-					break;
-				}
-			}
-			if ( duplicateTsid ) {
-				tscatalog.addProblem("TSTool TSID is not unique.");
-			}
+		// Check the catalog list for problems:
+		// - make sure that the time series identifier is unique
+		int duplicateCount = TimeSeriesCatalog.checkForDuplicateTsIds(tscatalogList);
+		if ( duplicateCount > 0 ) {
+			Message.printStatus(2, routine, duplicateCount + " time series catalog entries do not have a unique TSTool TSID." );
 		}
 
+		Message.printStatus(2, routine, "Created " + tscatalogList.size() + " time series catalog entries from "
+			+ timeSeriesDescriptionList.size() + " time series descriptions in " + (System.currentTimeMillis() - start) + " ms." );
 		return tscatalogList;
 	}
 
+	/**
+	 * Read the time series catalog, filtered by the requested data type, interval, and input filter "where" conditions.
+	 * The filters are compiled into predicates that are applied to the cached catalog,
+	 * and the returned list contains the cached catalog objects.
+	 * This waits for the datastore to be initialized and should therefore not be called on the Swing event thread
+	 * while the datastore is initializing (see isInitialized()).
+	 * If the catalog is not cached after initialization (e.g., global data could not be read),
+	 * conditions that are equivalent to GetTimeSeriesDescriptionList request parameters (location identifier,
+	 * parameter, and computation period) are used to read matching time series descriptions from the web service.
+	 * @param dataTypeReq Requested data type (e.g., "DischargeRiver") or "*" to read all data types,
+	 *        or null to use default of "*".
+	 * @param dataIntervalReq Requested data interval (e.g., "IrregSecond") or "*" to read all intervals,
+	 *        or null to use default of "*".
+	 * @param ifp input filter panel with "where" conditions
+	 * @return the list of matching time series catalog
+	 */
+	public List<TimeSeriesCatalog> readTimeSeriesCatalog ( String dataTypeReq, String dataIntervalReq, InputFilter_JPanel ifp ) {
+		String routine = getClass().getSimpleName() + ".readTimeSeriesCatalog";
+		TimeSeriesCatalogFilter filter = new TimeSeriesCatalogFilter ( dataTypeReq, dataIntervalReq, ifp );
+		// Wait so that the catalog is not read from web services while the global data are being read.
+		waitForInitialization();
+		GlobalData globalData = this.globalData;
+		List<TimeSeriesCatalog> tscatalogList = globalData.tscatalogList;
+		if ( isInitialized() && tscatalogList.isEmpty() && globalData.timeSeriesDescriptionList.isEmpty() && filter.hasPushdown() ) {
+			// Initialization is complete but no catalog is cached so read the time series descriptions that match the filter.
+			try {
+				Publish.TimeSeriesDescriptionServiceRequest request = new Publish.TimeSeriesDescriptionServiceRequest();
+				request.setLocationIdentifier(filter.getPushdownLocationIdentifier());
+				request.setParameter(filter.getPushdownParameter());
+				request.setComputationPeriodIdentifier(filter.getPushdownComputationPeriodIdentifier());
+				Publish.TimeSeriesDescriptionListServiceResponse response = callWithSession(c -> c.Publish.get(request));
+				List<TimeSeriesDescription> timeSeriesDescriptionList = response.getTimeSeriesDescriptions();
+				Collections.sort(timeSeriesDescriptionList, new TimeSeriesDescriptionComparator());
+				Message.printStatus(2, routine, "No cached time series catalog - read " + timeSeriesDescriptionList.size()
+					+ " time series descriptions for LocationIdentifier=" + filter.getPushdownLocationIdentifier()
+					+ " Parameter=" + filter.getPushdownParameter()
+					+ " ComputationPeriodIdentifier=" + filter.getPushdownComputationPeriodIdentifier() + "." );
+				tscatalogList = createTimeSeriesCatalog ( globalData, timeSeriesDescriptionList );
+			}
+			catch ( Exception e ) {
+				Message.printWarning(3, routine, "Error reading time series descriptions (" + e + ")." );
+				tscatalogList = new ArrayList<>();
+			}
+		}
+		if ( filter.isEmpty() ) {
+			return new ArrayList<>(tscatalogList);
+		}
+		else {
+			return filter.filter(tscatalogList);
+		}
+	}
+
     /**
      * Read time series metadata, which results in a query that joins station, station_type, point, point_class, and point_type.
      */
     List<TimeSeriesCatalog> readTimeSeriesMeta ( String dataTypeReq, String dataIntervalReq, InputFilter_JPanel ifp ) {
+    	waitForInitialization();
     	// Remove note from data type.
 	   	int pos = dataTypeReq.indexOf(" - ");
 	   	if ( pos > 0 ) {
@@ -1551,11 +3147,15 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
 	}
 
 	/**
- 	* Read the time series description objects.
+ 	* Read the time series description objects for all time series.
+ 	* @param timeSeriesUniqueIdList the time series unique identifiers for all time series
+ 	* @param allowPartial if true, return the descriptions that were read if any requests fail,
+ 	* if false throw an exception if any requests fail
  	* @return the list of time series description objects
  	*/
-	private List<TimeSeriesDescription> readTimeSeriesDescriptionList() throws IOException {
-		String routine = getClass().getSimpleName() + ".readTimeSeriesDescriptionList";
+	private List<TimeSeriesDescription> readAllTimeSeriesDescriptions (
+		List<TimeSeriesUniqueIds> timeSeriesUniqueIdList, boolean allowPartial ) throws IOException {
+		String routine = getClass().getSimpleName() + ".readAllTimeSeriesDescriptions";
 		
 		// Indicate the request method:
 		// - GET has a limit of about 60 unique IDs, POST has no limit
@@ -1575,14 +3175,14 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
 	        else if ( readFlag == 0 ) {
 	        	// Request all the available time series.
 	        	uniqueIds = new ArrayList<>();
-	        	for ( TimeSeriesUniqueIds id : this.timeSeriesUniqueIdList ) {
+	        	for ( TimeSeriesUniqueIds id : timeSeriesUniqueIdList ) {
 	        		uniqueIds.add(id.getUniqueId());
 	        	}
 	        }
 	        else if ( readFlag == 1 ) {
 	        	// Request a single time series.
 	        	uniqueIds = new ArrayList<>();
-	        	uniqueIds.add(this.timeSeriesUniqueIdList.get(0).getUniqueId());
+	        	uniqueIds.add(timeSeriesUniqueIdList.get(0).getUniqueId());
 	        }
 	        else {
 	        	// Request multiple time series:
@@ -1590,7 +3190,7 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
 	        	// - 50 seems to work, documentation says the limit is about 60
 	        	uniqueIds = new ArrayList<>();
 	        	for ( int i = 0; i < 50; i++ ) {
-	        		TimeSeriesUniqueIds id = this.timeSeriesUniqueIdList.get(i);
+	        		TimeSeriesUniqueIds id = timeSeriesUniqueIdList.get(i);
 	        		uniqueIds.add(id.getUniqueId());
 	        	}
 	        }
@@ -1602,21 +3202,17 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
 	       		Message.printStatus(2, routine, "Reading all time series descriptions." );
 	       	}
 	
-	        Publish.TimeSeriesDescriptionListByUniqueIdServiceResponse response = client.Publish.get(request);
+	        Publish.TimeSeriesDescriptionListByUniqueIdServiceResponse response = callWithSession(c -> c.Publish.get(request));
 	        
 	        timeSeriesDescriptionList = response.getTimeSeriesDescriptions();
 		}
 		else {
-	        Publish.TimeSeriesDescriptionListByUniqueIdServiceRequest request = new Publish.TimeSeriesDescriptionListByUniqueIdServiceRequest();
         	// Request all the available time series.
-	       	ArrayList<String> uniqueIds = null;
-        	uniqueIds = new ArrayList<>();
-        	for ( TimeSeriesUniqueIds id : this.timeSeriesUniqueIdList ) {
+	       	List<String> uniqueIds = new ArrayList<>();
+        	for ( TimeSeriesUniqueIds id : timeSeriesUniqueIdList ) {
         		uniqueIds.add(id.getUniqueId());
         	}
-       		request.setTimeSeriesUniqueIds(uniqueIds);
-	        Publish.TimeSeriesDescriptionListByUniqueIdServiceResponse response = client.Publish.post(request);
-	        timeSeriesDescriptionList = response.getTimeSeriesDescriptions();
+	        timeSeriesDescriptionList = readTimeSeriesDescriptionList(uniqueIds, allowPartial);
 		}
 
 		// Sort on the location ID and the data type.
@@ -1625,22 +3221,101 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
 	}
 
 	/**
- 	* Read the time series unique ID objects.
- 	* @return the list of time series unique ID objects
+ 	* Read the time series description list objects for a list of time series unique identifiers.
+ 	* The unique identifiers are split into batches (see the 'TimeSeriesDescriptionBatchSize' configuration property)
+ 	* so that large catalogs don't require one very large request and response.
+ 	* Batches are requested concurrently (see the 'TimeSeriesDescriptionConcurrency' and 'TimeSeriesDescriptionTimeoutMs'
+ 	* configuration properties) and failed batches are retried individually
+ 	* (see the 'TimeSeriesDescriptionRetries' configuration property).
+ 	* @param uniqueIds the time series unique identifiers to read
+ 	* @param allowPartial if true, return the descriptions for the batches that were read if any batches fail,
+ 	* if false throw an exception if any batches fail
+ 	* @return the list of time series description objects, in batch order, not sorted
+ 	* @throws IOException if any batches fail and allowPartial=false
+ 	*/
+	private List<TimeSeriesDescription> readTimeSeriesDescriptionList ( List<String> uniqueIds, boolean allowPartial ) throws IOException {
+		String routine = getClass().getSimpleName() + ".readTimeSeriesDescriptionList";
+
+		int batchSize = ConcurrencyUtil.parseConcurrency(getProperty("TimeSeriesDescriptionBatchSize"), DEFAULT_TIME_SERIES_DESCRIPTION_BATCH_SIZE);
+		int concurrency = ConcurrencyUtil.parseConcurrency(getProperty("TimeSeriesDescriptionConcurrency"), DEFAULT_TIME_SERIES_DESCRIPTION_CONCURRENCY);
+		int retries = DEFAULT_TIME_SERIES_DESCRIPTION_RETRIES;
+		String prop = getProperty("TimeSeriesDescriptionRetries");
+		if ( (prop != null) && StringUtil.isInteger(prop.trim()) ) {
+			retries = Math.max(0, Integer.parseInt(prop.trim()));
+		}
+		long timeoutMs = DEFAULT_TIME_SERIES_DESCRIPTION_TIMEOUT_MS;
+		prop = getProperty("TimeSeriesDescriptionTimeoutMs");
+		if ( (prop != null) && StringUtil.isLong(prop.trim()) ) {
+			timeoutMs = Long.parseLong(prop.trim());
+		}
+
+		// Create a request for each batch.
+		int batchCount = (uniqueIds.size() + batchSize - 1)/batchSize;
+		List<String> batchLabels = new ArrayList<>(batchCount);
+		List<ConcurrentRequests.Request<List<TimeSeriesDescription>>> batchRequests = new ArrayList<>(batchCount);
+		for ( int iBatch = 0; iBatch < batchCount; iBatch++ ) {
+			int first = iBatch*batchSize;
+			int last = Math.min(uniqueIds.size(), first + batchSize);
+			ArrayList<String> batchUniqueIds = new ArrayList<>(uniqueIds.subList(first, last));
+			batchLabels.add("batch " + (iBatch + 1) + " (IDs " + (first + 1) + "-" + last + ")");
+			batchRequests.add ( () -> {
+				Publish.TimeSeriesDescriptionListByUniqueIdServiceRequest request = new Publish.TimeSeriesDescriptionListByUniqueIdServiceRequest();
+				request.setTimeSeriesUniqueIds(batchUniqueIds);
+				// Use POST because GET has a limit of about 60 unique IDs.
+				Publish.TimeSeriesDescriptionListByUniqueIdServiceResponse response = callWithSession(c -> c.Publish.post(request));
+				List<TimeSeriesDescription> batchDescriptionList = response.getTimeSeriesDescriptions();
+				return (batchDescriptionList == null) ? new ArrayList<>() : batchDescriptionList;
+			});
+		}
+
+		// Run the requests, retrying failed batches.
+		ConcurrentRequests<List<TimeSeriesDescription>> concurrentRequests =
+			new ConcurrentRequests<>("aquarius-tsdescription", concurrency, timeoutMs);
+		List<List<TimeSeriesDescription>> batchResults = concurrentRequests.run(batchLabels, batchRequests, retries);
+		int failureCount = concurrentRequests.getFailureCount();
+		Message.printStatus ( 2, routine, "Read " + (batchCount - failureCount) + " of " + batchCount
+			+ " time series description requests (batch size " + batchSize + "), " + concurrentRequests.getTimingSummary() + "." );
+		if ( failureCount > 0 ) {
+			Message.printWarning ( 3, routine, "Error reading time series descriptions for " + failureCount
+				+ " requests:\n" + concurrentRequests.getFailureSummary(20) );
+		}
+
+		// Merge the results in batch order.
+		List<TimeSeriesDescription> timeSeriesDescriptionList = new ArrayList<>(uniqueIds.size());
+		for ( List<TimeSeriesDescription> batchResult : batchResults ) {
+			if ( batchResult != null ) {
+				timeSeriesDescriptionList.addAll(batchResult);
+			}
+		}
+		if ( failureCount > 0 ) {
+			String message = "Could not read time series descriptions for " + failureCount + " of " + batchCount
+				+ " requests after " + retries + " retries.";
+			if ( !allowPartial ) {
+				throw new IOException ( message );
+			}
+			// Use the partial list but don't save the catalog snapshot or the changes token.
+			this.globalDataErrorCount.incrementAndGet();
+			Message.printWarning ( 3, routine, message + "  The time series list will be incomplete." );
+		}
+		return timeSeriesDescriptionList;
+	}
+
+	/**
+ 	* Read the time series unique ID objects for all time series.
+ 	* @return the response, which contains the list of time series unique ID objects and the token (NextToken)
+ 	* that can be used to refresh the catalog with only the time series that have changed
  	*/
-	private List<TimeSeriesUniqueIds> readTimeSeriesUniqueIdList() throws IOException {
+	private Publish.TimeSeriesUniqueIdListServiceResponse readTimeSeriesUniqueIdList() throws IOException {
 		//String routine = getClass().getSimpleName() + ".readParameterMetadataList";
 		
         // Create the request.
         Publish.TimeSeriesUniqueIdListServiceRequest request = new Publish.TimeSeriesUniqueIdListServiceRequest();
 
-        Publish.TimeSeriesUniqueIdListServiceResponse response = client.Publish.get(request);
-        
-        List<TimeSeriesUniqueIds> timeSeriesUniqueIdList = response.getTimeSeriesUniqueIds();
+        Publish.TimeSeriesUniqueIdListServiceResponse response = callWithSession(c -> c.Publish.get(request));
 
 		// Sort on the name.
 		//Collections.sort(variableList, new VariableComparator());
-		return timeSeriesUniqueIdList;
+		return response;
 	}
 
     /**
@@ -1648,7 +3323,6 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
      * TODO smalers 2023-01-03 need to figure out if a version is available.
      */
     private String readVersion () {
-		checkTokenExpiration();
     	return "";
     }
 
@@ -1695,7 +3369,9 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
 	   	ts.setProperty("location.utcOffset", tscatalog.getLocationDescriptionUtcOffset());
 	   	ts.setProperty("location.name", tscatalog.getLocationDescriptionName());
 
-	   	// Location data, listed alphabetically.
+	   	// Location data, listed alphabetically:
+	   	// - read the location data if loaded lazily and not yet read
+	   	tscatalog.loadLocationData();
 	   	ts.setProperty("location.elevation", tscatalog.getLocationDataElevation());
 	   	ts.setProperty("location.elevationunits", tscatalog.getLocationDataElevationUnits());
 	   	ts.setProperty("location.latitude", tscatalog.getLocationDataLatitude());
@@ -1706,4 +3382,301 @@ public class AquariusDataStore extends AbstractWebServiceDataStore implements Da
 	   	ts.setProperty("parameter.identifier", tscatalog.getParameterMetadataIdentifier());
     }
     
-}
\ No newline at end of file
+	/**
+	 * Refresh the time series catalog with only the time series that have changed since the global data were read,
+	 * using the token from the last time series unique ID list request.
+	 * Descriptions are read for the added or changed time series and are merged into the cached descriptions,
+	 * and then the catalog is recreated from the cached data.
+	 * Locations that are not in the cached location list cause the location data to be read again.
+	 * Deleted time series are not reported by the incremental request,
+	 * so the list of all time series unique identifiers is also requested (without descriptions)
+	 * and cached time series that are not in the list are removed.
+	 * @return true if the catalog was refreshed, false if all global data need to be read
+	 * (no token is available, the token has expired, or an error occurred)
+	 */
+	private boolean refreshTimeSeriesCatalog () {
+		String routine = getClass().getSimpleName() + ".refreshTimeSeriesCatalog";
+		// Create new global data from the current global data, which are replaced when the refresh is complete.
+		GlobalData data = this.globalData.copy();
+		Instant token = data.timeSeriesChangesToken;
+		if ( (token == null) || data.timeSeriesDescriptionList.isEmpty() ) {
+			return false;
+		}
+		long start = System.currentTimeMillis();
+		try {
+			// Request the time series that have changed.
+			ChangedSeries changedSeries = getChangedSeriesSince(token);
+			if ( changedSeries.isTokenExpired() ) {
+				Message.printStatus(2, routine, "Time series changes token has expired - reading all global data." );
+				return false;
+			}
+			List<String> changedIds = new ArrayList<>(changedSeries.getUniqueIds());
+
+			// Request all time series unique IDs to find deleted time series:
+			// - request after the changes so that a time series that is added in between is not removed
+			// - a time series that is added in between is included in the next changes request
+			Publish.TimeSeriesUniqueIdListServiceResponse allResponse = readTimeSeriesUniqueIdList();
+			Set<String> allIds = new HashSet<>();
+			if ( allResponse.getTimeSeriesUniqueIds() != null ) {
+				for ( TimeSeriesUniqueIds id : allResponse.getTimeSeriesUniqueIds() ) {
+					allIds.add(id.getUniqueId());
+				}
+			}
+			int deleteCount = 0;
+			for ( TimeSeriesDescription timeSeriesDescription : data.timeSeriesDescriptionList ) {
+				if ( !allIds.contains(timeSeriesDescription.getUniqueId()) ) {
+					++deleteCount;
+				}
+			}
+
+			if ( !changedIds.isEmpty() || (deleteCount > 0) ) {
+				// Read the descriptions for the changed time series.
+				List<TimeSeriesDescription> changedDescriptionList = new ArrayList<>();
+				if ( !changedIds.isEmpty() ) {
+					changedDescriptionList = readTimeSeriesDescriptionList(changedIds, false);
+				}
+
+				// Merge the changed descriptions into the cached descriptions, replacing by unique ID,
+				// and remove the deleted time series.
+				Map<String,TimeSeriesDescription> descriptionMap = new LinkedHashMap<>();
+				for ( TimeSeriesDescription timeSeriesDescription : data.timeSeriesDescriptionList ) {
+					descriptionMap.put(timeSeriesDescription.getUniqueId(), timeSeriesDescription);
+				}
+				int addCount = 0;
+				for ( TimeSeriesDescription timeSeriesDescription : changedDescriptionList ) {
+					if ( descriptionMap.put(timeSeriesDescription.getUniqueId(), timeSeriesDescription) == null ) {
+						++addCount;
+					}
+				}
+				descriptionMap.keySet().retainAll(allIds);
+				List<TimeSeriesDescription> timeSeriesDescriptionList = new ArrayList<>(descriptionMap.values());
+				Collections.sort(timeSeriesDescriptionList, new TimeSeriesDescriptionComparator());
+				List<TimeSeriesUniqueIds> timeSeriesUniqueIdList = new ArrayList<>(timeSeriesDescriptionList.size());
+				for ( TimeSeriesDescription timeSeriesDescription : timeSeriesDescriptionList ) {
+					TimeSeriesUniqueIds id = new TimeSeriesUniqueIds();
+					id.setUniqueId(timeSeriesDescription.getUniqueId());
+					timeSeriesUniqueIdList.add(id);
+				}
+
+				// If a time series is for a new location, read the location data again.
+				Map<String,LocationDescription> locationDescriptionMap = new HashMap<>();
+				for ( LocationDescription locationDescription : data.locationDescriptionList ) {
+					locationDescriptionMap.put(locationDescription.getIdentifier(), locationDescription);
+				}
+				boolean newLocation = false;
+				for ( TimeSeriesDescription timeSeriesDescription : changedDescriptionList ) {
+					if ( !locationDescriptionMap.containsKey(timeSeriesDescription.getLocationIdentifier()) ) {
+						newLocation = true;
+						break;
+					}
+				}
+				if ( newLocation ) {
+					Message.printStatus(2, routine, "Changed time series include new locations - reading locations." );
+					data.locationDescriptionList = readLocationDescriptionList();
+					if ( data.locationDataCache == null ) {
+						data.locationDataList = readLocationDataList(data.locationDescriptionList);
+					}
+				}
+
+				data.timeSeriesUniqueIdList = timeSeriesUniqueIdList;
+				data.timeSeriesDescriptionList = timeSeriesDescriptionList;
+				createTimeSeriesCatalog ( data );
+				Message.printStatus(2, routine, "Refreshed time series catalog with " + changedDescriptionList.size()
+					+ " changed time series (" + addCount + " added) and " + deleteCount + " deleted time series, catalog has "
+					+ data.tscatalogList.size() + " time series." );
+			}
+			else {
+				Message.printStatus(2, routine, "No time series have changed or been deleted since " + token + "." );
+			}
+
+			data.timeSeriesChangesToken = changedSeries.getNextToken();
+			publishGlobalData ( data );
+			long elapsedMs = System.currentTimeMillis() - start;
+			setPluginProperty("CatalogCache.RefreshTimeMs", "" + elapsedMs);
+			setPluginProperty("CatalogCache.RefreshChangedCount", "" + changedIds.size());
+			setPluginProperty("CatalogCache.RefreshDeletedCount", "" + deleteCount);
+			// Save the snapshot so that the new token is used at the next startup:
+			// - requests that fail throw an exception above so the snapshot is only saved if all requests succeeded
+			writeCatalogSnapshot();
+			return true;
+		}
+		catch ( Exception e ) {
+			Message.printWarning(3, routine, "Error refreshing time series catalog (" + e + ") - reading all global data." );
+			return false;
+		}
+	}
+
+	/**
+	 * Schedule revalidation of the global data in the background, used when the catalog snapshot is enabled.
+	 * The global data are refreshed when the 'CatalogCacheTtl' expires and then again each time it expires.
+	 * Only the time series that have changed are read if possible (see refreshTimeSeriesCatalog()).
+	 * The time series catalog is replaced when the read is complete so that the datastore can be used during the read.
+	 * @param snapshotCreated time that the snapshot used at startup was created,
+	 * or null if global data were read from web services at startup
+	 */
+	private void scheduleCatalogRefresh ( Instant snapshotCreated ) {
+		String routine = getClass().getSimpleName() + ".scheduleCatalogRefresh";
+		long ttlSeconds = getCatalogCacheTtlSeconds();
+		long delaySeconds = ttlSeconds;
+		if ( snapshotCreated != null ) {
+			long ageSeconds = Instant.now().getEpochSecond() - snapshotCreated.getEpochSecond();
+			delaySeconds = Math.max(0, ttlSeconds - ageSeconds);
+		}
+		Message.printStatus(2, routine, "Datastore \"" + getName() + "\" global data will be revalidated in "
+			+ delaySeconds + " seconds and then every " + ttlSeconds + " seconds." );
+		this.catalogRefreshExecutor = Executors.newSingleThreadScheduledExecutor ( runnable -> {
+			Thread thread = new Thread(runnable, "aquarius-catalogrefresh-" + getName());
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.catalogRefreshExecutor.scheduleWithFixedDelay ( () -> {
+			try {
+				Message.printStatus(2, routine, "Revalidating global data for datastore \"" + getName() + "\"." );
+				// Refresh only the time series that have changed if possible, otherwise read all global data.
+				if ( !refreshTimeSeriesCatalog() ) {
+					readGlobalData();
+				}
+				setPluginProperty("CatalogCache.Revalidated", "" + Instant.now());
+			}
+			catch ( Exception e ) {
+				// Catch all exceptions so that future revalidations are not cancelled.
+				Message.printWarning(3, routine, "Error revalidating global data for datastore \"" + getName() + "\" (" + e + ")." );
+			}
+		}, delaySeconds, ttlSeconds, TimeUnit.SECONDS );
+	}
+
+	/**
+	 * Close a client that was replaced by a new session, after the read timeout plus a grace period
+	 * so that requests that are using the client have completed or timed out.
+	 * Must be called with the session lock.
+	 * @param oldClient the client that was replaced
+	 */
+	private void scheduleClientClose ( AquariusClient oldClient ) {
+		String routine = getClass().getSimpleName() + ".scheduleClientClose";
+		long readTimeoutMs = this.connectionSettings.getReadTimeoutMs();
+		if ( readTimeoutMs == 0 ) {
+			// No read timeout so use the default.
+			readTimeoutMs = DEFAULT_READ_TIMEOUT_MS;
+		}
+		long delayMs = readTimeoutMs + CLIENT_CLOSE_GRACE_MS;
+		if ( this.clientCloseExecutor == null ) {
+			this.clientCloseExecutor = Executors.newSingleThreadScheduledExecutor ( runnable -> {
+				Thread thread = new Thread(runnable, "aquarius-clientclose-" + getName());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		this.clientCloseExecutor.schedule ( () -> {
+			try {
+				oldClient.close();
+				Message.printStatus(2, routine, "Closed the previous Aquarius client for datastore \"" + getName() + "\"." );
+			}
+			catch ( Exception e ) {
+				// The session may have already expired on the server.
+				Message.printWarning(3, routine, "Error closing the previous Aquarius client for datastore \""
+					+ getName() + "\" (" + e + ")." );
+			}
+		}, delayMs, TimeUnit.MILLISECONDS );
+	}
+
+	/**
+	 * Set a plugin property.
+	 * @param name the property name
+	 * @param value the property value
+	 */
+	private synchronized void setPluginProperty ( String name, Object value ) {
+		this.pluginProperties.put(name, value);
+	}
+
+	/**
+	 * Wait for the datastore to be initialized, using the 'InitializationWaitMs' configuration property
+	 * to determine how long to wait.
+	 * @throws RuntimeException if the datastore is still initializing after the wait
+	 */
+	public void waitForInitialization () {
+		long waitMs = DEFAULT_INITIALIZATION_WAIT_MS;
+		String prop = getProperty("InitializationWaitMs");
+		if ( (prop != null) && StringUtil.isLong(prop.trim()) ) {
+			waitMs = Long.parseLong(prop.trim());
+		}
+		waitForInitialization ( waitMs );
+	}
+
+	/**
+	 * Wait for the datastore to be initialized.
+	 * @param waitMs the maximum time to wait in milliseconds
+	 * @throws RuntimeException if the datastore is still initializing after the wait
+	 */
+	public void waitForInitialization ( long waitMs ) {
+		if ( isInitialized() ) {
+			return;
+		}
+		String routine = getClass().getSimpleName() + ".waitForInitialization";
+		Message.printStatus(2, routine, "Waiting up to " + waitMs + " ms for datastore \"" + getName() + "\" to initialize." );
+		try {
+			this.initializationFuture.get(waitMs, TimeUnit.MILLISECONDS);
+		}
+		catch ( TimeoutException e ) {
+			throw new RuntimeException ( "Datastore \"" + getName() + "\" is initializing (reading global data) - try again later." );
+		}
+		catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException ( "Interrupted waiting for datastore \"" + getName() + "\" to initialize." );
+		}
+		catch ( ExecutionException e ) {
+			throw new RuntimeException ( "Datastore \"" + getName() + "\" initialization failed (" + e.getCause() + ")." );
+		}
+	}
+
+	/**
+	 * Write the catalog snapshot file from the global data.
+	 * Errors are logged and otherwise ignored because the snapshot is only used to start quickly.
+	 */
+	private void writeCatalogSnapshot () {
+		String routine = getClass().getSimpleName() + ".writeCatalogSnapshot";
+		File file = getCatalogSnapshotFile();
+		long start = System.currentTimeMillis();
+		try {
+			String server = getProperty("ServiceRootUrl");
+			GlobalData data = this.globalData;
+			CatalogSnapshot snapshot = new CatalogSnapshot ( (server == null ? "" : server), Instant.now(), data.timeSeriesChangesToken,
+				data.locationDescriptionList, (data.locationDataCache == null), data.locationDataList, data.parameterMetadataList,
+				data.timeSeriesUniqueIdList, data.timeSeriesDescriptionList );
+			snapshot.write(file);
+			setPluginProperty("CatalogCache.Created", "" + snapshot.getCreated());
+			Message.printStatus(2, routine, "Wrote catalog snapshot for datastore \"" + getName() + "\" to \"" + file
+				+ "\" in " + (System.currentTimeMillis() - start) + " ms." );
+		}
+		catch ( Exception e ) {
+			Message.printWarning(3, routine, "Error writing catalog snapshot file \"" + file + "\" (" + e + ")." );
+		}
+	}
+
+	/**
+	 * Token and period for a previous read, used to avoid reading time series that have not changed.
+	 * The points are saved in the changed series cache (see getChangedSeriesCache()).
+	 */
+	private static class PreviousRead {
+		/**
+		 * Token (NextToken) from the changed time series request that was made before the read.
+		 */
+		Instant token;
+
+		/**
+		 * Start of the period that was read, UTC epoch milliseconds.
+		 */
+		long fromMs;
+
+		/**
+		 * End of the period that was read, UTC epoch milliseconds.
+		 */
+		long toMs;
+
+		PreviousRead ( Instant token, long fromMs, long toMs ) {
+			this.token = token;
+			this.fromMs = fromMs;
+			this.toMs = toMs;
+		}
+	}
+
+}
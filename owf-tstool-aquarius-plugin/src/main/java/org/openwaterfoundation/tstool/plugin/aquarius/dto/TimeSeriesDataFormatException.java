@@ -0,0 +1,52 @@
+// TimeSeriesDataFormatException - exception for time series data responses that cannot be decoded
+
+/* NoticeStart
+
+OWF TSTool Aquarius Plugin
+Copyright (C) 2025 Open Water Foundation
+
+OWF TSTool Aquarius Plugin is free software:  you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+OWF TSTool Aquarius Plugin is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+    along with OWF TSTool Aquarius Plugin.  If not, see <https://www.gnu.org/licenses/>.
+
+NoticeEnd */
+
+package org.openwaterfoundation.tstool.plugin.aquarius.dto;
+
+import java.io.IOException;
+
+/**
+ * Exception thrown when a time series data response is read but its content cannot be decoded
+ * (invalid JSON or unexpected content), as opposed to an error making the request or reading the response.
+ * This allows the calling code to read the data with another decoder only if the content is the problem.
+ */
+@SuppressWarnings("serial")
+public class TimeSeriesDataFormatException extends IOException {
+
+	/**
+	 * Constructor.
+	 * @param message the exception message
+	 */
+	public TimeSeriesDataFormatException ( String message ) {
+		super ( message );
+	}
+
+	/**
+	 * Constructor.
+	 * @param message the exception message
+	 * @param cause the exception that caused the problem
+	 */
+	public TimeSeriesDataFormatException ( String message, Throwable cause ) {
+		super ( message, cause );
+	}
+
+}
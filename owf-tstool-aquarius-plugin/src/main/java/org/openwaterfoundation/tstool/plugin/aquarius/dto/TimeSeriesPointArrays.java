@@ -0,0 +1,482 @@
+// TimeSeriesPointArrays - time series data points stored in primitive arrays
+
+/* NoticeStart
+
+OWF TSTool Aquarius Plugin
+Copyright (C) 2025 Open Water Foundation
+
+OWF TSTool Aquarius Plugin is free software:  you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+OWF TSTool Aquarius Plugin is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+    along with OWF TSTool Aquarius Plugin.  If not, see <https://www.gnu.org/licenses/>.
+
+NoticeEnd */
+
+package org.openwaterfoundation.tstool.plugin.aquarius.dto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.aquaticinformatics.aquarius.sdk.timeseries.servicemodels.Publish.TimeSeriesPoint;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import org.openwaterfoundation.tstool.plugin.aquarius.util.TimeUtil;
+
+/**
+ * Time series data points stored in primitive arrays, with timestamps as UTC epoch milliseconds
+ * and missing values as NaN.
+ * The points can be parsed directly from the JSON response of the GetTimeSeriesCorrectedData and GetTimeSeriesRawData
+ * services using a streaming parser, which avoids creating the SDK objects for each point.
+ * The GetTimeAlignedData service response can also be parsed into arrays for each time series (see parseTimeAligned()).
+ * The arrays may be longer than the number of points so use size() to limit loops.
+ */
+public class TimeSeriesPointArrays {
+
+	/**
+	 * Initial capacity of the arrays when parsing.
+	 */
+	private static final int INITIAL_CAPACITY = 1024;
+
+	/**
+	 * Factory for JSON parsers, which is thread-safe and can be shared.
+	 */
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	/**
+	 * Point timestamps as UTC epoch milliseconds.
+	 * Aquarius timestamps have 100 nanosecond precision and any fraction of a millisecond is truncated.
+	 */
+	private long [] times;
+
+	/**
+	 * Point values, NaN if missing.
+	 */
+	private double [] values;
+
+	/**
+	 * Number of points.
+	 */
+	private int size = 0;
+
+	/**
+	 * Constructor.
+	 * @param capacity the initial capacity of the arrays
+	 */
+	public TimeSeriesPointArrays ( int capacity ) {
+		this.times = new long[Math.max(capacity, 1)];
+		this.values = new double[Math.max(capacity, 1)];
+	}
+
+	/**
+	 * Add a point, increasing the size of the arrays if necessary.
+	 * @param time the point timestamp as UTC epoch milliseconds
+	 * @param value the point value, NaN if missing
+	 */
+	public void add ( long time, double value ) {
+		if ( this.size == this.times.length ) {
+			int capacity = this.times.length*2;
+			this.times = Arrays.copyOf(this.times, capacity);
+			this.values = Arrays.copyOf(this.values, capacity);
+		}
+		this.times[this.size] = time;
+		this.values[this.size] = value;
+		++this.size;
+	}
+
+	/**
+	 * Create the point arrays from the SDK points.
+	 * @param pointList list of points from the SDK response, can be null
+	 * @return the point arrays, guaranteed to be non-null
+	 */
+	public static TimeSeriesPointArrays fromPoints ( List<TimeSeriesPoint> pointList ) {
+		if ( pointList == null ) {
+			return new TimeSeriesPointArrays(1);
+		}
+		TimeSeriesPointArrays points = new TimeSeriesPointArrays(pointList.size());
+		for ( TimeSeriesPoint point : pointList ) {
+			Instant instant = point.getTimestamp().getDateTimeOffset();
+			Double value = null;
+			if ( point.getValue() != null ) {
+				value = point.getValue().getNumeric();
+			}
+			points.add(instant.toEpochMilli(), (value == null) ? Double.NaN : value);
+		}
+		return points;
+	}
+
+	/**
+	 * Return the point timestamps as UTC epoch milliseconds.
+	 * Only the first size() values are used.
+	 * @return the point timestamps
+	 */
+	public long [] getTimes () {
+		return this.times;
+	}
+
+	/**
+	 * Return the point values, NaN if missing.
+	 * Only the first size() values are used.
+	 * @return the point values
+	 */
+	public double [] getValues () {
+		return this.values;
+	}
+
+	/**
+	 * Return the index of the first point with a timestamp after a time, using a binary search.
+	 * @param timeMs the time, UTC epoch milliseconds
+	 * @return the index of the first point after the time, or size() if no points are after the time
+	 */
+	public int indexAfter ( long timeMs ) {
+		int low = 0;
+		int high = this.size;
+		while ( low < high ) {
+			int mid = (low + high) >>> 1;
+			if ( this.times[mid] <= timeMs ) {
+				low = mid + 1;
+			}
+			else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Parse the points from a time series data service JSON response.
+	 * Only the 'Points' array 'Timestamp' and 'Value.Numeric' are used and all other content is skipped.
+	 * @param in input stream for the JSON response, which is not closed
+	 * @return the point arrays, guaranteed to be non-null
+	 * @throws TimeSeriesDataFormatException if the response cannot be parsed
+	 * @throws IOException if the response cannot be read
+	 */
+	public static TimeSeriesPointArrays parse ( InputStream in ) throws IOException {
+		TimeSeriesPointArrays points = new TimeSeriesPointArrays(INITIAL_CAPACITY);
+		try ( JsonParser parser = JSON_FACTORY.createParser(in) ) {
+			if ( parser.nextToken() != JsonToken.START_OBJECT ) {
+				throw new TimeSeriesDataFormatException("Time series data response is not a JSON object.");
+			}
+			while ( parser.nextToken() == JsonToken.FIELD_NAME ) {
+				String fieldName = parser.getCurrentName();
+				JsonToken token = parser.nextToken();
+				if ( "Points".equals(fieldName) && (token == JsonToken.START_ARRAY) ) {
+					while ( parser.nextToken() == JsonToken.START_OBJECT ) {
+						parsePoint(parser, points);
+					}
+				}
+				else {
+					parser.skipChildren();
+				}
+			}
+		}
+		catch ( JsonProcessingException e ) {
+			// The response was read but is not valid JSON.
+			throw new TimeSeriesDataFormatException("Time series data response cannot be parsed (" + e.getOriginalMessage() + ").", e);
+		}
+		return points;
+	}
+
+	/**
+	 * Parse the points from a time-aligned data service (GetTimeAlignedData) JSON response,
+	 * which contains the points for many time series on a common time axis.
+	 * The 'TimeSeries' array lists the time series in the order of the 'NumericValue1', 'NumericValue2', etc. point values.
+	 * Only timestamps that have a value for a time series are added to its points,
+	 * so that the points are the same as if the time series was read individually.
+	 * @param in input stream for the JSON response, which is not closed
+	 * @return a map of time series unique identifier to point arrays, in the order of the response 'TimeSeries' array
+	 * @throws TimeSeriesDataFormatException if the response cannot be parsed
+	 * @throws IOException if the response cannot be read
+	 */
+	public static Map<String,TimeSeriesPointArrays> parseTimeAligned ( InputStream in ) throws IOException {
+		// The 'TimeSeries' array may be before or after the 'Points' array so save the points by column.
+		List<String> uniqueIdList = new ArrayList<>();
+		List<TimeSeriesPointArrays> columnList = new ArrayList<>();
+		try ( JsonParser parser = JSON_FACTORY.createParser(in) ) {
+			if ( parser.nextToken() != JsonToken.START_OBJECT ) {
+				throw new TimeSeriesDataFormatException("Time-aligned data response is not a JSON object.");
+			}
+			while ( parser.nextToken() == JsonToken.FIELD_NAME ) {
+				String fieldName = parser.getCurrentName();
+				JsonToken token = parser.nextToken();
+				if ( "TimeSeries".equals(fieldName) && (token == JsonToken.START_ARRAY) ) {
+					while ( parser.nextToken() == JsonToken.START_OBJECT ) {
+						String uniqueId = null;
+						while ( parser.nextToken() == JsonToken.FIELD_NAME ) {
+							String timeSeriesFieldName = parser.getCurrentName();
+							JsonToken timeSeriesToken = parser.nextToken();
+							if ( "UniqueId".equals(timeSeriesFieldName) && (timeSeriesToken == JsonToken.VALUE_STRING) ) {
+								uniqueId = parser.getText();
+							}
+							else {
+								parser.skipChildren();
+							}
+						}
+						uniqueIdList.add(uniqueId);
+					}
+				}
+				else if ( "Points".equals(fieldName) && (token == JsonToken.START_ARRAY) ) {
+					while ( parser.nextToken() == JsonToken.START_OBJECT ) {
+						parseTimeAlignedPoint(parser, columnList);
+					}
+				}
+				else {
+					parser.skipChildren();
+				}
+			}
+		}
+		catch ( JsonProcessingException e ) {
+			// The response was read but is not valid JSON.
+			throw new TimeSeriesDataFormatException("Time-aligned data response cannot be parsed (" + e.getOriginalMessage() + ").", e);
+		}
+		if ( columnList.size() > uniqueIdList.size() ) {
+			throw new TimeSeriesDataFormatException("Time-aligned data response has values for " + columnList.size()
+				+ " time series but only " + uniqueIdList.size() + " time series are listed.");
+		}
+		Map<String,TimeSeriesPointArrays> pointsMap = new LinkedHashMap<>();
+		for ( int i = 0; i < uniqueIdList.size(); i++ ) {
+			String uniqueId = uniqueIdList.get(i);
+			if ( uniqueId == null ) {
+				throw new TimeSeriesDataFormatException("Time-aligned data response time series " + (i + 1) + " does not have a UniqueId.");
+			}
+			TimeSeriesPointArrays points = (i < columnList.size()) ? columnList.get(i) : null;
+			if ( points == null ) {
+				// No values in the period.
+				points = new TimeSeriesPointArrays(1);
+			}
+			pointsMap.put(uniqueId, points);
+		}
+		return pointsMap;
+	}
+
+	/**
+	 * Parse a time-aligned point object, with the parser positioned on the point START_OBJECT.
+	 * The values are in 'NumericValue1', 'NumericValue2', etc., which are null or omitted if the time series
+	 * does not have a value at the timestamp.
+	 * @param parser the JSON parser
+	 * @param columnList the point arrays for each time series column, which are added as needed
+	 */
+	private static void parseTimeAlignedPoint ( JsonParser parser, List<TimeSeriesPointArrays> columnList ) throws IOException {
+		long time = Long.MIN_VALUE;
+		// Values are saved until the timestamp is known because the fields may be in any order.
+		int valueCount = 0;
+		int [] columns = null;
+		double [] values = null;
+		while ( parser.nextToken() == JsonToken.FIELD_NAME ) {
+			String fieldName = parser.getCurrentName();
+			JsonToken token = parser.nextToken();
+			if ( "Timestamp".equals(fieldName) && (token == JsonToken.VALUE_STRING) ) {
+				time = parseTimestamp(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+			}
+			else if ( fieldName.startsWith("NumericValue")
+				&& ((token == JsonToken.VALUE_NUMBER_FLOAT) || (token == JsonToken.VALUE_NUMBER_INT)) ) {
+				int column = parseColumn(fieldName, "NumericValue".length());
+				if ( column < 0 ) {
+					continue;
+				}
+				if ( columns == null ) {
+					columns = new int[4];
+					values = new double[4];
+				}
+				else if ( valueCount == columns.length ) {
+					columns = Arrays.copyOf(columns, valueCount*2);
+					values = Arrays.copyOf(values, valueCount*2);
+				}
+				columns[valueCount] = column;
+				values[valueCount] = parser.getDoubleValue();
+				++valueCount;
+			}
+			else {
+				parser.skipChildren();
+			}
+		}
+		if ( time == Long.MIN_VALUE ) {
+			throw new TimeSeriesDataFormatException("Time-aligned point does not have a Timestamp.");
+		}
+		for ( int i = 0; i < valueCount; i++ ) {
+			int column = columns[i];
+			while ( columnList.size() <= column ) {
+				columnList.add(null);
+			}
+			TimeSeriesPointArrays points = columnList.get(column);
+			if ( points == null ) {
+				points = new TimeSeriesPointArrays(INITIAL_CAPACITY);
+				columnList.set(column, points);
+			}
+			points.add(time, values[i]);
+		}
+	}
+
+	/**
+	 * Parse the 1-based column number at the end of a field name (e.g., "NumericValue2").
+	 * @return the 0-based column, or -1 if the field name does not end in a positive number
+	 */
+	private static int parseColumn ( String fieldName, int offset ) {
+		int length = fieldName.length() - offset;
+		if ( (length < 1) || (length > 4) ) {
+			return -1;
+		}
+		int column = parseDigits(fieldName.toCharArray(), offset, length);
+		return (column > 0) ? (column - 1) : -1;
+	}
+
+	/**
+	 * Parse a point object, with the parser positioned on the point START_OBJECT.
+	 * @param parser the JSON parser
+	 * @param points the point arrays to add to
+	 */
+	private static void parsePoint ( JsonParser parser, TimeSeriesPointArrays points ) throws IOException {
+		long time = Long.MIN_VALUE;
+		double value = Double.NaN;
+		while ( parser.nextToken() == JsonToken.FIELD_NAME ) {
+			String fieldName = parser.getCurrentName();
+			JsonToken token = parser.nextToken();
+			if ( "Timestamp".equals(fieldName) && (token == JsonToken.VALUE_STRING) ) {
+				time = parseTimestamp(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+			}
+			else if ( "Value".equals(fieldName) && (token == JsonToken.START_OBJECT) ) {
+				while ( parser.nextToken() == JsonToken.FIELD_NAME ) {
+					String valueFieldName = parser.getCurrentName();
+					JsonToken valueToken = parser.nextToken();
+					if ( "Numeric".equals(valueFieldName)
+						&& ((valueToken == JsonToken.VALUE_NUMBER_FLOAT) || (valueToken == JsonToken.VALUE_NUMBER_INT)) ) {
+						value = parser.getDoubleValue();
+					}
+					else {
+						parser.skipChildren();
+					}
+				}
+			}
+			else {
+				parser.skipChildren();
+			}
+		}
+		if ( time == Long.MIN_VALUE ) {
+			throw new TimeSeriesDataFormatException("Time series point does not have a Timestamp.");
+		}
+		points.add(time, value);
+	}
+
+	/**
+	 * Parse an ISO 8601 timestamp with offset, as used by Aquarius (e.g., "2025-01-02T03:04:05.1234567-07:00"),
+	 * without creating objects.  Other formats are parsed with OffsetDateTime.
+	 * @param chars the characters containing the timestamp
+	 * @param offset the offset of the timestamp in the characters
+	 * @param length the length of the timestamp
+	 * @return the timestamp as UTC epoch milliseconds
+	 * @throws TimeSeriesDataFormatException if the timestamp cannot be parsed
+	 */
+	static long parseTimestamp ( char [] chars, int offset, int length ) throws IOException {
+		int end = offset + length;
+		if ( (length >= 20) && (chars[offset + 4] == '-') && (chars[offset + 7] == '-') && (chars[offset + 10] == 'T')
+			&& (chars[offset + 13] == ':') && (chars[offset + 16] == ':') ) {
+			int year = parseDigits(chars, offset, 4);
+			int month = parseDigits(chars, offset + 5, 2);
+			int day = parseDigits(chars, offset + 8, 2);
+			int hour = parseDigits(chars, offset + 11, 2);
+			int minute = parseDigits(chars, offset + 14, 2);
+			int second = parseDigits(chars, offset + 17, 2);
+			int pos = offset + 19;
+			int millis = 0;
+			if ( (pos < end) && (chars[pos] == '.') ) {
+				// Fractional seconds, only milliseconds are used.
+				++pos;
+				int digits = 0;
+				while ( (pos < end) && (chars[pos] >= '0') && (chars[pos] <= '9') ) {
+					if ( digits < 3 ) {
+						millis = millis*10 + (chars[pos] - '0');
+					}
+					++digits;
+					++pos;
+				}
+				for ( ; digits < 3; digits++ ) {
+					millis *= 10;
+				}
+			}
+			int offsetSeconds = Integer.MIN_VALUE;
+			if ( (pos == (end - 1)) && (chars[pos] == 'Z') ) {
+				offsetSeconds = 0;
+			}
+			else if ( (pos == (end - 6)) && ((chars[pos] == '+') || (chars[pos] == '-')) && (chars[pos + 3] == ':') ) {
+				int offsetHours = parseDigits(chars, pos + 1, 2);
+				int offsetMinutes = parseDigits(chars, pos + 4, 2);
+				if ( (offsetHours >= 0) && (offsetMinutes >= 0) ) {
+					offsetSeconds = (offsetHours*3600 + offsetMinutes*60)*((chars[pos] == '-') ? -1 : 1);
+				}
+			}
+			if ( (year >= 0) && (month >= 1) && (month <= 12) && (day >= 1) && (day <= 31) && (hour >= 0) && (hour <= 23)
+				&& (minute >= 0) && (minute <= 59) && (second >= 0) && (second <= 59) && (offsetSeconds != Integer.MIN_VALUE) ) {
+				long epochSeconds = TimeUtil.daysFromCivil(year, month, day)*86400L + hour*3600L + minute*60L + second
+					- offsetSeconds;
+				return epochSeconds*1000L + millis;
+			}
+		}
+		// Not the expected format so use the general parser.
+		String timestamp = new String(chars, offset, length);
+		try {
+			return OffsetDateTime.parse(timestamp).toInstant().toEpochMilli();
+		}
+		catch ( Exception e ) {
+			throw new TimeSeriesDataFormatException("Unable to parse time series point timestamp \"" + timestamp + "\".", e);
+		}
+	}
+
+	/**
+	 * Parse a fixed number of decimal digits.
+	 * @return the integer value, or -1 if a character is not a digit
+	 */
+	private static int parseDigits ( char [] chars, int offset, int count ) {
+		int value = 0;
+		for ( int i = offset; i < (offset + count); i++ ) {
+			char c = chars[i];
+			if ( (c < '0') || (c > '9') ) {
+				return -1;
+			}
+			value = value*10 + (c - '0');
+		}
+		return value;
+	}
+
+	/**
+	 * Return the number of points.
+	 * @return the number of points
+	 */
+	public int size () {
+		return this.size;
+	}
+
+	/**
+	 * Return the points in a period.
+	 * The points must be in time order, as returned by the services.
+	 * @param fromMs the start of the period (inclusive), UTC epoch milliseconds
+	 * @param toMs the end of the period (inclusive), UTC epoch milliseconds
+	 * @return new point arrays containing the points in the period, guaranteed to be non-null
+	 */
+	public TimeSeriesPointArrays subset ( long fromMs, long toMs ) {
+		int start = indexAfter(fromMs - 1);
+		int end = Math.max(start, indexAfter(toMs));
+		TimeSeriesPointArrays points = new TimeSeriesPointArrays(end - start);
+		System.arraycopy(this.times, start, points.times, 0, end - start);
+		System.arraycopy(this.values, start, points.values, 0, end - start);
+		points.size = end - start;
+		return points;
+	}
+
+}
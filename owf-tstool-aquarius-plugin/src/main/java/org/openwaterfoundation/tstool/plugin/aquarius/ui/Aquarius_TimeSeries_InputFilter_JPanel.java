@@ -26,6 +26,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import javax.swing.SwingUtilities;
+
 import org.openwaterfoundation.tstool.plugin.aquarius.dao.TimeSeriesCatalog;
 import org.openwaterfoundation.tstool.plugin.aquarius.datastore.AquariusDataStore;
 
@@ -76,15 +78,28 @@ public class Aquarius_TimeSeries_InputFilter_JPanel extends InputFilter_JPanel {
 		// Read the data to populate filter choices.
 
 		List<TimeSeriesCatalog> tscatalogList = new ArrayList<>();
-		try {
-			// By default all time series are included in the catalog:
-			// - this allows providing query filters that are found in the time series list
-			// - use the saved global data rather than rereading to improve performance
-			tscatalogList = datastore.getTimeSeriesCatalog (false);
+		boolean initializing = false;
+		if ( !datastore.isInitialized() ) {
+			// The datastore is reading global data in the background:
+			// - don't wait because the UI would be blocked
+			// - allow the location to be typed and reset the filters when initialization is complete
+			initializing = true;
+			Message.printStatus(2, routine, "Datastore \"" + datastore.getName()
+				+ "\" is initializing.  Filter choices will be set when initialization is complete.");
+			datastore.getInitializationFuture().thenRun ( () ->
+				SwingUtilities.invokeLater ( () -> setFilters ( numFilterGroups ) ) );
 		}
-		catch ( Exception e ) {
-			Message.printWarning(2, routine, "Exception reading the Aquarius time series list");
-			Message.printWarning(2, routine, e);
+		else {
+			try {
+				// By default all time series are included in the catalog:
+				// - this allows providing query filters that are found in the time series list
+				// - use the saved global data rather than rereading to improve performance
+				tscatalogList = datastore.getTimeSeriesCatalog (false);
+			}
+			catch ( Exception e ) {
+				Message.printWarning(2, routine, "Exception reading the Aquarius time series list");
+				Message.printWarning(2, routine, e);
+			}
 		}
 		
 		// The internal names for filters match the /tscatalog web service query parameters.
@@ -135,7 +150,7 @@ public class Aquarius_TimeSeries_InputFilter_JPanel extends InputFilter_JPanel {
 	    Collections.sort(locIdChoices,String.CASE_INSENSITIVE_ORDER);
 	    InputFilter filter = new InputFilter("Location - ID",
 	        "loc_id", "locId", "loc_id",
-	        StringUtil.TYPE_STRING, locIdChoices, locIdChoices, false);
+	        StringUtil.TYPE_STRING, locIdChoices, locIdChoices, initializing);
 	    filter.removeConstraint(InputFilter.INPUT_GREATER_THAN);
 	    filter.removeConstraint(InputFilter.INPUT_GREATER_THAN_OR_EQUAL_TO);
 	    filter.removeConstraint(InputFilter.INPUT_LESS_THAN);
@@ -149,7 +164,13 @@ public class Aquarius_TimeSeries_InputFilter_JPanel extends InputFilter_JPanel {
             StringUtil.TYPE_STRING, stationNameChoices, stationNameChoices, true));
             */
 
-	  	setToolTipText("<html>Specify one or more input filters to limit query, will be ANDed.</html>");
+	  	if ( initializing ) {
+	  		setToolTipText("<html>Specify one or more input filters to limit query, will be ANDed.<br>"
+	  			+ "The datastore is initializing - choices will be available when initialization is complete.</html>");
+	  	}
+	  	else {
+	  		setToolTipText("<html>Specify one or more input filters to limit query, will be ANDed.</html>");
+	  	}
 	    
 	    int numVisible = 14;
 	    setInputFilters(filters, numFilterGroups, numVisible);
@@ -23,6 +23,9 @@ NoticeEnd */
 package org.openwaterfoundation.tstool.plugin.aquarius.ui;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.swing.SwingUtilities;
 
 import RTi.Util.GUI.JWorksheet_AbstractRowTableModel;
 import org.openwaterfoundation.tstool.plugin.aquarius.datastore.AquariusDataStore;
@@ -93,6 +96,26 @@ public class Aquarius_TimeSeries_TableModel extends JWorksheet_AbstractRowTableM
 	*/
 	private List<TimeSeriesCatalog> timeSeriesCatalogList = null;
 
+	/**
+	Whether a table update has been requested because location data were read in the background,
+	used so that multiple reads that complete at the same time only update the table once.
+	*/
+	private AtomicBoolean locationDataUpdatePending = new AtomicBoolean(false);
+
+	/**
+	Called when location data have been read in the background, to update the table in the Swing event thread.
+	*/
+	private Runnable locationDataLoaded = () -> {
+		if ( this.locationDataUpdatePending.compareAndSet(false, true) ) {
+			SwingUtilities.invokeLater ( () -> {
+				this.locationDataUpdatePending.set(false);
+				if ( _rows > 0 ) {
+					fireTableRowsUpdated(0, _rows - 1);
+				}
+			});
+		}
+	};
+
 	/**
 	Constructor.  This builds the model for displaying the given Aquarius time series data.
 	@param dataStore the data store for the data
@@ -325,6 +348,13 @@ public class Aquarius_TimeSeries_TableModel extends JWorksheet_AbstractRowTableM
 		}
 
 		TimeSeriesCatalog timeSeriesCatalog = this.timeSeriesCatalogList.get(row);
+		if ( ((col == COL_LOC_LONGITUDE) || (col == COL_LOC_LATITUDE) || (col == COL_LOC_ELEVATION) || (col == COL_LOC_ELEVATION_UNITS))
+			&& !timeSeriesCatalog.isLocationDataLoaded() ) {
+			// Location data are loaded lazily and have not been read:
+			// - read in the background so that the table does not wait for web service requests
+			// - the values are blank until the table is updated
+			timeSeriesCatalog.loadLocationDataInBackground(this.locationDataLoaded);
+		}
 		switch (col) {
 			// OK to allow null because will be displayed as blank.
 			case COL_LOC_ID: return timeSeriesCatalog.getLocId();
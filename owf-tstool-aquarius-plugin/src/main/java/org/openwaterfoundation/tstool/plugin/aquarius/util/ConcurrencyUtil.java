@@ -0,0 +1,78 @@
+// ConcurrencyUtil - concurrency utilities, for example to run web service requests in parallel
+
+/* NoticeStart
+
+OWF TSTool Aquarius Plugin
+Copyright (C) 2025 Open Water Foundation
+
+OWF TSTool Aquarius Plugin is free software:  you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+OWF TSTool Aquarius Plugin is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+    along with OWF TSTool Aquarius Plugin.  If not, see <https://www.gnu.org/licenses/>.
+
+NoticeEnd */
+
+package org.openwaterfoundation.tstool.plugin.aquarius.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency utilities used with Aquarius datastore, for example to run web service requests in parallel.
+ */
+public class ConcurrencyUtil {
+
+	/**
+	 * Create a fixed size thread pool that uses daemon threads:
+	 * - daemon threads are used so that TSTool can exit even if a pool was not shut down
+	 * - threads are named using the prefix to help with troubleshooting, for example "aquarius-read-1"
+	 * @param namePrefix prefix for thread names
+	 * @param threadCount number of threads in the pool, will be set to 1 if less than 1
+	 * @return a new thread pool, which should be shut down when no longer needed
+	 */
+	public static ExecutorService newDaemonThreadPool ( String namePrefix, int threadCount ) {
+		if ( threadCount < 1 ) {
+			threadCount = 1;
+		}
+		AtomicInteger threadNumber = new AtomicInteger(0);
+		ThreadFactory threadFactory = runnable -> {
+			Thread thread = new Thread(runnable, namePrefix + "-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+		return Executors.newFixedThreadPool(threadCount, threadFactory);
+	}
+
+	/**
+	 * Parse a concurrency (thread count) property value.
+	 * @param value the property value to parse, can be null or empty
+	 * @param defaultValue the value to return if the value is not specified or is invalid
+	 * @return the concurrency, at least 1
+	 */
+	public static int parseConcurrency ( String value, int defaultValue ) {
+		int concurrency = defaultValue;
+		if ( (value != null) && !value.trim().isEmpty() ) {
+			try {
+				concurrency = Integer.parseInt(value.trim());
+			}
+			catch ( NumberFormatException e ) {
+				concurrency = defaultValue;
+			}
+		}
+		if ( concurrency < 1 ) {
+			concurrency = 1;
+		}
+		return concurrency;
+	}
+
+}
@@ -0,0 +1,390 @@
+// ConcurrentRequests - run web service requests with bounded concurrency and a per-request timeout
+
+/* NoticeStart
+
+OWF TSTool Aquarius Plugin
+Copyright (C) 2025 Open Water Foundation
+
+OWF TSTool Aquarius Plugin is free software:  you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+OWF TSTool Aquarius Plugin is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+    along with OWF TSTool Aquarius Plugin.  If not, see <https://www.gnu.org/licenses/>.
+
+NoticeEnd */
+
+package org.openwaterfoundation.tstool.plugin.aquarius.util;
+
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Run a list of web service requests with bounded concurrency and a per-request timeout.
+ * The timeout is not enforced by cancelling the request, which would not stop a blocked web service read.
+ * Instead, the timeout is available to the request while it runs (see getRequestTimeoutMs())
+ * and must be applied to the connection, so that the request fails and the connection is closed when the timeout is reached.
+ * Results are returned in the order of the requests.
+ * Failed requests can be retried, with a longer delay before each retry in case the server is busy.
+ * Failures are collected rather than thrown so that calling code can log a summary.
+ * Timing statistics (wall time and per-request latency) are also collected.
+ * @param <R> the result type for each request
+ */
+public class ConcurrentRequests<R> {
+
+	/**
+	 * A single request, which typically does a web service call.
+	 * @param <R> the result type
+	 */
+	public interface Request<R> {
+		/**
+		 * Run the request.
+		 * @return the result of the request
+		 * @throws Exception if the request fails
+		 */
+		R call () throws Exception;
+	}
+
+	/**
+	 * Delay before the first retry, milliseconds, which is multiplied by the retry number for later retries.
+	 */
+	private static final long RETRY_DELAY_MS = 1000;
+
+	/**
+	 * Timeout for the request that is running in the current thread, milliseconds, 0 for no timeout.
+	 */
+	private static final ThreadLocal<Long> requestTimeoutMs = ThreadLocal.withInitial(() -> Long.valueOf(0));
+
+	/**
+	 * Name used for threads and messages.
+	 */
+	private String name;
+
+	/**
+	 * Number of requests to run concurrently.
+	 */
+	private int concurrency;
+
+	/**
+	 * Timeout for each request in milliseconds, measured from when the request starts running, or 0 for no timeout.
+	 */
+	private long timeoutMs;
+
+	/**
+	 * Failure messages for the last run, keyed by the failure message, with the list of request labels,
+	 * only including requests that failed after all retries.
+	 */
+	private Map<String,List<String>> failureMap = new LinkedHashMap<>();
+
+	/**
+	 * Number of failed requests for the last run, after all retries.
+	 */
+	private int failureCount = 0;
+
+	/**
+	 * Number of requests that were retried in the last run, counting each retry.
+	 */
+	private int retryCount = 0;
+
+	/**
+	 * Latency for each request in the last run, including retries, milliseconds, sorted after the run.
+	 */
+	private long [] latencyMs = new long[0];
+
+	/**
+	 * Number of latency values that were set.
+	 */
+	private int latencyCount = 0;
+
+	/**
+	 * Wall time for the last run, milliseconds.
+	 */
+	private long wallTimeMs = 0;
+
+	/**
+	 * Constructor.
+	 * @param name name used for threads and messages, for example "aquarius-locationdata"
+	 * @param concurrency number of requests to run concurrently, at least 1
+	 * @param timeoutMs timeout for each request in milliseconds, or 0 for no timeout,
+	 * which the request applies to its connection (see getRequestTimeoutMs())
+	 */
+	public ConcurrentRequests ( String name, int concurrency, long timeoutMs ) {
+		this.name = name;
+		this.concurrency = Math.max(1, concurrency);
+		this.timeoutMs = Math.max(0, timeoutMs);
+	}
+
+	/**
+	 * Return the number of requests that failed in the last run, after all retries.
+	 * @return the number of requests that failed in the last run
+	 */
+	public int getFailureCount () {
+		return this.failureCount;
+	}
+
+	/**
+	 * Return a summary of the failures, with one line for each distinct failure message.
+	 * @param maxLabels the maximum number of request labels to list for each message
+	 * @return the failure summary, or an empty string if no failures
+	 */
+	public String getFailureSummary ( int maxLabels ) {
+		StringBuilder b = new StringBuilder();
+		for ( Map.Entry<String,List<String>> entry : this.failureMap.entrySet() ) {
+			List<String> labels = entry.getValue();
+			if ( b.length() > 0 ) {
+				b.append("\n");
+			}
+			b.append("  " + labels.size() + " failed (" + entry.getKey() + "): ");
+			for ( int i = 0; (i < labels.size()) && (i < maxLabels); i++ ) {
+				if ( i > 0 ) {
+					b.append(", ");
+				}
+				b.append(labels.get(i));
+			}
+			if ( labels.size() > maxLabels ) {
+				b.append(", ...");
+			}
+		}
+		return b.toString();
+	}
+
+	/**
+	 * Return the timeout for the request that is running in the current thread,
+	 * which should be used as the connection read timeout for web service requests.
+	 * @return the timeout in milliseconds, or 0 if the current thread is not running a request or no timeout is used
+	 */
+	public static long getRequestTimeoutMs () {
+		return requestTimeoutMs.get();
+	}
+
+	/**
+	 * Return the latency percentile for requests in the last run, using the nearest rank method.
+	 * @param percentile the percentile (0 to 100)
+	 * @return the latency in milliseconds, or 0 if no requests were run
+	 */
+	public long getLatencyPercentile ( double percentile ) {
+		if ( this.latencyCount == 0 ) {
+			return 0;
+		}
+		int rank = (int)Math.ceil(percentile/100.0*this.latencyCount);
+		rank = Math.max(1, Math.min(this.latencyCount, rank));
+		return this.latencyMs[rank - 1];
+	}
+
+	/**
+	 * Return the number of requests that were retried in the last run, counting each retry.
+	 * @return the number of requests that were retried in the last run
+	 */
+	public int getRetryCount () {
+		return this.retryCount;
+	}
+
+	/**
+	 * Return a one line summary of the timing for the last run.
+	 * @return a summary of the timing, for logging
+	 */
+	public String getTimingSummary () {
+		return "wall time " + this.wallTimeMs + " ms, concurrency " + this.concurrency + ", retries " + this.retryCount
+			+ ", latency ms p50=" + getLatencyPercentile(50) + " p90=" + getLatencyPercentile(90) + " p99=" + getLatencyPercentile(99)
+			+ " max=" + getLatencyPercentile(100);
+	}
+
+	/**
+	 * Return the wall time for the last run.
+	 * @return the wall time for the last run, milliseconds
+	 */
+	public long getWallTimeMs () {
+		return this.wallTimeMs;
+	}
+
+	/**
+	 * Run the requests without retries.
+	 * @param labels labels for each request, used in failure messages, for example location identifiers
+	 * @param requests requests to run, in the same order as labels
+	 * @return the results in the same order as the requests, with null for requests that failed or timed out
+	 * (requests that do not apply the timeout to their connection will be waited on until they complete)
+	 */
+	public List<R> run ( List<String> labels, List<Request<R>> requests ) {
+		return run ( labels, requests, 0 );
+	}
+
+	/**
+	 * Run the requests, retrying the requests that fail.
+	 * The delay before each retry is longer than the previous delay in case the server is busy.
+	 * The failure summary only includes the requests that failed after all retries.
+	 * @param labels labels for each request, used in failure messages, for example location identifiers
+	 * @param requests requests to run, in the same order as labels
+	 * @param retries the number of times to retry failed requests, 0 to not retry
+	 * @return the results in the same order as the requests, with null for requests that failed or timed out
+	 * (requests that do not apply the timeout to their connection will be waited on until they complete)
+	 */
+	public List<R> run ( List<String> labels, List<Request<R>> requests, int retries ) {
+		int size = requests.size();
+		List<R> results = new ArrayList<>(size);
+		List<Integer> pendingRequests = new ArrayList<>(size);
+		for ( int i = 0; i < size; i++ ) {
+			results.add(null);
+			pendingRequests.add(i);
+		}
+		this.retryCount = 0;
+		this.latencyMs = new long[size];
+		this.latencyCount = 0;
+		long wallStart = System.currentTimeMillis();
+		for ( int attempt = 0; (attempt <= retries) && !pendingRequests.isEmpty(); attempt++ ) {
+			if ( attempt > 0 ) {
+				try {
+					// Wait a bit longer before each retry in case the server is busy.
+					Thread.sleep(RETRY_DELAY_MS*attempt);
+				}
+				catch ( InterruptedException e ) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+				this.retryCount += pendingRequests.size();
+			}
+			// Only keep the failures for the last attempt.
+			this.failureMap.clear();
+			this.failureCount = 0;
+			List<String> attemptLabels = new ArrayList<>(pendingRequests.size());
+			List<Request<R>> attemptRequests = new ArrayList<>(pendingRequests.size());
+			for ( Integer iRequest : pendingRequests ) {
+				attemptLabels.add(labels.get(iRequest));
+				attemptRequests.add(requests.get(iRequest));
+			}
+			List<R> attemptResults = runAttempt(attemptLabels, attemptRequests);
+			List<Integer> failedRequests = new ArrayList<>();
+			for ( int i = 0; i < attemptResults.size(); i++ ) {
+				if ( attemptResults.get(i) == null ) {
+					failedRequests.add(pendingRequests.get(i));
+				}
+				else {
+					results.set(pendingRequests.get(i), attemptResults.get(i));
+				}
+			}
+			pendingRequests = failedRequests;
+		}
+		Arrays.sort(this.latencyMs, 0, this.latencyCount);
+		this.wallTimeMs = System.currentTimeMillis() - wallStart;
+		return results;
+	}
+
+	/**
+	 * Run the requests once, adding to the failures and latency statistics.
+	 * @param labels labels for each request
+	 * @param requests requests to run, in the same order as labels
+	 * @return the results in the same order as the requests, with null for requests that failed
+	 */
+	private List<R> runAttempt ( List<String> labels, List<Request<R>> requests ) {
+		int size = requests.size();
+		List<R> results = new ArrayList<>(size);
+		if ( size == 0 ) {
+			return results;
+		}
+		if ( (this.latencyCount + size) > this.latencyMs.length ) {
+			this.latencyMs = Arrays.copyOf(this.latencyMs, this.latencyCount + size);
+		}
+		// Start and end time for each request, used for latency statistics.
+		AtomicLongArray startMs = new AtomicLongArray(size);
+		AtomicLongArray endMs = new AtomicLongArray(size);
+		ExecutorService executor = ConcurrencyUtil.newDaemonThreadPool(this.name, Math.min(this.concurrency, size));
+		try {
+			List<Future<R>> futureList = new ArrayList<>(size);
+			for ( int i = 0; i < size; i++ ) {
+				final int iRequest = i;
+				final Request<R> request = requests.get(i);
+				futureList.add ( executor.submit ( () -> {
+					startMs.set(iRequest, System.currentTimeMillis());
+					requestTimeoutMs.set(this.timeoutMs);
+					try {
+						return request.call();
+					}
+					finally {
+						requestTimeoutMs.remove();
+						endMs.set(iRequest, System.currentTimeMillis());
+					}
+				}));
+			}
+			for ( int i = 0; i < size; i++ ) {
+				Future<R> future = futureList.get(i);
+				R result = null;
+				try {
+					// The request is bounded by the connection timeouts.
+					result = future.get();
+				}
+				catch ( ExecutionException e ) {
+					Throwable cause = e.getCause() == null ? e : e.getCause();
+					if ( isTimeout(cause) ) {
+						addFailure(labels.get(i), "timed out after " + this.timeoutMs + " ms");
+					}
+					else {
+						addFailure(labels.get(i), "" + cause);
+					}
+				}
+				catch ( InterruptedException e ) {
+					// Stop waiting and treat the request as failed.
+					Thread.currentThread().interrupt();
+					future.cancel(true);
+					addFailure(labels.get(i), "interrupted");
+				}
+				results.add(result);
+				long start = startMs.get(i);
+				long end = endMs.get(i);
+				if ( (start > 0) && (end >= start) ) {
+					this.latencyMs[this.latencyCount++] = end - start;
+				}
+			}
+		}
+		finally {
+			// Requests that are blocked on input/output will not stop but the threads are daemon threads.
+			executor.shutdownNow();
+		}
+		return results;
+	}
+
+	/**
+	 * Indicate whether an exception was caused by a connection timeout.
+	 * @param e the exception to check
+	 * @return true if the exception or one of its causes is a socket timeout
+	 */
+	private boolean isTimeout ( Throwable e ) {
+		for ( Throwable t = e; t != null; t = t.getCause() ) {
+			if ( t instanceof SocketTimeoutException ) {
+				return true;
+			}
+			if ( t.getCause() == t ) {
+				break;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Add a failure.
+	 * @param label the request label
+	 * @param message the failure message, which is used to group failures
+	 */
+	private void addFailure ( String label, String message ) {
+		++this.failureCount;
+		List<String> labels = this.failureMap.get(message);
+		if ( labels == null ) {
+			labels = new ArrayList<>();
+			this.failureMap.put(message, labels);
+		}
+		labels.add(label);
+	}
+
+}
@@ -0,0 +1,157 @@
+// ConnectionSettings - settings that are applied to each web service connection for a datastore
+
+/* NoticeStart
+
+OWF TSTool Aquarius Plugin
+Copyright (C) 2025 Open Water Foundation
+
+OWF TSTool Aquarius Plugin is free software:  you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+OWF TSTool Aquarius Plugin is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+    along with OWF TSTool Aquarius Plugin.  If not, see <https://www.gnu.org/licenses/>.
+
+NoticeEnd */
+
+package org.openwaterfoundation.tstool.plugin.aquarius.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Settings that are applied to each web service connection for a datastore
+ * (timeouts, compression, and whether the connection is kept open for reuse).
+ * The settings are applied to each connection rather than with Java system properties
+ * so that they only apply to the datastore's connections and not to all connections in the application.
+ * The settings are immutable and can be shared between threads.
+ */
+public class ConnectionSettings {
+
+	/**
+	 * Timeout to connect to the server in milliseconds, 0 for no timeout.
+	 */
+	private int connectTimeoutMs;
+
+	/**
+	 * Timeout waiting for response data in milliseconds, 0 for no timeout.
+	 */
+	private int readTimeoutMs;
+
+	/**
+	 * Whether to request compressed responses.
+	 */
+	private boolean compression;
+
+	/**
+	 * Whether connections are kept open and reused for later requests.
+	 */
+	private boolean keepAlive;
+
+	/**
+	 * Constructor.
+	 * @param connectTimeoutMs timeout to connect to the server in milliseconds, 0 for no timeout
+	 * @param readTimeoutMs timeout waiting for response data in milliseconds, 0 for no timeout
+	 * @param compression whether to request compressed responses (see configure())
+	 * @param keepAlive whether connections are kept open and reused for later requests
+	 */
+	public ConnectionSettings ( int connectTimeoutMs, int readTimeoutMs, boolean compression, boolean keepAlive ) {
+		this.connectTimeoutMs = Math.max(0, connectTimeoutMs);
+		this.readTimeoutMs = Math.max(0, readTimeoutMs);
+		this.compression = compression;
+		this.keepAlive = keepAlive;
+	}
+
+	/**
+	 * Apply the settings to a connection, which must not be connected.
+	 * If the request is run by ConcurrentRequests, the request timeout (see ConcurrentRequests.getRequestTimeoutMs())
+	 * is used as the read timeout if shorter, so that a request that times out fails and its connection is closed.
+	 * @param connection the connection to configure
+	 * @param requestCompression whether to request a compressed response if compression is enabled,
+	 * which requires that the response is read with getInputStream()
+	 */
+	public void configure ( HttpURLConnection connection, boolean requestCompression ) {
+		connection.setConnectTimeout(this.connectTimeoutMs);
+		long readTimeoutMs = this.readTimeoutMs;
+		long requestTimeoutMs = ConcurrentRequests.getRequestTimeoutMs();
+		if ( (requestTimeoutMs > 0) && ((readTimeoutMs == 0) || (requestTimeoutMs < readTimeoutMs)) ) {
+			readTimeoutMs = requestTimeoutMs;
+		}
+		connection.setReadTimeout((int)Math.min(Integer.MAX_VALUE, readTimeoutMs));
+		if ( !this.keepAlive ) {
+			// Ask the server to close the connection after the response so that the connection is not reused.
+			connection.setRequestProperty("Connection", "close");
+		}
+		if ( requestCompression && this.compression ) {
+			connection.setRequestProperty("Accept-Encoding", "gzip");
+		}
+	}
+
+	/**
+	 * Return the timeout to connect to the server.
+	 * @return the timeout to connect to the server in milliseconds, 0 for no timeout
+	 */
+	public int getConnectTimeoutMs () {
+		return this.connectTimeoutMs;
+	}
+
+	/**
+	 * Return the input stream for a response, decompressing if the response is compressed.
+	 * @param connection the connection for the request
+	 * @return the input stream for the response body
+	 * @throws IOException if the response cannot be read
+	 */
+	public static InputStream getInputStream ( HttpURLConnection connection ) throws IOException {
+		InputStream in = connection.getInputStream();
+		String contentEncoding = connection.getContentEncoding();
+		if ( (contentEncoding != null) && contentEncoding.equalsIgnoreCase("gzip") ) {
+			in = new GZIPInputStream(in);
+		}
+		return in;
+	}
+
+	/**
+	 * Return the timeout waiting for response data.
+	 * @return the timeout waiting for response data in milliseconds, 0 for no timeout
+	 */
+	public int getReadTimeoutMs () {
+		return this.readTimeoutMs;
+	}
+
+	/**
+	 * Return whether compressed responses are requested.
+	 * @return true if compressed responses are requested
+	 */
+	public boolean isCompression () {
+		return this.compression;
+	}
+
+	/**
+	 * Return whether connections are kept open and reused for later requests.
+	 * @return true if connections are reused
+	 */
+	public boolean isKeepAlive () {
+		return this.keepAlive;
+	}
+
+	/**
+	 * Return a summary of the settings, for logging.
+	 * @return a summary of the settings
+	 */
+	@Override
+	public String toString () {
+		return "connectTimeoutMs=" + this.connectTimeoutMs
+			+ ", readTimeoutMs=" + this.readTimeoutMs
+			+ ", compression=" + this.compression
+			+ ", keepAlive=" + this.keepAlive;
+	}
+
+}
@@ -0,0 +1,159 @@
+// EpochDateTimeConverter - convert UTC epoch milliseconds to DateTime without creating objects for each value
+
+/* NoticeStart
+
+OWF TSTool Aquarius Plugin
+Copyright (C) 2025 Open Water Foundation
+
+OWF TSTool Aquarius Plugin is free software:  you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+OWF TSTool Aquarius Plugin is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+    along with OWF TSTool Aquarius Plugin.  If not, see <https://www.gnu.org/licenses/>.
+
+NoticeEnd */
+
+package org.openwaterfoundation.tstool.plugin.aquarius.util;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+import RTi.Util.Time.DateTime;
+
+/**
+ * Convert UTC epoch milliseconds to DateTime in a time zone, for use when setting many time series values.
+ * A single DateTime cursor is reused and the calendar fields are computed arithmetically.
+ * The time zone offset is cached until the next time zone transition,
+ * so the time zone rules are only used when a transition is crossed, and never for fixed-offset time zones.
+ * The converter is not thread-safe and the DateTime that is returned is changed by the next call,
+ * so make a copy if the DateTime must be retained (for example to set the time series period).
+ * Times are milliseconds, consistent with TimeSeriesPointArrays,
+ * so the DateTime nanosecond field is always a whole number of milliseconds.
+ */
+public class EpochDateTimeConverter {
+
+	/**
+	 * Milliseconds per day.
+	 */
+	private static final long MS_PER_DAY = 86400000L;
+
+	/**
+	 * Time zone rules for the output.
+	 */
+	private ZoneRules rules;
+
+	/**
+	 * DateTime cursor that is returned by toDateTime().
+	 */
+	private DateTime cursor;
+
+	/**
+	 * Start of the period (inclusive) for the cached offset, UTC epoch milliseconds.
+	 */
+	private long offsetStartMs = 0;
+
+	/**
+	 * End of the period (exclusive) for the cached offset, UTC epoch milliseconds.
+	 */
+	private long offsetEndMs = 0;
+
+	/**
+	 * Cached offset from UTC, milliseconds.
+	 */
+	private long offsetMs = 0;
+
+	/**
+	 * Number of times the time zone rules were used to determine the offset.
+	 */
+	private int offsetLookupCount = 0;
+
+	/**
+	 * Constructor.
+	 * @param zoneId time zone for the output DateTime
+	 */
+	public EpochDateTimeConverter ( ZoneId zoneId ) {
+		this.rules = zoneId.getRules();
+		this.cursor = new DateTime(DateTime.PRECISION_MILLISECOND);
+		// The ID will be "UTC", "America/Denver", etc.
+		this.cursor.setTimeZone(zoneId.getId());
+		if ( this.rules.isFixedOffset() ) {
+			// The offset never changes.
+			this.offsetMs = this.rules.getOffset(Instant.EPOCH).getTotalSeconds()*1000L;
+			this.offsetStartMs = Long.MIN_VALUE;
+			this.offsetEndMs = Long.MAX_VALUE;
+		}
+	}
+
+	/**
+	 * Return the number of times the time zone rules were used to determine the offset,
+	 * for example to confirm that the cache is effective.
+	 * @return the number of offset lookups
+	 */
+	public int getOffsetLookupCount () {
+		return this.offsetLookupCount;
+	}
+
+	/**
+	 * Return the offset from UTC for a time, using the cached offset if the time is before the next transition.
+	 * @param epochMs UTC epoch milliseconds
+	 * @return the offset from UTC in milliseconds
+	 */
+	private long getOffsetMs ( long epochMs ) {
+		if ( (epochMs >= this.offsetStartMs) && (epochMs < this.offsetEndMs) ) {
+			return this.offsetMs;
+		}
+		++this.offsetLookupCount;
+		Instant instant = Instant.ofEpochMilli(epochMs);
+		this.offsetMs = this.rules.getOffset(instant).getTotalSeconds()*1000L;
+		// Transitions occur on whole seconds so the transition at the time is found by looking 1 ms later.
+		ZoneOffsetTransition previous = this.rules.previousTransition(Instant.ofEpochMilli(epochMs + 1));
+		ZoneOffsetTransition next = this.rules.nextTransition(instant);
+		this.offsetStartMs = (previous == null) ? Long.MIN_VALUE : previous.toEpochSecond()*1000L;
+		this.offsetEndMs = (next == null) ? Long.MAX_VALUE : next.toEpochSecond()*1000L;
+		return this.offsetMs;
+	}
+
+	/**
+	 * Convert UTC epoch milliseconds to DateTime.
+	 * @param epochMs UTC epoch milliseconds
+	 * @return the DateTime cursor set to the local date/time, which is changed by the next call
+	 */
+	public DateTime toDateTime ( long epochMs ) {
+		long localMs = epochMs + getOffsetMs(epochMs);
+		long days = Math.floorDiv(localMs, MS_PER_DAY);
+		int msOfDay = (int)(localMs - days*MS_PER_DAY);
+
+		// Convert days since 1970-01-01 to the calendar date (inverse of TimeUtil.daysFromCivil()).
+		long z = days + 719468;
+		long era = Math.floorDiv(z, 146097);
+		long dayOfEra = z - era*146097;
+		long yearOfEra = (dayOfEra - dayOfEra/1460 + dayOfEra/36524 - dayOfEra/146096)/365;
+		long dayOfYear = dayOfEra - (365*yearOfEra + yearOfEra/4 - yearOfEra/100);
+		long monthPart = (5*dayOfYear + 2)/153;
+		int day = (int)(dayOfYear - (153*monthPart + 2)/5 + 1);
+		int month = (int)((monthPart < 10) ? (monthPart + 3) : (monthPart - 9));
+		int year = (int)(yearOfEra + era*400 + ((month <= 2) ? 1 : 0));
+
+		// Set the same fields as TimeUtil.ofInstant():
+		// - set the day to 1 first so that the previous day is not invalid for the new month
+		this.cursor.setDay(1);
+		this.cursor.setYear(year);
+		this.cursor.setMonth(month);
+		this.cursor.setDay(day);
+		this.cursor.setHour(msOfDay/3600000);
+		this.cursor.setMinute((msOfDay/60000)%60);
+		this.cursor.setSecond((msOfDay/1000)%60);
+		this.cursor.setNanoSecond((msOfDay%1000)*1000000);
+		return this.cursor;
+	}
+
+}
@@ -0,0 +1,140 @@
+// SingleFlight - share one in-progress request between threads that make the same request
+
+/* NoticeStart
+
+OWF TSTool Aquarius Plugin
+Copyright (C) 2025 Open Water Foundation
+
+OWF TSTool Aquarius Plugin is free software:  you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+OWF TSTool Aquarius Plugin is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+    along with OWF TSTool Aquarius Plugin.  If not, see <https://www.gnu.org/licenses/>.
+
+NoticeEnd */
+
+package org.openwaterfoundation.tstool.plugin.aquarius.util;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Share one in-progress request between threads that make the same request at the same time.
+ * The first thread to request a key runs the request and other threads that request the same key
+ * while the request is running wait for and receive the same result (or exception).
+ * Unlike a cache, the key is removed when the request completes so that a later request is run again.
+ * The result is shared and must therefore not be modified by the calling code.
+ * @param <K> the key type, which must implement equals() and hashCode()
+ * @param <V> the result type
+ */
+public class SingleFlight<K,V> {
+
+	/**
+	 * A request that reads the result for a key.
+	 * @param <V> the result type
+	 */
+	public interface Request<V> {
+		/**
+		 * Run the request.
+		 * @return the result of the request
+		 * @throws IOException if the request fails
+		 */
+		V call () throws IOException;
+	}
+
+	/**
+	 * Map of key to the request that is running for the key.
+	 */
+	private ConcurrentHashMap<K,FutureTask<V>> inFlightMap = new ConcurrentHashMap<>();
+
+	/**
+	 * Number of requests that were run.
+	 */
+	private AtomicLong runCount = new AtomicLong(0);
+
+	/**
+	 * Number of requests that used the result of a request that was already running.
+	 */
+	private AtomicLong sharedCount = new AtomicLong(0);
+
+	/**
+	 * Constructor.
+	 */
+	public SingleFlight () {
+	}
+
+	/**
+	 * Return the number of requests that were run.
+	 * @return the number of requests that were run
+	 */
+	public long getRunCount () {
+		return this.runCount.get();
+	}
+
+	/**
+	 * Return the number of requests that used the result of a request that was already running.
+	 * @return the number of requests that used the result of a request that was already running
+	 */
+	public long getSharedCount () {
+		return this.sharedCount.get();
+	}
+
+	/**
+	 * Return the result for a key, running the request if a request for the key is not already running,
+	 * or waiting for the running request.
+	 * @param key the key for the request
+	 * @param request the request to run if a request for the key is not already running
+	 * @return the result of the request
+	 * @throws IOException if the request fails, or the wait is interrupted
+	 */
+	public V run ( K key, Request<V> request ) throws IOException {
+		FutureTask<V> newTask = new FutureTask<>(() -> request.call());
+		FutureTask<V> task = this.inFlightMap.putIfAbsent(key, newTask);
+		if ( task == null ) {
+			// This thread is the first to request the key so run the request.
+			task = newTask;
+			this.runCount.incrementAndGet();
+			try {
+				task.run();
+			}
+			finally {
+				// Remove so that later requests read again.
+				this.inFlightMap.remove(key, task);
+			}
+		}
+		else {
+			this.sharedCount.incrementAndGet();
+		}
+		try {
+			return task.get();
+		}
+		catch ( ExecutionException e ) {
+			Throwable cause = e.getCause();
+			if ( cause instanceof IOException ) {
+				throw (IOException)cause;
+			}
+			else if ( cause instanceof RuntimeException ) {
+				throw (RuntimeException)cause;
+			}
+			else if ( cause instanceof Error ) {
+				throw (Error)cause;
+			}
+			throw new IOException ( cause );
+		}
+		catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			throw new IOException ( "Interrupted waiting for the request for \"" + key + "\".", e );
+		}
+	}
+
+}
@@ -25,6 +25,24 @@ public class TimeUtil {
 	 */
 	private static ZoneId ZONE_ID_UTC = ZoneOffset.of("Z");
 
+	/**
+	 * Return the number of days since 1970-01-01 for a proleptic Gregorian calendar date,
+	 * computed arithmetically without creating objects.
+	 * @param year the year
+	 * @param month the month, 1-12
+	 * @param day the day of month, 1-31
+	 * @return the number of days since 1970-01-01, negative for earlier dates
+	 */
+	public static long daysFromCivil ( int year, int month, int day ) {
+		// Shift the year to start in March so that the leap day is at the end of the year.
+		long y = (month <= 2) ? (year - 1) : year;
+		long era = Math.floorDiv(y, 400);
+		long yearOfEra = y - era*400;
+		long dayOfYear = (153*(month + ((month > 2) ? -3 : 9)) + 2)/5 + day - 1;
+		long dayOfEra = yearOfEra*365 + yearOfEra/4 - yearOfEra/100 + dayOfYear;
+		return era*146097 + dayOfEra - 719468;
+	}
+
 	/**
 	 * Convert a UTC Epoch milliseconds to DateTime
 	 * ZonedDateTime is used since a ZoneId is provided.
@@ -121,6 +139,16 @@ public class TimeUtil {
     	return toEpochSecondsUTC(dt)*1000;
     }
 
+    /**
+     * Convert a DateTime to an Instant, which the Aquarius API uses for QueryFrom and QueryTo.
+     * @param dt DateTime instance to convert.  The time zone will be used or computer time if not specified.
+     * @return an Instant for the date/time
+     */
+    public static Instant toInstant ( DateTime dt ) {
+    	// Seconds are truncated so add back the fractional part.
+    	return Instant.ofEpochSecond(toEpochSecondsUTC(dt), dt.getNanoSecond());
+    }
+
     /**
      * Convert a DateTime to a Unix Epoch seconds in UTC, which Aquarius API uses for period start and end.
      * @param dt DateTime instance to convert.  The time zone will be used or computer time if not specified.
@@ -0,0 +1,168 @@
+// GlobalDataIndexTest - check the global data index against a search of the lists
+
+/* NoticeStart
+
+OWF TSTool Aquarius Plugin
+Copyright (C) 2025 Open Water Foundation
+
+OWF TSTool Aquarius Plugin is free software:  you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+OWF TSTool Aquarius Plugin is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+    along with OWF TSTool Aquarius Plugin.  If not, see <https://www.gnu.org/licenses/>.
+
+NoticeEnd */
+
+package org.openwaterfoundation.tstool.plugin.aquarius.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.aquaticinformatics.aquarius.sdk.timeseries.servicemodels.Publish;
+import com.aquaticinformatics.aquarius.sdk.timeseries.servicemodels.Publish.LocationDescription;
+import com.aquaticinformatics.aquarius.sdk.timeseries.servicemodels.Publish.ParameterMetadata;
+import com.aquaticinformatics.aquarius.sdk.timeseries.servicemodels.Publish.TimeSeriesDescription;
+
+/**
+ * Check that the global data index finds the same objects as a search of the lists
+ * (the approach that was used before the index was added) and compare the time for each approach
+ * for a large catalog (30000 time series for 10000 locations).
+ */
+public class GlobalDataIndexTest {
+
+	private static final int LOCATION_COUNT = 10000;
+	private static final int PARAMETER_COUNT = 100;
+	private static final int TIME_SERIES_COUNT = 30000;
+
+	private List<LocationDescription> locationDescriptionList = new ArrayList<>();
+	private List<Publish.LocationDataServiceResponse> locationDataList = new ArrayList<>();
+	private List<ParameterMetadata> parameterMetadataList = new ArrayList<>();
+	private List<TimeSeriesDescription> timeSeriesDescriptionList = new ArrayList<>();
+
+	public GlobalDataIndexTest () {
+		for ( int i = 0; i < LOCATION_COUNT; i++ ) {
+			LocationDescription locationDescription = new LocationDescription();
+			locationDescription.setIdentifier("LOC" + i);
+			this.locationDescriptionList.add(locationDescription);
+			Publish.LocationDataServiceResponse locationData = new Publish.LocationDataServiceResponse();
+			locationData.setIdentifier("LOC" + i);
+			this.locationDataList.add(locationData);
+		}
+		for ( int i = 0; i < PARAMETER_COUNT; i++ ) {
+			ParameterMetadata parameterMetadata = new ParameterMetadata();
+			parameterMetadata.setIdentifier("PARAM" + i);
+			this.parameterMetadataList.add(parameterMetadata);
+		}
+		for ( int i = 0; i < TIME_SERIES_COUNT; i++ ) {
+			TimeSeriesDescription timeSeriesDescription = new TimeSeriesDescription();
+			// Include some locations and parameters that are not found.
+			timeSeriesDescription.setLocationIdentifier("LOC" + (i % (LOCATION_COUNT + 10)));
+			timeSeriesDescription.setParameter("PARAM" + (i % (PARAMETER_COUNT + 1)));
+			this.timeSeriesDescriptionList.add(timeSeriesDescription);
+		}
+	}
+
+	/**
+	 * Find the location description by searching the list.
+	 */
+	private LocationDescription searchLocationDescription ( String locationIdentifier ) {
+		for ( LocationDescription locationDescription : this.locationDescriptionList ) {
+			if ( (locationIdentifier != null) && locationIdentifier.equals(locationDescription.getIdentifier()) ) {
+				return locationDescription;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Find the location data by searching the list.
+	 */
+	private Publish.LocationDataServiceResponse searchLocationData ( String locationIdentifier ) {
+		for ( Publish.LocationDataServiceResponse locationData : this.locationDataList ) {
+			if ( (locationIdentifier != null) && locationIdentifier.equals(locationData.getIdentifier()) ) {
+				return locationData;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Find the parameter metadata by searching the list.
+	 */
+	private ParameterMetadata searchParameterMetadata ( String parameter ) {
+		for ( ParameterMetadata parameterMetadata : this.parameterMetadataList ) {
+			if ( (parameter != null) && parameter.equals(parameterMetadata.getIdentifier()) ) {
+				return parameterMetadata;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * The index finds the same objects as a list search, and the time for each approach is printed.
+	 */
+	@Test
+	public void testIndexMatchesListSearch () {
+		GlobalDataIndex index = new GlobalDataIndex(this.locationDescriptionList, this.locationDataList, this.parameterMetadataList);
+
+		long start = System.nanoTime();
+		int indexCount = 0;
+		for ( TimeSeriesDescription timeSeriesDescription : this.timeSeriesDescriptionList ) {
+			String locationIdentifier = timeSeriesDescription.getLocationIdentifier();
+			LocationDescription locationDescription = index.findLocationDescription(locationIdentifier);
+			Publish.LocationDataServiceResponse locationData = index.findLocationData(locationIdentifier);
+			ParameterMetadata parameterMetadata = index.findParameterMetadata(timeSeriesDescription.getParameter());
+			indexCount += (locationDescription == null ? 0 : 1) + (locationData == null ? 0 : 1) + (parameterMetadata == null ? 0 : 1);
+		}
+		long indexNs = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		int searchCount = 0;
+		for ( TimeSeriesDescription timeSeriesDescription : this.timeSeriesDescriptionList ) {
+			String locationIdentifier = timeSeriesDescription.getLocationIdentifier();
+			LocationDescription locationDescription = searchLocationDescription(locationIdentifier);
+			Publish.LocationDataServiceResponse locationData = searchLocationData(locationIdentifier);
+			ParameterMetadata parameterMetadata = searchParameterMetadata(timeSeriesDescription.getParameter());
+			searchCount += (locationDescription == null ? 0 : 1) + (locationData == null ? 0 : 1) + (parameterMetadata == null ? 0 : 1);
+			assertSame(locationDescription, index.findLocationDescription(locationIdentifier));
+			assertSame(locationData, index.findLocationData(locationIdentifier));
+			assertSame(parameterMetadata, index.findParameterMetadata(timeSeriesDescription.getParameter()));
+		}
+		long searchNs = System.nanoTime() - start;
+
+		assertEquals(searchCount, indexCount);
+		System.out.println(TIME_SERIES_COUNT + " time series: index build " + index.getBuildTimeMs() + " ms, index "
+			+ String.format("%.1f", indexNs/1000000.0) + " ms, list search " + String.format("%.1f", searchNs/1000000.0)
+			+ " ms (" + indexCount + " matches)");
+	}
+
+	/**
+	 * The first object is used if an identifier is listed more than once, consistent with a list search,
+	 * and null identifiers are not found.
+	 */
+	@Test
+	public void testDuplicateAndNullIdentifiers () {
+		LocationDescription duplicate = new LocationDescription();
+		duplicate.setIdentifier("LOC0");
+		this.locationDescriptionList.add(duplicate);
+		GlobalDataIndex index = new GlobalDataIndex(this.locationDescriptionList, this.locationDataList, this.parameterMetadataList);
+		assertSame(this.locationDescriptionList.get(0), index.findLocationDescription("LOC0"));
+		assertNull(index.findLocationDescription(null));
+		assertNull(index.findLocationData(null));
+		assertNull(index.findParameterMetadata(null));
+	}
+
+}
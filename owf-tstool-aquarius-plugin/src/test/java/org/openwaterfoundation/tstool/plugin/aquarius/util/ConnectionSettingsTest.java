@@ -0,0 +1,237 @@
+// ConnectionSettingsTest - check connection settings against a local HTTP server
+
+/* NoticeStart
+
+OWF TSTool Aquarius Plugin
+Copyright (C) 2025 Open Water Foundation
+
+OWF TSTool Aquarius Plugin is free software:  you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+OWF TSTool Aquarius Plugin is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+    along with OWF TSTool Aquarius Plugin.  If not, see <https://www.gnu.org/licenses/>.
+
+NoticeEnd */
+
+package org.openwaterfoundation.tstool.plugin.aquarius.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Check the connection settings against a local HTTP server:
+ * the gzip request header and response decoding, the read timeout, the ConcurrentRequests request timeout,
+ * and whether connections are reused.
+ */
+public class ConnectionSettingsTest {
+
+	/**
+	 * Response body for the "/data" path.
+	 */
+	private static final String BODY = "{\"Points\":[1,2,3]}";
+
+	/**
+	 * Local server, started for each test.
+	 */
+	private HttpServer server;
+
+	/**
+	 * Accept-Encoding request header for each request.
+	 */
+	private List<String> acceptEncodingList = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Client port for each request, used to check whether connections are reused.
+	 */
+	private List<Integer> clientPortList = new CopyOnWriteArrayList<>();
+
+	@BeforeEach
+	public void startServer () throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		this.server.setExecutor(Executors.newCachedThreadPool());
+		this.server.createContext("/data", exchange -> {
+			String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+			this.acceptEncodingList.add(acceptEncoding == null ? "" : acceptEncoding);
+			this.clientPortList.add(exchange.getRemoteAddress().getPort());
+			byte [] bytes = BODY.getBytes(StandardCharsets.UTF_8);
+			if ( (acceptEncoding != null) && acceptEncoding.contains("gzip") ) {
+				ByteArrayOutputStream bout = new ByteArrayOutputStream();
+				try ( GZIPOutputStream gzip = new GZIPOutputStream(bout) ) {
+					gzip.write(bytes);
+				}
+				bytes = bout.toByteArray();
+				exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+			}
+			sendResponse(exchange, bytes);
+		});
+		this.server.createContext("/slow", exchange -> {
+			try {
+				Thread.sleep(2000);
+			}
+			catch ( InterruptedException e ) {
+				Thread.currentThread().interrupt();
+			}
+			sendResponse(exchange, BODY.getBytes(StandardCharsets.UTF_8));
+		});
+		this.server.start();
+	}
+
+	@AfterEach
+	public void stopServer () {
+		this.server.stop(0);
+	}
+
+	/**
+	 * Open a connection to the local server and apply the settings.
+	 * @param path the request path
+	 * @param settings the connection settings
+	 * @param requestCompression whether to request a compressed response
+	 * @return the connection
+	 */
+	private HttpURLConnection open ( String path, ConnectionSettings settings, boolean requestCompression ) throws IOException {
+		URL url = new URL("http://127.0.0.1:" + this.server.getAddress().getPort() + path);
+		HttpURLConnection connection = (HttpURLConnection)url.openConnection();
+		settings.configure(connection, requestCompression);
+		return connection;
+	}
+
+	/**
+	 * Read the response body, closing the input stream so that the connection can be reused.
+	 * @param connection the connection
+	 * @return the response body
+	 */
+	private String read ( HttpURLConnection connection ) throws IOException {
+		try ( InputStream in = ConnectionSettings.getInputStream(connection) ) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+	/**
+	 * Send a response.
+	 * @param exchange the exchange
+	 * @param bytes the response body
+	 */
+	private static void sendResponse ( HttpExchange exchange, byte [] bytes ) throws IOException {
+		exchange.sendResponseHeaders(200, bytes.length);
+		try ( OutputStream out = exchange.getResponseBody() ) {
+			out.write(bytes);
+		}
+	}
+
+	/**
+	 * A gzip-compressed response is requested and decoded when compression is enabled.
+	 */
+	@Test
+	public void testCompression () throws IOException {
+		ConnectionSettings settings = new ConnectionSettings(5000, 5000, true, true);
+		HttpURLConnection connection = open("/data", settings, true);
+		assertEquals(BODY, read(connection));
+		assertEquals("gzip", connection.getContentEncoding());
+		assertEquals("gzip", this.acceptEncodingList.get(0));
+	}
+
+	/**
+	 * A compressed response is not requested if compression is disabled or not requested for the connection
+	 * (for example for SDK requests, where the SDK reads the response).
+	 */
+	@Test
+	public void testNoCompression () throws IOException {
+		ConnectionSettings settings = new ConnectionSettings(5000, 5000, false, true);
+		HttpURLConnection connection = open("/data", settings, true);
+		assertEquals(BODY, read(connection));
+		assertNull(connection.getContentEncoding());
+		settings = new ConnectionSettings(5000, 5000, true, true);
+		connection = open("/data", settings, false);
+		assertEquals(BODY, read(connection));
+		assertNull(connection.getContentEncoding());
+		for ( String acceptEncoding : this.acceptEncodingList ) {
+			assertTrue(!acceptEncoding.contains("gzip"), "Accept-Encoding=" + acceptEncoding);
+		}
+	}
+
+	/**
+	 * The read timeout is applied to the connection.
+	 */
+	@Test
+	public void testReadTimeout () throws IOException {
+		ConnectionSettings settings = new ConnectionSettings(5000, 200, true, true);
+		HttpURLConnection connection = open("/slow", settings, true);
+		assertEquals(200, connection.getReadTimeout());
+		assertEquals(5000, connection.getConnectTimeout());
+		long start = System.currentTimeMillis();
+		assertThrows(SocketTimeoutException.class, () -> read(connection));
+		assertTrue((System.currentTimeMillis() - start) < 1500);
+	}
+
+	/**
+	 * The ConcurrentRequests request timeout is used as the read timeout if shorter,
+	 * and the request is reported as timed out.
+	 */
+	@Test
+	public void testRequestTimeout () {
+		ConnectionSettings settings = new ConnectionSettings(5000, 60000, true, true);
+		ConcurrentRequests<String> requests = new ConcurrentRequests<>("test", 2, 200);
+		ConcurrentRequests.Request<String> slow = () -> read(open("/slow", settings, true));
+		ConcurrentRequests.Request<String> fast = () -> read(open("/data", settings, true));
+		long start = System.currentTimeMillis();
+		List<String> results = requests.run(Arrays.asList("slow", "fast"), Arrays.asList(slow, fast));
+		assertTrue((System.currentTimeMillis() - start) < 1500);
+		assertNull(results.get(0));
+		assertEquals(BODY, results.get(1));
+		assertEquals(1, requests.getFailureCount());
+		assertTrue(requests.getFailureSummary(5).contains("timed out after 200 ms"), requests.getFailureSummary(5));
+		// The request timeout only applies to requests run by ConcurrentRequests.
+		assertEquals(0, ConcurrentRequests.getRequestTimeoutMs());
+	}
+
+	/**
+	 * Connections are reused if KeepAlive is true and a new connection is used for each request if false.
+	 */
+	@Test
+	public void testKeepAlive () throws IOException {
+		ConnectionSettings keepAlive = new ConnectionSettings(5000, 5000, true, true);
+		read(open("/data", keepAlive, true));
+		read(open("/data", keepAlive, true));
+		assertEquals(this.clientPortList.get(0), this.clientPortList.get(1));
+		this.clientPortList.clear();
+		ConnectionSettings noKeepAlive = new ConnectionSettings(5000, 5000, true, false);
+		HttpURLConnection connection = open("/data", noKeepAlive, true);
+		assertEquals("close", connection.getRequestProperty("Connection"));
+		read(connection);
+		read(open("/data", noKeepAlive, true));
+		assertNotEquals(this.clientPortList.get(0), this.clientPortList.get(1));
+	}
+
+}
@@ -0,0 +1,219 @@
+// EpochDateTimeConverterTest - check the epoch DateTime converter against Instant.atZone()
+
+/* NoticeStart
+
+OWF TSTool Aquarius Plugin
+Copyright (C) 2025 Open Water Foundation
+
+OWF TSTool Aquarius Plugin is free software:  you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+OWF TSTool Aquarius Plugin is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+    along with OWF TSTool Aquarius Plugin.  If not, see <https://www.gnu.org/licenses/>.
+
+NoticeEnd */
+
+package org.openwaterfoundation.tstool.plugin.aquarius.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import RTi.Util.Time.DateTime;
+
+/**
+ * Check that EpochDateTimeConverter produces the same local date/time as Instant.atZone(),
+ * for time zones with daylight saving transitions and fixed offsets,
+ * and compare the time with TimeUtil.epochMilliToDateTime(), which was used for each value before the converter was added.
+ */
+public class EpochDateTimeConverterTest {
+
+	/**
+	 * Milliseconds per hour.
+	 */
+	private static final long MS_PER_HOUR = 3600000L;
+
+	/**
+	 * Time zones with daylight saving transitions.
+	 * Lord Howe Island shifts by 30 minutes.
+	 */
+	private static final String [] DST_ZONES = { "America/Denver", "America/New_York", "Europe/London", "Australia/Sydney", "Australia/Lord_Howe" };
+
+	/**
+	 * Fixed offset time zones.
+	 */
+	private static final String [] FIXED_ZONES = { "UTC", "Z", "-07:00", "+05:30", "+13:45", "Etc/GMT+7" };
+
+	/**
+	 * Check the converter output against Instant.atZone() for a time.
+	 * @param converter the converter to check
+	 * @param zoneId the time zone for the converter
+	 * @param epochMs UTC epoch milliseconds
+	 */
+	private static void check ( EpochDateTimeConverter converter, ZoneId zoneId, long epochMs ) {
+		ZonedDateTime expected = Instant.ofEpochMilli(epochMs).atZone(zoneId);
+		DateTime dt = converter.toDateTime(epochMs);
+		String message = zoneId + " " + expected;
+		assertEquals(expected.getYear(), dt.getYear(), message);
+		assertEquals(expected.getMonthValue(), dt.getMonth(), message);
+		assertEquals(expected.getDayOfMonth(), dt.getDay(), message);
+		assertEquals(expected.getHour(), dt.getHour(), message);
+		assertEquals(expected.getMinute(), dt.getMinute(), message);
+		assertEquals(expected.getSecond(), dt.getSecond(), message);
+		assertEquals(expected.getNano(), dt.getNanoSecond(), message);
+		assertEquals(zoneId.getId(), dt.getTimeZoneAbbreviation(), message);
+	}
+
+	/**
+	 * Check every 15 minutes (plus milliseconds) for 2 days on each side of a local time,
+	 * going forward and then backward so that the cached offset is checked in both directions.
+	 * @param zoneId the time zone
+	 * @param local local date/time near a transition
+	 */
+	private static void checkAround ( ZoneId zoneId, LocalDateTime local ) {
+		long centerMs = local.atZone(zoneId).toInstant().toEpochMilli();
+		EpochDateTimeConverter converter = new EpochDateTimeConverter(zoneId);
+		for ( long ms = centerMs - 48*MS_PER_HOUR; ms <= centerMs + 48*MS_PER_HOUR; ms += 15*60000L + 1 ) {
+			check(converter, zoneId, ms);
+		}
+		for ( long ms = centerMs + 48*MS_PER_HOUR; ms >= centerMs - 48*MS_PER_HOUR; ms -= 15*60000L + 1 ) {
+			check(converter, zoneId, ms);
+		}
+		// Check each millisecond on each side of the transitions.
+		for ( long ms = centerMs - 2*MS_PER_HOUR; ms <= centerMs + 2*MS_PER_HOUR; ms += MS_PER_HOUR ) {
+			for ( long delta = -2; delta <= 2; delta++ ) {
+				check(converter, zoneId, ms + delta);
+			}
+		}
+	}
+
+	/**
+	 * Times around the spring and fall daylight saving transitions match Instant.atZone().
+	 */
+	@Test
+	public void testDaylightSavingTransitions () {
+		ZoneId denver = ZoneId.of("America/Denver");
+		checkAround(denver, LocalDateTime.of(2024, 3, 10, 2, 0));
+		checkAround(denver, LocalDateTime.of(2024, 11, 3, 1, 0));
+		checkAround(denver, LocalDateTime.of(1974, 1, 6, 2, 0));
+		ZoneId london = ZoneId.of("Europe/London");
+		checkAround(london, LocalDateTime.of(2024, 3, 31, 1, 0));
+		checkAround(london, LocalDateTime.of(2024, 10, 27, 1, 0));
+		ZoneId sydney = ZoneId.of("Australia/Sydney");
+		checkAround(sydney, LocalDateTime.of(2024, 4, 7, 2, 0));
+		checkAround(sydney, LocalDateTime.of(2024, 10, 6, 2, 0));
+		ZoneId lordHowe = ZoneId.of("Australia/Lord_Howe");
+		checkAround(lordHowe, LocalDateTime.of(2024, 4, 7, 1, 30));
+		checkAround(lordHowe, LocalDateTime.of(2024, 10, 6, 2, 0));
+	}
+
+	/**
+	 * Hourly values for a year only use the time zone rules near the transitions,
+	 * and fixed offset time zones never use the rules.
+	 */
+	@Test
+	public void testOffsetCache () {
+		long startMs = LocalDateTime.of(2024, 1, 1, 0, 0).atZone(ZoneId.of("UTC")).toInstant().toEpochMilli();
+		for ( String zone : DST_ZONES ) {
+			ZoneId zoneId = ZoneId.of(zone);
+			EpochDateTimeConverter converter = new EpochDateTimeConverter(zoneId);
+			for ( long ms = startMs; ms < startMs + 366*24*MS_PER_HOUR; ms += MS_PER_HOUR ) {
+				check(converter, zoneId, ms);
+			}
+			// The rules are used once for the start and once for each transition.
+			assertTrue(converter.getOffsetLookupCount() <= 3, zone + " offset lookups=" + converter.getOffsetLookupCount());
+		}
+		for ( String zone : FIXED_ZONES ) {
+			ZoneId zoneId = ZoneId.of(zone);
+			EpochDateTimeConverter converter = new EpochDateTimeConverter(zoneId);
+			for ( long ms = startMs; ms < startMs + 366*24*MS_PER_HOUR; ms += MS_PER_HOUR ) {
+				check(converter, zoneId, ms);
+			}
+			assertEquals(0, converter.getOffsetLookupCount(), zone);
+		}
+	}
+
+	/**
+	 * Random times from 1850 to 2150, including times before 1970 and historical offsets that are not whole minutes,
+	 * match Instant.atZone() for all time zones.
+	 */
+	@Test
+	public void testRandomTimes () {
+		long startMs = LocalDateTime.of(1850, 1, 1, 0, 0).atZone(ZoneId.of("UTC")).toInstant().toEpochMilli();
+		long endMs = LocalDateTime.of(2150, 1, 1, 0, 0).atZone(ZoneId.of("UTC")).toInstant().toEpochMilli();
+		Random random = new Random(20250101L);
+		for ( String [] zones : new String [][] { DST_ZONES, FIXED_ZONES } ) {
+			for ( String zone : zones ) {
+				ZoneId zoneId = ZoneId.of(zone);
+				EpochDateTimeConverter converter = new EpochDateTimeConverter(zoneId);
+				for ( int i = 0; i < 100000; i++ ) {
+					check(converter, zoneId, startMs + (long)(random.nextDouble()*(endMs - startMs)));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Leap days and the end of each month convert correctly.
+	 */
+	@Test
+	public void testCalendarBoundaries () {
+		ZoneId zoneId = ZoneId.of("UTC");
+		EpochDateTimeConverter converter = new EpochDateTimeConverter(zoneId);
+		int [] years = { 1899, 1900, 1969, 1970, 1999, 2000, 2023, 2024, 2100 };
+		for ( int year : years ) {
+			for ( int month = 1; month <= 12; month++ ) {
+				long ms = LocalDateTime.of(year, month, 1, 0, 0).atZone(zoneId).toInstant().toEpochMilli();
+				check(converter, zoneId, ms - 1);
+				check(converter, zoneId, ms);
+			}
+		}
+	}
+
+	/**
+	 * Compare the time to convert a year of 1-minute values with TimeUtil.epochMilliToDateTime(),
+	 * which creates a ZonedDateTime and DateTime for each value.
+	 */
+	@Test
+	public void testTiming () {
+		ZoneId zoneId = ZoneId.of("America/Denver");
+		long startMs = LocalDateTime.of(2024, 1, 1, 0, 0).atZone(zoneId).toInstant().toEpochMilli();
+		int count = 366*24*60;
+		long sum = 0;
+		// Repeat so that the second pass is after warm-up.
+		long converterNs = 0;
+		long timeUtilNs = 0;
+		for ( int pass = 0; pass < 2; pass++ ) {
+			long start = System.nanoTime();
+			EpochDateTimeConverter converter = new EpochDateTimeConverter(zoneId);
+			for ( int i = 0; i < count; i++ ) {
+				sum += converter.toDateTime(startMs + i*60000L).getMinute();
+			}
+			converterNs = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for ( int i = 0; i < count; i++ ) {
+				sum -= TimeUtil.epochMilliToDateTime(startMs + i*60000L, zoneId).getMinute();
+			}
+			timeUtilNs = System.nanoTime() - start;
+		}
+		assertEquals(0, sum);
+		System.out.println(count + " values: converter " + String.format("%.1f", converterNs/1000000.0)
+			+ " ms, TimeUtil.epochMilliToDateTime " + String.format("%.1f", timeUtilNs/1000000.0) + " ms");
+	}
+
+}